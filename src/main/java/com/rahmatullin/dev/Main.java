@@ -1,16 +1,33 @@
 package com.rahmatullin.dev;
 
 import com.rahmatullin.dev.algorithmRealisation.AStar;
+import com.rahmatullin.dev.algorithmRealisation.BitGrid;
 import com.rahmatullin.dev.algorithmRealisation.Grid2D;
 import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.algorithmRealisation.VersionedGrid;
+import com.rahmatullin.dev.benchmark.BucketReport;
+import com.rahmatullin.dev.benchmark.Scenario;
+import com.rahmatullin.dev.benchmark.ScenarioRunner;
 import com.rahmatullin.dev.io.CSVExporter;
+import com.rahmatullin.dev.io.ConsoleRenderer;
+import com.rahmatullin.dev.io.MovingAiReader;
+import com.rahmatullin.dev.io.OverviewExporter;
 import com.rahmatullin.dev.io.PPMExporter;
+import com.rahmatullin.dev.io.ReplayRenderer;
+import com.rahmatullin.dev.io.SearchRecorder;
+import com.rahmatullin.dev.service.PathQueryExecutor;
+import com.rahmatullin.dev.service.PathQueryServer;
+import com.rahmatullin.dev.service.PathQueryStream;
 import com.rahmatullin.dev.utils.Logger;
 import com.rahmatullin.dev.utils.Stopwatch;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -22,6 +39,24 @@ import java.util.Scanner;
  */
 public class Main {
     public static void main(String[] args) {
+        // Service mode loads the grid once and keeps answering queries instead of running experiments
+        if (Arrays.asList(args).contains("-serve")) {
+            serve(args);
+            return;
+        }
+        if (Arrays.asList(args).contains("-stream")) {
+            stream(args);
+            return;
+        }
+        if (Arrays.asList(args).contains("-replay")) {
+            replay(args);
+            return;
+        }
+        if (Arrays.asList(args).contains("-bench")) {
+            bench(args);
+            return;
+        }
+
         // Initialize logging and timing
         Logger.writeLine("Start!\n");
         Stopwatch timer = new Stopwatch();
@@ -46,8 +81,16 @@ public class Main {
                 "\ty coordinate of end dot : -y2 y2",
                 "\tCount of obstacles: -obs countOfObstacles",
                 "\tWrite cell data to console: -console",
+                "\tConsole window of N x N symbols around the current cell: -view N",
+                "\tConsole symbol per block of S x S cells: -scale S",
                 "\tChoose count of expirements: -exp N",
-                "\tWrite cell data to PPM file: -image \n");
+                "\tWrite cell data to PPM file: -image",
+                "\tWrite a downsampled overview and tiles instead, one pixel per B x B cells: -overview B",
+                "\tRecord each search to a replay log: -record",
+                "\tRender a replay log as PPM frames: -replay file [-every N] [-workers N]",
+                "\tRun a MovingAI scenario file: -bench file.scen [-map file.map]",
+                "\tAnswer path queries over HTTP on 127.0.0.1: -serve port [-workers N]",
+                "\tAnswer path queries from stdin on stdout: -stream [-binary] [-workers N]\n");
 
         // Enable Unicode character support
         System.setProperty("file.encoding", "UTF-8");
@@ -69,6 +112,8 @@ public class Main {
         // Define default settings and parse command-line arguments
         boolean writeToConsole = true; // Default: write grid data to console
         boolean writeToImage = true; // Default: write grid data to image
+        boolean record = false; // Default: don't record the search for a replay
+        int overview = 0; // Default: upscaled PPM instead of a downsampled overview
         int resx = 50; // Default grid resolution in x-direction
         int resy = 50; // Default grid resolution in y-direction
         int x1 = 15; // Default start point x-coordinate
@@ -78,6 +123,8 @@ public class Main {
         int obstaclesNum = 20; // Default number of obstacles
         int imageMinRes = 300; // Minimal resolution for image output
         int exp = 1; // Default number of experiments
+        int view = 0; // Default console viewport: the whole grid
+        int scale = 1; // Default console scale: one symbol per cell
         Scanner scan = new Scanner(System.in);
 
         // Parse command-line arguments
@@ -151,15 +198,49 @@ public class Main {
                     }
                     i++; // Skip the next argument
                 }
+                // Parse console viewport arguments
+                else if (args[i].equals("-view") && i + 1 < args.length) {
+                    try {
+                        view = Integer.parseInt(args[i + 1]);
+                    } catch (NumberFormatException ex) {
+                        Logger.writeLine("Invalid viewport size. Using default!");
+                    }
+                    i++; // Skip the next argument
+                }
+                else if (args[i].equals("-scale") && i + 1 < args.length) {
+                    try {
+                        scale = Integer.parseInt(args[i + 1]);
+                    } catch (NumberFormatException ex) {
+                        Logger.writeLine("Invalid console scale. Using default!");
+                    }
+                    i++; // Skip the next argument
+                }
+                else if (args[i].equals("-overview") && i + 1 < args.length) {
+                    try {
+                        overview = Integer.parseInt(args[i + 1]);
+                    } catch (NumberFormatException ex) {
+                        Logger.writeLine("Invalid overview block size. Using default!");
+                    }
+                    i++; // Skip the next argument
+                }
                 // Parse console and image output flags
                 else if (args[i].equals("-console")) {
                     writeToConsole = true;
                 } else if (args[i].equals("-image")) {
                     writeToImage = true;
+                } else if (args[i].equals("-record")) {
+                    record = true;
                 }
             }
         }
 
+        if (view < 0 || scale < 1) {
+            Logger.writeLine("Invalid console viewport. Using default!");
+            view = 0;
+            scale = 1;
+        }
+        ConsoleRenderer renderer = new ConsoleRenderer(System.out, view, view, scale);
+
         // Initialize a table for CSV export
         String[][] table = new String[exp][6]; // for write data to csv table
         for (int i = 0; i < exp; i++) {
@@ -174,16 +255,26 @@ public class Main {
                 var startPoint = new Point(x1, y1);
                 var endPoint = new Point(x2, y2);
                 AStar astr = new AStar(startPoint, endPoint, grid);
+                astr.setConsoleRenderer(renderer);
 
-                // Log the initial grid state if requested
+                // Log the initial grid state around the start if requested
                 if (writeToConsole) {
                     Logger.writeLine("Initial state of the gridGraph:");
-                    Logger.write(grid.toString());
+                    renderer.render(grid, astr.getStart().x, astr.getStart().y);
                     Logger.writeLine("------------------------------------");
                 }
-                // Run the A* algorithm and log the results
-                if (astr.aStarSearch(writeToConsole) != null) {
-                    Logger.writeLine(grid.toString());
+                // Run the A* algorithm, record its steps for a replay if requested, and log the results around the end
+                SearchRecorder recorder = record
+                        ? new SearchRecorder(Paths.get(savesDirName, String.format("2%06d.asr", i)), grid) : null;
+                astr.setRecorder(recorder);
+                ArrayList<Point> path;
+                try {
+                    path = astr.aStarSearch(writeToConsole);
+                } finally {
+                    if (recorder != null) recorder.close();
+                }
+                if (path != null) {
+                    renderer.render(grid, astr.getEnd().x, astr.getEnd().y);
                     Logger.writeLine("Ok!");
                     Logger.write("Elapsed time =", timer.getElapsedTime(), "[s]\n");
                     table[i][0] = String.valueOf(i);
@@ -220,8 +311,13 @@ public class Main {
                     // Log a message if the A* algorithm couldn't find a path
                     Logger.writeLine("AStar Algorithm can't find path, try again...");
                 }
-                // Save the grid state to an image if requested
-                if (writeToImage) {
+                // Save the grid state to an image if requested, downsampled for large grids
+                if (writeToImage && overview > 0) {
+                    OverviewExporter exporter = OverviewExporter.build(grid, overview);
+                    exporter.writeLevel(0, Paths.get(savesDirName, String.format("2%06d_overview.pgm", i)));
+                    exporter.writeTiles(Paths.get(savesDirName, String.format("2%06d_tiles", i)), 256);
+                }
+                else if (writeToImage) {
                     String fileName = Paths.get(savesDirName, String.format("2%06d.ppm", i)).toString();
                     PPMExporter.writeFile(grid.getGrid(),
                             grid.getGridWidth(), grid.getGridHeight(), fileName,
@@ -251,4 +347,132 @@ public class Main {
         }
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Generates a grid from the -resx, -resy and -obs arguments and answers path queries
+     * on it over HTTP until the process is stopped.
+     *
+     * @param args The command-line arguments.
+     */
+    private static void serve(String[] args) {
+        int port = intArgument(args, "-serve", 8080);
+        int workers = intArgument(args, "-workers", Runtime.getRuntime().availableProcessors());
+        Grid2D grid = new Grid2D(intArgument(args, "-resx", 50), intArgument(args, "-resy", 50));
+        grid.createObstaclesInGrid(intArgument(args, "-obs", 20));
+
+        PathQueryExecutor executor = new PathQueryExecutor(new VersionedGrid(grid), workers, 1024);
+        try {
+            PathQueryServer server = new PathQueryServer(executor, port);
+            server.start();
+            Logger.writeLine("Answering path queries on http://127.0.0.1:" + server.getPort() + "/path");
+        } catch (IOException e) {
+            Logger.writeLine("Couldn't start the server:", e.getMessage());
+            executor.close();
+        }
+    }
+
+    /**
+     * Generates a grid from the -resx, -resy and -obs arguments and answers the queries streamed on
+     * stdin until it ends. Nothing but results is written to stdout; errors go to stderr.
+     *
+     * @param args The command-line arguments.
+     */
+    private static void stream(String[] args) {
+        boolean binary = Arrays.asList(args).contains("-binary");
+        int workers = intArgument(args, "-workers", Runtime.getRuntime().availableProcessors());
+        Grid2D grid = new Grid2D(intArgument(args, "-resx", 50), intArgument(args, "-resy", 50));
+        grid.createObstaclesInGrid(intArgument(args, "-obs", 20));
+
+        try (PathQueryExecutor executor = new PathQueryExecutor(new VersionedGrid(grid), workers, 1024)) {
+            new PathQueryStream(executor, binary, 8192).run(System.in, System.out);
+        } catch (IOException e) {
+            System.err.println("Query stream failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Renders a replay log written with -record as PPM frames into a directory named after the log.
+     *
+     * @param args The command-line arguments.
+     */
+    private static void replay(String[] args) {
+        int index = Arrays.asList(args).indexOf("-replay");
+        if (index + 1 >= args.length) {
+            System.err.println("Missing replay log after -replay");
+            return;
+        }
+        Path log = Paths.get(args[index + 1]);
+        String name = log.getFileName().toString().replaceFirst("\\.asr$", "");
+        Path directory = log.resolveSibling(name + "_frames");
+        try {
+            ReplayRenderer renderer = ReplayRenderer.load(log);
+            int scale = Math.max(1, 300 / Math.max(1, Math.min(renderer.getGridWidth(), renderer.getGridHeight())));
+            int frames = renderer.renderFrames(directory, Math.max(1, intArgument(args, "-every", 100)), scale,
+                    Math.max(1, intArgument(args, "-workers", Runtime.getRuntime().availableProcessors())));
+            Logger.writeLine("Rendered " + frames + " frames to " + directory);
+        } catch (IOException e) {
+            System.err.println("Replay failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs the queries of a MovingAI scenario file and prints a report per bucket.
+     * The map is taken from -map, or else from the map name of the first scenario next to the scenario file.
+     *
+     * @param args The command-line arguments.
+     */
+    private static void bench(String[] args) {
+        List<String> arguments = Arrays.asList(args);
+        int index = arguments.indexOf("-bench");
+        if (index + 1 >= args.length) {
+            System.err.println("Missing scenario file after -bench");
+            return;
+        }
+        Path scenarioFile = Paths.get(args[index + 1]);
+        try {
+            List<Scenario> scenarios = MovingAiReader.readScenarios(scenarioFile);
+            if (scenarios.isEmpty()) {
+                Logger.writeLine("No scenarios in " + scenarioFile);
+                return;
+            }
+            int mapIndex = arguments.indexOf("-map");
+            Path mapFile = mapIndex >= 0 && mapIndex + 1 < args.length
+                    ? Paths.get(args[mapIndex + 1])
+                    : scenarioFile.resolveSibling(Paths.get(scenarios.get(0).map()).getFileName());
+            BitGrid map = MovingAiReader.readMap(mapFile);
+
+            Logger.writeLine("Map " + mapFile + ": " + map.getGridWidth() + "x" + map.getGridHeight()
+                    + ", " + scenarios.size() + " scenarios");
+            for (BucketReport report : new ScenarioRunner(map).run(scenarios)) {
+                Logger.writeLine(report);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Benchmark failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the integer value that follows an argument.
+     *
+     * @param args The command-line arguments.
+     * @param name The argument, e.g. -resx.
+     * @param defaultValue The value used if the argument is missing or invalid.
+     * @return The value of the argument.
+     */
+    private static int intArgument(String[] args, String name, int defaultValue) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(name)) {
+                try {
+                    return Integer.parseInt(args[i + 1]);
+                } catch (NumberFormatException ex) {
+                    System.err.println("Invalid value of " + name + ". Using default!"); // stdout may carry results
+                }
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -9,14 +9,50 @@ package com.rahmatullin.dev.algorithmRealisation;
  * License: This file is licensed under the MIT License.
  */
 
-import com.rahmatullin.dev.priorityQueue.PriorityQueueMin;
-import com.rahmatullin.dev.utils.Logger;
+import com.rahmatullin.dev.events.SearchEvent;
+import com.rahmatullin.dev.io.ConsoleRenderer;
+import com.rahmatullin.dev.io.SearchRecorder;
+import com.rahmatullin.dev.priorityQueue.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class AStar {
 
+    /**
+     * Data structure used for the open set.
+     */
+    public enum OpenSetType {
+        PRIORITY_QUEUE, // Comparison-based binary heap of Points
+        BUCKET_QUEUE, // Bucket queue of cell indices keyed by the integer total cost
+        BINARY_HEAP, // Binary heap of cell indices in primitive arrays
+        QUATERNARY_HEAP, // 4-ary heap of cell indices in primitive arrays
+        PAIRING_HEAP; // Pairing heap of cell indices in primitive arrays
+
+        /**
+         * Creates an empty primitive queue of cell indices of this type for a search on the given grid.
+         * PRIORITY_QUEUE has no primitive form and gets a binary heap.
+         *
+         * @param grid The grid the search runs on.
+         * @return An empty queue of cell indices.
+         */
+        public IntPriorityQueue createIndexed(WalkableGrid grid) {
+            int capacity = Math.max(16, grid.getGridWidth() + grid.getGridHeight());
+            return switch (this) {
+                // All costs are small integers and open total costs never spread wider
+                // than the most expensive step, so adding and extracting take amortized constant time
+                case BUCKET_QUEUE -> new BucketQueueMin(14 * grid.getMaxTerrainCost() + 1);
+                case QUATERNARY_HEAP -> new QuaternaryIntHeap(capacity);
+                case PAIRING_HEAP -> new PairingIntHeap(capacity);
+                default -> new BinaryIntHeap(capacity);
+            };
+        }
+    }
+
+    // Data structure used for the open set
+    private final OpenSetType openSetType;
     // Priority queue for nodes awaiting evaluation
     private PriorityQueueMin<Point> openSet;
     // Set for storing evaluated nodes
@@ -27,6 +63,10 @@ public class AStar {
     private Grid2D grid2D;
     // Grid matrix
     private Point[][] matrix;
+    // Draws the intermediate states, created on first use
+    private ConsoleRenderer consoleRenderer;
+    // Records the steps of the search for an offline replay, if set
+    private SearchRecorder recorder;
 
     /**
      * Constructor for initializing the A* algorithm.
@@ -38,6 +78,19 @@ public class AStar {
      * @param grid2D The grid on which the path is to be found.
      */
     public AStar(Point start, Point end, Grid2D grid2D) {
+        this(start, end, grid2D, OpenSetType.PRIORITY_QUEUE);
+    }
+
+    /**
+     * Constructor for initializing the A* algorithm with the given open set implementation.
+     *
+     * @param start The starting point of the path.
+     * @param end The ending point of the path.
+     * @param grid2D The grid on which the path is to be found.
+     * @param openSetType The data structure used for the open set.
+     */
+    public AStar(Point start, Point end, Grid2D grid2D, OpenSetType openSetType) {
+        this.openSetType = openSetType;
         this.matrix = grid2D.getGrid();
         this.grid2D = grid2D;
         this.start = this.matrix[start.y][start.x];
@@ -55,24 +108,90 @@ public class AStar {
      * @return An ArrayList of Points representing the shortest path, or null if no path is found.
      */
     public ArrayList<Point> aStarSearch(boolean printIntermediateStates) {
+        return search(printIntermediateStates, SearchControl.UNLIMITED).path();
+    }
+
+    /**
+     * Pathfinding that stops when the deadline passes or the token fires.
+     * A stopped search returns the path to the expanded node closest to the end by the heuristic.
+     *
+     * @param control The deadline and cancellation token, checked every few expansions.
+     * @return The status, the path or partial path, its cost and the number of expanded nodes.
+     */
+    public SearchResult<ArrayList<Point>> search(SearchControl control) {
+        return search(false, control);
+    }
+
+    /**
+     * Runs the search with the selected open set and records it as a SearchEvent.
+     *
+     * @param printIntermediateStates Whether to print the grid's state at each iteration.
+     * @param control The deadline and cancellation token, checked every few expansions.
+     * @return The status, the path or partial path, its cost and the number of expanded nodes.
+     */
+    private SearchResult<ArrayList<Point>> search(boolean printIntermediateStates, SearchControl control) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        SearchResult<ArrayList<Point>> result = openSetType == OpenSetType.PRIORITY_QUEUE
+                ? priorityQueueSearch(printIntermediateStates, control)
+                : indexedSearch(printIntermediateStates, control);
+        event.end();
+        if (recorder != null && result.status() == SearchStatus.FOUND) {
+            recorder.path(result.path());
+        }
+        if (event.shouldCommit()) {
+            event.setQuery("AStar", grid2D.getGridWidth(), grid2D.getGridHeight(), start.x, start.y, end.x, end.y);
+            event.setOutcome(result.status().name(), result.expandedNodes(),
+                    result.path() == null ? 0 : result.path().size(), result.cost());
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Pathfinding with the open set kept in a PriorityQueueMin of Points.
+     *
+     * @param printIntermediateStates Whether to print the grid's state at each iteration.
+     * @param control The deadline and cancellation token, checked every few expansions.
+     * @return The status, the path or partial path, its cost and the number of expanded nodes.
+     */
+    private SearchResult<ArrayList<Point>> priorityQueueSearch(boolean printIntermediateStates, SearchControl control) {
+        int expandedNodes = 0;
+        Point closest = start; // Expanded node with the lowest heuristic cost
+        int closestHCost = heuristic(start, end);
         start.status = Point.Status.OPENED;
         openSet.add(start);
+        if (recorder != null) recorder.open(start.x, start.y);
         while (!openSet.isEmpty()) { // While there are nodes in the open set
+            Point current = openSet.extract(); // Select the node with the lowest total cost
             if (printIntermediateStates) {
-                Logger.writeLine(grid2D.toString());
+                render(current);
             }
-            Point current = openSet.extract(); // Select the node with the lowest total cost
             current.status = Point.Status.OPENED;
             closedSet.add(current); // Move the node to the closed set
+            expandedNodes++;
+            if (recorder != null) recorder.expand(current.x, current.y);
 
             if (current.equals(end)) { // If the current node is the end point
-                return PathSeacrh.reconstructPath(current); // Reconstruct and return the path
+                // Reconstruct and return the path
+                return new SearchResult<>(SearchStatus.FOUND, PathSeacrh.reconstructPath(current), current.gCost, expandedNodes);
+            }
+            int hCost = heuristic(current, end);
+            if (hCost < closestHCost) {
+                closest = current;
+                closestHCost = hCost;
+            }
+            if (expandedNodes % control.getCheckInterval() == 0) { // Check the limits every few expansions
+                SearchStatus stop = control.check();
+                if (stop != null) {
+                    return partialResult(stop, closest, expandedNodes);
+                }
             }
 
             for (Point neighbor : neighbors(current)) { // Consider all neighbors of the current node
                 if (closedSet.contains(neighbor)) continue; // Skip already evaluated nodes
 
-                int tentativeGCost = current.gCost + heuristic(current, neighbor); // Calculate the tentative gCost
+                int tentativeGCost = current.gCost + stepCost(current, neighbor); // Calculate the tentative gCost
                 if ((!(openSet.contains(neighbor))) || tentativeGCost < neighbor.gCost) { // If the node is not in the open set or the new cost is lower
                     neighbor.parent = current; // Set the parent for path reconstruction
                     neighbor.gCost = tentativeGCost; // Update the gCost
@@ -82,12 +201,170 @@ public class AStar {
                     if (!(openSet.contains(neighbor))) { // If the node is not in the open set
                         neighbor.status = Point.Status.OPENED;
                         openSet.add(neighbor); // Add the node to the open set
+                        if (recorder != null) recorder.open(neighbor.x, neighbor.y);
                     }
                 }
             }
         }
 
-        return null;
+        return new SearchResult<>(SearchStatus.NO_PATH, null, -1, expandedNodes);
+    }
+
+    /**
+     * Pathfinding with the open set kept in a primitive queue of cell indices keyed by the total cost.
+     * Instead of updating a node inside the queue, an improved node is added again and its
+     * outdated entry is skipped when it is extracted after the node was closed.
+     *
+     * @param printIntermediateStates Whether to print the grid's state at each iteration.
+     * @param control The deadline and cancellation token, checked every few expansions.
+     * @return The status, the path or partial path, its cost and the number of expanded nodes.
+     */
+    private SearchResult<ArrayList<Point>> indexedSearch(boolean printIntermediateStates, SearchControl control) {
+        int gridHeight = grid2D.getGridHeight();
+        int[] bestGCost = new int[grid2D.getGridWidth() * gridHeight];
+        boolean[] closed = new boolean[bestGCost.length];
+        Arrays.fill(bestGCost, Integer.MAX_VALUE);
+        IntPriorityQueue indexedOpenSet = openSetType.createIndexed(grid2D);
+
+        start.parent = null;
+        start.gCost = 0;
+        start.hCost = heuristic(start, end);
+        start.fCost = start.hCost;
+        start.status = Point.Status.OPENED;
+        bestGCost[start.x * gridHeight + start.y] = 0;
+        indexedOpenSet.add(start.x * gridHeight + start.y, start.fCost);
+        if (recorder != null) recorder.open(start.x, start.y);
+        int expandedNodes = 0;
+        Point closest = start; // Expanded node with the lowest heuristic cost
+
+        while (!indexedOpenSet.isEmpty()) {
+            int cell = indexedOpenSet.extract(); // Select the node with the lowest total cost
+            if (closed[cell]) continue; // Skip outdated entries
+            closed[cell] = true;
+            expandedNodes++;
+            Point current = matrix[cell / gridHeight][cell % gridHeight];
+            if (recorder != null) recorder.expand(current.x, current.y);
+            if (printIntermediateStates) {
+                render(current);
+            }
+
+            if (current.equals(end)) {
+                return new SearchResult<>(SearchStatus.FOUND, PathSeacrh.reconstructPath(current), current.gCost, expandedNodes);
+            }
+            if (current.hCost < closest.hCost) {
+                closest = current;
+            }
+            if (expandedNodes % control.getCheckInterval() == 0) { // Check the limits every few expansions
+                SearchStatus stop = control.check();
+                if (stop != null) {
+                    return partialResult(stop, closest, expandedNodes);
+                }
+            }
+
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    int x = current.x + dx;
+                    int y = current.y + dy;
+                    if ((dx == 0 && dy == 0) || !grid2D.contains(x, y) || grid2D.isBlocked(x, y)) continue;
+                    int neighborCell = x * gridHeight + y;
+                    if (closed[neighborCell]) continue;
+
+                    Point neighbor = matrix[x][y];
+                    int tentativeGCost = current.gCost + stepCost(current, neighbor);
+                    if (tentativeGCost < bestGCost[neighborCell]) {
+                        bestGCost[neighborCell] = tentativeGCost;
+                        neighbor.parent = current;
+                        neighbor.gCost = tentativeGCost;
+                        neighbor.hCost = heuristic(neighbor, end);
+                        neighbor.fCost = neighbor.gCost + neighbor.hCost;
+                        neighbor.status = Point.Status.OPENED;
+                        indexedOpenSet.add(neighborCell, neighbor.fCost);
+                        if (recorder != null) recorder.open(x, y);
+                    }
+                }
+            }
+        }
+
+        return new SearchResult<>(SearchStatus.NO_PATH, null, -1, expandedNodes);
+    }
+
+    /**
+     * Sets the renderer that draws the intermediate states, e.g. to follow the current node in a small viewport.
+     * By default the whole grid is written to the console.
+     *
+     * @param consoleRenderer The renderer.
+     */
+    public void setConsoleRenderer(ConsoleRenderer consoleRenderer) {
+        this.consoleRenderer = consoleRenderer;
+    }
+
+    /**
+     * Sets the recorder that logs every opened and expanded node and the found path,
+     * so the search can be replayed as images by ReplayRenderer. The caller closes the recorder.
+     *
+     * @param recorder The recorder, or null to stop recording.
+     */
+    public void setRecorder(SearchRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Retrieves the start cell of the search. The constructor reads the given coordinates as (row, column),
+     * so this is the cell at x = start.y, y = start.x of the given point.
+     *
+     * @return The start cell of the grid.
+     */
+    public Point getStart() {
+        return start;
+    }
+
+    /**
+     * Retrieves the end cell of the search, read from the given point like the start.
+     *
+     * @return The end cell of the grid.
+     */
+    public Point getEnd() {
+        return end;
+    }
+
+    /**
+     * Draws an intermediate state around the node being expanded.
+     *
+     * @param current The node being expanded.
+     */
+    private void render(Point current) {
+        if (consoleRenderer == null) {
+            consoleRenderer = new ConsoleRenderer(System.out);
+        }
+        try {
+            consoleRenderer.render(grid2D, current.x, current.y);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds the result of a stopped search from the node closest to the end.
+     *
+     * @param status Why the search was stopped.
+     * @param closest The expanded node with the lowest heuristic cost.
+     * @param expandedNodes The number of expanded nodes.
+     * @return The partial result.
+     */
+    private SearchResult<ArrayList<Point>> partialResult(SearchStatus status, Point closest, int expandedNodes) {
+        return new SearchResult<>(status, PathSeacrh.reconstructPath(closest), closest.gCost, expandedNodes);
+    }
+
+    /**
+     * Calculates the cost of moving to an adjacent node.
+     * The distance between the nodes is scaled by the terrain cost of the node being entered.
+     *
+     * @param current The node the move starts in.
+     * @param neighbor The adjacent node the move ends in.
+     * @return The cost of the move as an integer.
+     */
+    public int stepCost(Point current, Point neighbor) {
+        return heuristic(current, neighbor) * grid2D.getTerrainCost(neighbor.x, neighbor.y);
     }
 
     /**
@@ -110,7 +387,21 @@ public class AStar {
      * @return The heuristic cost as an integer.
      */
     public int heuristic(Point first, Point second){
-        return (int) (10 * Math.sqrt((second.x - first.x)*(second.x - first.x) + (second.y - first.y)*(second.y - first.y)));
+        return heuristic(first.x, first.y, second.x, second.y);
+    }
+
+    /**
+     * Calculates the heuristic cost between two cells given by their coordinates,
+     * for searches that work on cell indices instead of Points.
+     *
+     * @param x1 The x-coordinate of the first cell.
+     * @param y1 The y-coordinate of the first cell.
+     * @param x2 The x-coordinate of the second cell.
+     * @param y2 The y-coordinate of the second cell.
+     * @return The heuristic cost as an integer.
+     */
+    public static int heuristic(int x1, int y1, int x2, int y2) {
+        return (int) (10 * Math.sqrt((x2 - x1)*(x2 - x1) + (y2 - y1)*(y2 - y1)));
     }
 
     /**
@@ -0,0 +1,184 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: BitGrid.java
+ * Description: Packed bitset of the walls of a GridGraph, 64 cells per long word
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+public class BitGrid implements WalkableGrid {
+    // Number of rows (the x-coordinate) and cells per row (the y-coordinate), as in Grid2D
+    private final int gridWidth;
+    private final int gridHeight;
+    // Number of long words per row
+    private final int wordsPerRow;
+    // Wall bits, row-major: cell (x, y) is bit (y & 63) of word x * wordsPerRow + (y >>> 6)
+    private final long[] walls;
+
+    /**
+     * Constructor for an empty bit grid.
+     * The unused bits after the last cell of every row are set as walls,
+     * so shifted masks never leak out of the row.
+     *
+     * @param gridWidth The number of rows.
+     * @param gridHeight The number of cells per row.
+     */
+    public BitGrid(int gridWidth, int gridHeight) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.wordsPerRow = (gridHeight + 63) >>> 6;
+        this.walls = new long[gridWidth * wordsPerRow];
+        long tail = (gridHeight & 63) == 0 ? 0L : -1L << (gridHeight & 63);
+        for (int x = 0; x < gridWidth; x++) {
+            walls[x * wordsPerRow + wordsPerRow - 1] = tail;
+        }
+    }
+
+    /**
+     * Packs the walls of a grid.
+     *
+     * @param grid2D The grid to pack.
+     * @return A bit grid with the same walls.
+     */
+    public static BitGrid of(Grid2D grid2D) {
+        BitGrid bitGrid = new BitGrid(grid2D.getGridWidth(), grid2D.getGridHeight());
+        for (int x = 0; x < grid2D.getGridWidth(); x++) {
+            for (int y = 0; y < grid2D.getGridHeight(); y++) {
+                if (grid2D.isBlocked(x, y)) {
+                    bitGrid.setBlocked(x, y, true);
+                }
+            }
+        }
+        return bitGrid;
+    }
+
+    /**
+     * Checks whether the cell is a wall.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return True if the cell is blocked, false otherwise.
+     */
+    public boolean isBlocked(int x, int y) {
+        return (walls[x * wordsPerRow + (y >>> 6)] & (1L << y)) != 0;
+    }
+
+    /**
+     * Sets or clears the wall bit of a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @param blocked True to make the cell a wall, false to make it free.
+     */
+    public void setBlocked(int x, int y, boolean blocked) {
+        if (blocked) {
+            walls[x * wordsPerRow + (y >>> 6)] |= 1L << y;
+        } else {
+            walls[x * wordsPerRow + (y >>> 6)] &= ~(1L << y);
+        }
+    }
+
+    /**
+     * Checks whether a run of cells in one row is free, a whole word at a time.
+     * Stops at the first word that has a wall in the run.
+     *
+     * @param x The row.
+     * @param fromY The first cell of the run.
+     * @param toY The last cell of the run, inclusive.
+     * @return True if no cell of the run is blocked.
+     */
+    public boolean isRunFree(int x, int fromY, int toY) {
+        int rowOffset = x * wordsPerRow;
+        int firstWord = fromY >>> 6;
+        int lastWord = toY >>> 6;
+        for (int word = firstWord; word <= lastWord; word++) {
+            long mask = -1L;
+            if (word == firstWord) mask &= -1L << fromY;
+            if (word == lastWord) mask &= -1L >>> (63 - (toY & 63));
+            if ((walls[rowOffset + word] & mask) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the straight segment between two cell centers crosses no wall.
+     * The segment is walked row by row with integer arithmetic: in every row it covers a run of
+     * consecutive cells, which is tested word-wise. Cells that the segment only touches in a corner
+     * are not tested, the same way a diagonal move may pass between two diagonal walls.
+     *
+     * @param x0 The x-coordinate of the first cell.
+     * @param y0 The y-coordinate of the first cell.
+     * @param x1 The x-coordinate of the second cell.
+     * @param y1 The y-coordinate of the second cell.
+     * @return True if there is a line of sight between the cells.
+     */
+    public boolean hasLineOfSight(int x0, int y0, int x1, int y1) {
+        if (x0 > x1) { // walk the rows upwards
+            int t = x0; x0 = x1; x1 = t;
+            t = y0; y0 = y1; y1 = t;
+        }
+        if (x0 == x1) {
+            return isRunFree(x0, Math.min(y0, y1), Math.max(y0, y1));
+        }
+        long dx = x1 - x0;
+        long dy = y1 - y0;
+        for (int x = x0; x <= x1; x++) {
+            // the part of the segment inside the row, in doubled x-coordinates, clipped to the end cells
+            long from2 = Math.max(2L * x - 1, 2L * x0);
+            long to2 = Math.min(2L * x + 1, 2L * x1);
+            // y * 2dx at both ends of that part
+            long yFrom = 2 * y0 * dx + (from2 - 2L * x0) * dy;
+            long yTo = 2 * y0 * dx + (to2 - 2L * x0) * dy;
+            long low = Math.min(yFrom, yTo);
+            long high = Math.max(yFrom, yTo);
+            // first cell whose span [j - 0.5, j + 0.5) holds the lowest y, last one holding the highest y
+            int fromY = (int) Math.floorDiv(low + dx, 2 * dx);
+            int toY = (int) -Math.floorDiv(-(high - dx), 2 * dx);
+            if (!isRunFree(x, fromY, toY)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the wall words; callers must not modify them.
+     *
+     * @return The row-major wall bits.
+     */
+    public long[] getWalls() {
+        return walls;
+    }
+
+    /**
+     * Retrieves the number of long words per row.
+     *
+     * @return The number of words per row.
+     */
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * Retrieves the number of rows.
+     *
+     * @return The width of the grid.
+     */
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    /**
+     * Retrieves the number of cells per row.
+     *
+     * @return The height of the grid.
+     */
+    public int getGridHeight() {
+        return gridHeight;
+    }
+}
@@ -0,0 +1,199 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: BitParallelBFS.java
+ * Description: Exact unit-cost BFS distance transform that grows the wavefront 64 cells per word
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+public class BitParallelBFS {
+    // Whether the JVM was started with --add-modules jdk.incubator.vector
+    private static final boolean VECTOR_API_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    // Layers spanning fewer words than this are processed on the calling thread
+    private static final int PARALLEL_THRESHOLD_WORDS = 1 << 14;
+    // Number of rows a parallel task processes
+    private static final int STRIPE_ROWS = 32;
+
+    // Walls of the grid
+    private final BitGrid bitGrid;
+    // Number of BFS layers of the last transform
+    private int layerCount;
+
+    /**
+     * Constructor for initializing the distance transform.
+     *
+     * @param bitGrid The walls of the grid.
+     */
+    public BitParallelBFS(BitGrid bitGrid) {
+        this.bitGrid = bitGrid;
+    }
+
+    /**
+     * Computes the distance of every cell from a single source.
+     *
+     * @param x The x-coordinate of the source.
+     * @param y The y-coordinate of the source.
+     * @return The distances, see {@link #distances(Collection)}.
+     */
+    public int[] distances(int x, int y) {
+        return distances(List.of(new Point(x, y)));
+    }
+
+    /**
+     * Computes the number of moves (in all 8 directions) from the nearest source to every cell.
+     * Every wavefront is a row-major bitmask; the next one is the current one shifted by one cell
+     * left and right inside each row, OR-ed with the rows above and below, AND-NOT the walls and
+     * the visited cells. Only rows next to the current wavefront are touched, and wide wavefronts
+     * are processed in parallel stripes of rows.
+     *
+     * @param sources The source cells; blocked sources and sources outside the grid are ignored.
+     * @return The distance of every cell, indexed by x * gridHeight + y, or -1 for unreachable cells.
+     */
+    public int[] distances(Collection<Point> sources) {
+        int rows = bitGrid.getGridWidth();
+        int gridHeight = bitGrid.getGridHeight();
+        int words = bitGrid.getWordsPerRow();
+        long[] frontier = new long[rows * words];
+        long[] next = new long[rows * words];
+        long[] visited = new long[rows * words];
+        long[] dilated = new long[(rows + 2) * words]; // a zero row above and below the grid
+        boolean[] rowReached = new boolean[rows];
+        int[] distance = new int[rows * gridHeight];
+        Arrays.fill(distance, -1);
+
+        int minRow = Integer.MAX_VALUE;
+        int maxRow = -1;
+        for (Point source : sources) {
+            if (source.x < 0 || source.x >= rows || source.y < 0 || source.y >= gridHeight
+                    || bitGrid.isBlocked(source.x, source.y)) continue;
+            int word = source.x * words + (source.y >>> 6);
+            frontier[word] |= 1L << source.y;
+            visited[word] |= 1L << source.y;
+            distance[source.x * gridHeight + source.y] = 0;
+            minRow = Math.min(minRow, source.x);
+            maxRow = Math.max(maxRow, source.x);
+        }
+
+        layerCount = 0;
+        while (maxRow >= 0) {
+            final int layer = layerCount + 1;
+            final int lo = minRow;
+            final int hi = maxRow;
+            final long[] current = frontier;
+            final long[] reached = next;
+            forRows(lo, hi, words, row -> dilateRow(current, dilated, row, words));
+
+            int from = Math.max(0, lo - 1);
+            int to = Math.min(rows - 1, hi + 1);
+            forRows(from, to, words, row ->
+                    rowReached[row] = advanceRow(dilated, visited, reached, distance, row, words, gridHeight, layer));
+
+            minRow = Integer.MAX_VALUE;
+            maxRow = -1;
+            for (int row = from; row <= to; row++) {
+                if (rowReached[row]) {
+                    minRow = Math.min(minRow, row);
+                    maxRow = row;
+                    rowReached[row] = false;
+                }
+            }
+            if (maxRow >= 0) {
+                layerCount = layer;
+            }
+
+            // Clear the used rows, so the buffers are all zero outside the next wavefront
+            Arrays.fill(dilated, (lo + 1) * words, (hi + 2) * words, 0L);
+            Arrays.fill(frontier, lo * words, (hi + 1) * words, 0L);
+            frontier = next;
+            next = current;
+        }
+        return distance;
+    }
+
+    /**
+     * Retrieves the number of layers of the last transform, i.e. the largest finite distance.
+     *
+     * @return The number of BFS layers.
+     */
+    public int getLayerCount() {
+        return layerCount;
+    }
+
+    /**
+     * Dilates a frontier row by one cell to both sides, carrying bits across word boundaries.
+     */
+    private static void dilateRow(long[] frontier, long[] dilated, int row, int words) {
+        int offset = row * words;
+        int target = offset + words; // dilated rows are shifted by the zero row on top
+        for (int i = 0; i < words; i++) {
+            long bits = frontier[offset + i];
+            long previous = i > 0 ? frontier[offset + i - 1] : 0L;
+            long following = i + 1 < words ? frontier[offset + i + 1] : 0L;
+            dilated[target + i] = bits | (bits << 1) | (previous >>> 63) | (bits >>> 1) | (following << 63);
+        }
+    }
+
+    /**
+     * Builds a row of the next wavefront from the dilated rows above, at and below it,
+     * marks the new cells visited and writes their distance.
+     *
+     * @return True if the row has cells in the next wavefront.
+     */
+    private boolean advanceRow(long[] dilated, long[] visited, long[] next, int[] distance,
+                               int row, int words, int gridHeight, int layer) {
+        long[] walls = bitGrid.getWalls();
+        int offset = row * words;
+        int i = 0;
+        if (VECTOR_API_AVAILABLE) {
+            i = VectorRowKernel.combine(dilated, offset, offset + words, offset + 2 * words,
+                    walls, visited, next, offset, words);
+        }
+        for (; i < words; i++) {
+            next[offset + i] = (dilated[offset + i] | dilated[offset + words + i] | dilated[offset + 2 * words + i])
+                    & ~(walls[offset + i] | visited[offset + i]);
+        }
+
+        boolean any = false;
+        for (i = 0; i < words; i++) {
+            long bits = next[offset + i];
+            if (bits == 0) continue;
+            any = true;
+            visited[offset + i] |= bits;
+            int cellBase = row * gridHeight + (i << 6);
+            while (bits != 0) {
+                distance[cellBase + Long.numberOfTrailingZeros(bits)] = layer;
+                bits &= bits - 1;
+            }
+        }
+        return any;
+    }
+
+    /**
+     * Runs a row task for every row in the range, in parallel stripes when the range is wide.
+     */
+    private static void forRows(int from, int to, int words, IntConsumer task) {
+        if ((long) (to - from + 1) * words < PARALLEL_THRESHOLD_WORDS) {
+            for (int row = from; row <= to; row++) {
+                task.accept(row);
+            }
+            return;
+        }
+        int stripes = (to - from + STRIPE_ROWS) / STRIPE_ROWS;
+        IntStream.range(0, stripes).parallel().forEach(stripe -> {
+            int last = Math.min(to, from + (stripe + 1) * STRIPE_ROWS - 1);
+            for (int row = from + stripe * STRIPE_ROWS; row <= last; row++) {
+                task.accept(row);
+            }
+        });
+    }
+}
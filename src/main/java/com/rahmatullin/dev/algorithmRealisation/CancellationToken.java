@@ -0,0 +1,26 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: CancellationToken.java
+ * Description: Flag that lets another thread stop a running search
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+public class CancellationToken {
+    // Set once by any thread, read by the search
+    private volatile boolean cancelled;
+
+    /**
+     * Asks every search that holds the token to stop at its next check.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
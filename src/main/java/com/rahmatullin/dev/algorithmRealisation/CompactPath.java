@@ -0,0 +1,403 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: CompactPath.java
+ * Description: Immutable path stored as its start cell and run-length encoded 3-bit direction codes
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+public final class CompactPath {
+    // Moves of the 8 direction codes, counter-clockwise from +x
+    private static final int[] DX = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] DY = {0, 1, 1, 1, 0, -1, -1, -1};
+    // Format version written in front of the serialized form
+    private static final byte FORMAT_VERSION = 1;
+
+    // Coordinates of the first cell
+    private final int startX, startY;
+    // Number of cells, including the first one
+    private final int cellCount;
+    // Number of straight runs
+    private final int runCount;
+    // Runs as unsigned LEB128 varints of (length - 1) << 3 | direction
+    private final byte[] runs;
+
+    private CompactPath(int startX, int startY, int cellCount, int runCount, byte[] runs) {
+        this.startX = startX;
+        this.startY = startY;
+        this.cellCount = cellCount;
+        this.runCount = runCount;
+        this.runs = runs;
+    }
+
+    /**
+     * Encodes a path given as a list of adjacent cells.
+     *
+     * @param path The cells of the path from the start to the end.
+     * @return The encoded path.
+     * @throws IllegalArgumentException If the path is empty or two consecutive cells are not adjacent.
+     */
+    public static CompactPath fromPoints(List<Point> path) {
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("Path must contain at least one cell");
+        }
+        Encoder encoder = new Encoder();
+        for (int i = 1; i < path.size(); i++) {
+            encoder.append(direction(path.get(i - 1), path.get(i)));
+        }
+        Point first = path.get(0);
+        return encoder.build(first.x, first.y, false);
+    }
+
+    /**
+     * Encodes the path that ends in the given point by following the parent links back to the start.
+     * Unlike PathSeacrh.reconstructPath it neither builds a list of Points nor changes their status.
+     *
+     * @param end The end point of the path.
+     * @return The encoded path.
+     */
+    public static CompactPath fromParents(Point end) {
+        Encoder encoder = new Encoder();
+        Point current = end;
+        while (current.parent != null) {
+            encoder.append(direction(current.parent, current)); // collected from the end backwards
+            current = current.parent;
+        }
+        return encoder.build(current.x, current.y, true);
+    }
+
+    /**
+     * Encodes the path that ends in the given cell by following the parent of every cell,
+     * for searches that work on cell indices (x * gridHeight + y).
+     *
+     * @param parent Maps a cell to its parent cell, -1 for the start.
+     * @param endCell The end cell of the path.
+     * @param gridHeight The height of the grid.
+     * @return The encoded path.
+     */
+    static CompactPath fromCells(IntUnaryOperator parent, int endCell, int gridHeight) {
+        Encoder encoder = new Encoder();
+        int cell = endCell;
+        while (parent.applyAsInt(cell) != -1) {
+            int from = parent.applyAsInt(cell);
+            encoder.append(direction(cell / gridHeight - from / gridHeight, cell % gridHeight - from % gridHeight));
+            cell = from;
+        }
+        return encoder.build(cell / gridHeight, cell % gridHeight, true);
+    }
+
+    /**
+     * Encodes a path given as cell indices (x * gridHeight + y) from the end back to the start.
+     *
+     * @param cells The cells; cells[0] is the end and cells[count - 1] the start.
+     * @param count The number of cells.
+     * @param gridHeight The height of the grid.
+     * @return The encoded path.
+     */
+    static CompactPath fromReversedCells(int[] cells, int count, int gridHeight) {
+        Encoder encoder = new Encoder();
+        for (int i = 0; i + 1 < count; i++) {
+            int cell = cells[i];
+            int from = cells[i + 1];
+            encoder.append(direction(cell / gridHeight - from / gridHeight, cell % gridHeight - from % gridHeight));
+        }
+        int start = cells[count - 1];
+        return encoder.build(start / gridHeight, start % gridHeight, true);
+    }
+
+    /**
+     * Encodes a path given as the direction codes of its moves.
+     *
+     * @param startX The x-coordinate of the first cell.
+     * @param startY The y-coordinate of the first cell.
+     * @param directions The direction codes from the start to the end.
+     * @param count The number of moves.
+     * @return The encoded path.
+     */
+    static CompactPath fromDirections(int startX, int startY, byte[] directions, int count) {
+        Encoder encoder = new Encoder();
+        for (int i = 0; i < count; i++) {
+            encoder.append(directions[i]);
+        }
+        return encoder.build(startX, startY, false);
+    }
+
+    /**
+     * Retrieves the x step of a direction code, counted counter-clockwise from +x.
+     *
+     * @param direction The direction code, 0 to 7.
+     * @return -1, 0 or 1.
+     */
+    public static int getDirectionX(int direction) {
+        return DX[direction];
+    }
+
+    /**
+     * Retrieves the y step of a direction code, counted counter-clockwise from +x.
+     *
+     * @param direction The direction code, 0 to 7.
+     * @return -1, 0 or 1.
+     */
+    public static int getDirectionY(int direction) {
+        return DY[direction];
+    }
+
+    /**
+     * Reads a path written by {@link #toByteArray()}.
+     *
+     * @param bytes The serialized path.
+     * @return The decoded path.
+     * @throws IllegalArgumentException If the bytes are not a serialized path.
+     */
+    public static CompactPath fromByteArray(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (buffer.get() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown path format version");
+            }
+            int startX = buffer.getInt();
+            int startY = buffer.getInt();
+            int cellCount = buffer.getInt();
+            int runCount = buffer.getInt();
+            byte[] runs = new byte[buffer.remaining()];
+            buffer.get(runs);
+            return new CompactPath(startX, startY, cellCount, runCount, runs);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated path", e);
+        }
+    }
+
+    /**
+     * Serializes the path: a version byte, the start coordinates, the number of cells and runs
+     * as big-endian ints, followed by the encoded runs.
+     *
+     * @return The serialized path.
+     */
+    public byte[] toByteArray() {
+        return ByteBuffer.allocate(17 + runs.length)
+                .put(FORMAT_VERSION)
+                .putInt(startX).putInt(startY).putInt(cellCount).putInt(runCount)
+                .put(runs)
+                .array();
+    }
+
+    /**
+     * Creates a cursor over the cells of the path.
+     *
+     * @return A new cursor placed before the first cell.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Decodes the path into the grid's own Points, e.g. for the exporters.
+     *
+     * @param grid2D The grid the path lies on.
+     * @return An ArrayList of Points from the start to the end.
+     */
+    public ArrayList<Point> toPoints(Grid2D grid2D) {
+        ArrayList<Point> points = new ArrayList<>(cellCount);
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            points.add(grid2D.getGrid()[cursor.getX()][cursor.getY()]);
+        }
+        return points;
+    }
+
+    /**
+     * Calculates the cost of the path with the step costs of A* on an even terrain:
+     * 10 for a straight move and 14 for a diagonal move.
+     *
+     * @return The cost of the path.
+     */
+    public int getCost() {
+        int cost = 0;
+        for (int offset = 0; offset < runs.length; ) {
+            int run = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = runs[offset++];
+                run |= (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            cost += ((run >>> 3) + 1) * ((run & 1) == 0 ? 10 : 14); // odd codes are diagonal
+        }
+        return cost;
+    }
+
+    public int getStartX() {
+        return startX;
+    }
+
+    public int getStartY() {
+        return startY;
+    }
+
+    /**
+     * Retrieves the number of cells, including the start.
+     *
+     * @return The number of cells of the path.
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Retrieves the number of straight segments.
+     *
+     * @return The number of runs.
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Retrieves the size of the encoded runs.
+     *
+     * @return The number of bytes the moves take.
+     */
+    public int getEncodedSize() {
+        return runs.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompactPath that = (CompactPath) o;
+        return startX == that.startX && startY == that.startY && cellCount == that.cellCount
+                && Arrays.equals(runs, that.runs);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * startX + startY) + Arrays.hashCode(runs);
+    }
+
+    /**
+     * Finds the direction code of a move between adjacent cells.
+     */
+    private static int direction(Point from, Point to) {
+        int code = direction(to.x - from.x, to.y - from.y);
+        if (code < 0) {
+            throw new IllegalArgumentException("Cells are not adjacent: (" + from.x + ", " + from.y
+                    + ") -> (" + to.x + ", " + to.y + ")");
+        }
+        return code;
+    }
+
+    /**
+     * Finds the direction code of a move, or -1 if the move is not to an adjacent cell.
+     */
+    private static int direction(int dx, int dy) {
+        for (int code = 0; code < 8; code++) {
+            if (DX[code] == dx && DY[code] == dy) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Cursor over the cells of a path. Moving it decodes the runs in place,
+     * so walking a path allocates nothing but the cursor itself.
+     */
+    public final class Cursor {
+        private int x, y;          // current cell
+        private int offset;        // next byte of the runs
+        private int direction;     // direction of the current run
+        private int remaining;     // moves left in the current run
+        private boolean started;   // whether the start cell was returned
+
+        private Cursor() {
+        }
+
+        /**
+         * Moves to the next cell.
+         *
+         * @return True if there was a next cell, false at the end of the path.
+         */
+        public boolean next() {
+            if (!started) {
+                started = true;
+                x = startX;
+                y = startY;
+                return true;
+            }
+            if (remaining == 0) {
+                if (offset >= runs.length) {
+                    return false;
+                }
+                int run = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = runs[offset++];
+                    run |= (b & 0x7F) << shift;
+                    if (b >= 0) break;
+                }
+                direction = run & 7;
+                remaining = (run >>> 3) + 1;
+            }
+            x += DX[direction];
+            y += DY[direction];
+            remaining--;
+            return true;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+    }
+
+    /**
+     * Collects direction codes into runs and writes them as varints.
+     */
+    private static final class Encoder {
+        private int[] directions = new int[16];  // direction of every run
+        private int[] lengths = new int[16];     // number of moves of every run
+        private int runCount;
+        private int moveCount;
+
+        void append(int direction) {
+            moveCount++;
+            if (runCount > 0 && directions[runCount - 1] == direction) {
+                lengths[runCount - 1]++;
+                return;
+            }
+            if (runCount == directions.length) {
+                directions = Arrays.copyOf(directions, runCount * 2);
+                lengths = Arrays.copyOf(lengths, runCount * 2);
+            }
+            directions[runCount] = direction;
+            lengths[runCount++] = 1;
+        }
+
+        CompactPath build(int startX, int startY, boolean reversed) {
+            byte[] bytes = new byte[runCount * 5];
+            int size = 0;
+            for (int i = 0; i < runCount; i++) {
+                int run = reversed ? runCount - 1 - i : i;
+                int value = (lengths[run] - 1) << 3 | directions[run];
+                while ((value & ~0x7F) != 0) {
+                    bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                    value >>>= 7;
+                }
+                bytes[size++] = (byte) value;
+            }
+            return new CompactPath(startX, startY, moveCount + 1, runCount, Arrays.copyOf(bytes, size));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: ComponentLabels.java
+ * Description: Connected-component label of every free cell, to reject unreachable queries at once
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import com.rahmatullin.dev.store.ArtifactType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Labels the free cells so that two cells have the same label exactly when a path joins them
+ * (with the eight moves of the searches). A search between cells of different components can be
+ * answered "no path" without expanding the whole component of the start.
+ * The labels live in an IntBuffer, which may be a view of a memory-mapped ArtifactStore file.
+ */
+public final class ComponentLabels {
+    // Artifact of the ArtifactStore: width, height and component count, then one label per cell
+    public static final ArtifactType<ComponentLabels> ARTIFACT = new ArtifactType<>() {
+        @Override
+        public String getKind() {
+            return "components";
+        }
+
+        @Override
+        public int getVersion() {
+            return 1;
+        }
+
+        @Override
+        public ByteBuffer build(WalkableGrid grid) {
+            ComponentLabels labels = compute(grid);
+            ByteBuffer payload = ByteBuffer.allocate(3 * Integer.BYTES + labels.labels.capacity() * Integer.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            payload.putInt(labels.gridWidth).putInt(labels.gridHeight).putInt(labels.componentCount);
+            payload.asIntBuffer().put(labels.labels.duplicate().rewind());
+            return payload.rewind();
+        }
+
+        @Override
+        public ComponentLabels read(ByteBuffer payload) {
+            int gridWidth = payload.getInt();
+            int gridHeight = payload.getInt();
+            int componentCount = payload.getInt();
+            return new ComponentLabels(gridWidth, gridHeight, componentCount, payload.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer());
+        }
+    };
+
+    // Label of a wall
+    public static final int WALL = -1;
+
+    private final int gridWidth;
+    private final int gridHeight;
+    private final int componentCount;
+    // Label of every cell (x * gridHeight + y)
+    private final IntBuffer labels;
+
+    private ComponentLabels(int gridWidth, int gridHeight, int componentCount, IntBuffer labels) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.componentCount = componentCount;
+        this.labels = labels;
+    }
+
+    /**
+     * Labels the components of a grid with a breadth-first flood fill from every unlabelled free cell.
+     *
+     * @param grid The grid.
+     * @return The labels.
+     */
+    public static ComponentLabels compute(WalkableGrid grid) {
+        int gridWidth = grid.getGridWidth();
+        int gridHeight = grid.getGridHeight();
+        int[] labels = new int[gridWidth * gridHeight];
+        int[] queue = new int[labels.length];
+        int componentCount = 0;
+        for (int x = 0; x < gridWidth; x++) {
+            for (int y = 0; y < gridHeight; y++) {
+                labels[x * gridHeight + y] = grid.isBlocked(x, y) ? WALL : Integer.MIN_VALUE;
+            }
+        }
+
+        for (int seed = 0; seed < labels.length; seed++) {
+            if (labels[seed] != Integer.MIN_VALUE) continue;
+            int label = componentCount++;
+            int head = 0, tail = 0;
+            labels[seed] = label;
+            queue[tail++] = seed;
+            while (head < tail) {
+                int cell = queue[head++];
+                int x = cell / gridHeight;
+                int y = cell % gridHeight;
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        int nx = x + dx;
+                        int ny = y + dy;
+                        if (nx < 0 || nx >= gridWidth || ny < 0 || ny >= gridHeight) continue;
+                        int neighbor = nx * gridHeight + ny;
+                        if (labels[neighbor] == Integer.MIN_VALUE) {
+                            labels[neighbor] = label;
+                            queue[tail++] = neighbor;
+                        }
+                    }
+                }
+            }
+        }
+        return new ComponentLabels(gridWidth, gridHeight, componentCount, IntBuffer.wrap(labels));
+    }
+
+    /**
+     * Retrieves the label of a cell.
+     *
+     * @return The label, or WALL.
+     */
+    public int getLabel(int x, int y) {
+        return labels.get(x * gridHeight + y);
+    }
+
+    /**
+     * Checks whether a path joins two cells.
+     *
+     * @return True if both cells are free and in the same component.
+     */
+    public boolean isConnected(int x1, int y1, int x2, int y2) {
+        int label = getLabel(x1, y1);
+        return label != WALL && label == getLabel(x2, y2);
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    public int getGridHeight() {
+        return gridHeight;
+    }
+}
@@ -0,0 +1,266 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: CooperativePlanner.java
+ * Description: Cooperative multi-agent pathfinding in space-time against a shared reservation table
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import com.rahmatullin.dev.priorityQueue.PriorityQueueMin;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class CooperativePlanner {
+
+    /**
+     * An agent to plan a route for. Agents with a higher priority are planned first
+     * and lower priority agents route around them.
+     *
+     * @param id The unique id of the agent.
+     * @param start The cell the agent stands in at tick 0.
+     * @param goal The cell the agent has to reach.
+     * @param priority The planning priority of the agent.
+     */
+    public record Agent(int id, Point start, Point goal, int priority) {
+    }
+
+    // Entry of the space-time open set: the state packs the tick and the cell index
+    private record Node(long state, int tick, int fCost) {
+    }
+
+    // Number of times an agent is replanned when a concurrently planned group took its entries first
+    private static final int MAX_RESERVATION_ATTEMPTS = 3;
+
+    // Reference to the grid
+    private final Grid2D grid2D;
+    // Grid matrix
+    private final Point[][] matrix;
+    // Shared space-time reservations of all planned agents
+    private final ReservationTable reservations;
+    // Number of ticks ahead an agent plans for
+    private final int horizon;
+    // Extra cells around an agent's start and goal that are considered when splitting agents into independent groups
+    private final int groupMargin;
+    // Agents that could not be planned by the last call
+    private final ConcurrentLinkedQueue<Agent> unplannedAgents;
+
+    /**
+     * Constructor for initializing the cooperative planner.
+     *
+     * @param grid2D The grid all agents move on.
+     * @param reservations The reservation table shared by the agents.
+     * @param horizon The number of ticks ahead an agent plans for.
+     * @param groupMargin Extra cells around an agent's start-goal box within which agents are planned together.
+     */
+    public CooperativePlanner(Grid2D grid2D, ReservationTable reservations, int horizon, int groupMargin) {
+        this.grid2D = grid2D;
+        this.matrix = grid2D.getGrid();
+        this.reservations = reservations;
+        this.horizon = horizon;
+        this.groupMargin = groupMargin;
+        this.unplannedAgents = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Plans collision-free timed paths for all agents.
+     * Agents are split into independent groups whose areas do not overlap, the groups are planned
+     * in parallel and the agents of a group are planned sequentially in priority order.
+     * Each path is reserved atomically in the shared table, so a race between groups only makes
+     * the later agent plan again. The budget is also checked every few expansions of each search,
+     * so one hard agent cannot overrun the frame; agents left when it runs out stay unplanned.
+     *
+     * @param agents The agents to plan.
+     * @param budgetNanos The time budget of the call in nanoseconds.
+     * @return The timed path of every planned agent by id; element t is the agent's cell at tick t.
+     */
+    public Map<Integer, ArrayList<Point>> plan(List<Agent> agents, long budgetNanos) {
+        SearchControl control = new SearchControl(System.nanoTime() + budgetNanos, null, SearchControl.DEFAULT_CHECK_INTERVAL);
+        unplannedAgents.clear();
+        ConcurrentHashMap<Integer, ArrayList<Point>> paths = new ConcurrentHashMap<>();
+
+        splitIntoGroups(agents).parallelStream().forEach(group -> {
+            group.sort(Comparator.comparingInt(Agent::priority).reversed().thenComparingInt(Agent::id));
+            for (Agent agent : group) {
+                ArrayList<Point> path = null;
+                for (int attempt = 0; attempt < MAX_RESERVATION_ATTEMPTS && control.check() == null; attempt++) {
+                    ArrayList<Point> candidate = findPath(agent, control);
+                    if (candidate == null) {
+                        break;
+                    }
+                    if (reservations.tryReservePath(candidate, horizon, agent.id())) {
+                        path = candidate;
+                        break;
+                    }
+                }
+                if (path != null) {
+                    paths.put(agent.id(), path);
+                } else {
+                    unplannedAgents.add(agent);
+                }
+            }
+        });
+        return paths;
+    }
+
+    /**
+     * Retrieves the agents that the last call could not plan, because no path within the horizon
+     * exists around the reservations or the frame budget ran out.
+     *
+     * @return A list of unplanned agents.
+     */
+    public List<Agent> getUnplannedAgents() {
+        return new ArrayList<>(unplannedAgents);
+    }
+
+    /**
+     * Space-time A* for a single agent. States are (cell, tick) pairs, every move including
+     * waiting in place takes one tick, and entries reserved by other agents are avoided.
+     * The goal is accepted only if the agent can stay in it until the horizon.
+     *
+     * @param agent The agent to plan for.
+     * @param control The frame deadline, checked every few expansions.
+     * @return The timed path from tick 0 to the arrival, or null if there is none within the horizon
+     *         or the deadline passed.
+     */
+    private ArrayList<Point> findPath(Agent agent, SearchControl control) {
+        int cellCount = grid2D.getGridWidth() * grid2D.getGridHeight();
+        int gridHeight = grid2D.getGridHeight();
+        Point goal = agent.goal();
+        PriorityQueueMin<Node> openSet = new PriorityQueueMin<>(
+                Comparator.comparingInt(Node::fCost).thenComparing(Comparator.comparingInt(Node::tick).reversed()));
+        HashMap<Long, Long> parents = new HashMap<>();
+        HashSet<Long> closedSet = new HashSet<>();
+
+        long startState = agent.start().x * gridHeight + agent.start().y;
+        parents.put(startState, -1L);
+        openSet.add(new Node(startState, 0, distance(agent.start().x, agent.start().y, goal)));
+        int expandedNodes = 0;
+
+        while (!openSet.isEmpty()) {
+            Node node = openSet.extract();
+            if (!closedSet.add(node.state())) continue;
+            if (++expandedNodes % control.getCheckInterval() == 0 && control.check() != null) {
+                return null; // Check the frame budget every few expansions
+            }
+            int cell = (int) (node.state() % cellCount);
+            int x = cell / gridHeight;
+            int y = cell % gridHeight;
+            int tick = node.tick();
+
+            if (x == goal.x && y == goal.y && reservations.isFreeFrom(x, y, tick, horizon, agent.id())) {
+                return timedPath(node.state(), parents, cellCount);
+            }
+            if (tick >= horizon) continue;
+
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) { // (0, 0) is the wait move
+                    int nx = x + dx;
+                    int ny = y + dy;
+                    if (!grid2D.contains(nx, ny) || grid2D.isBlocked(nx, ny)) continue;
+                    if (reservations.isReservedByOther(nx, ny, tick + 1, agent.id())) continue;
+                    if (reservations.isSwapConflict(x, y, nx, ny, tick, agent.id())) continue;
+
+                    long state = (long) (tick + 1) * cellCount + nx * gridHeight + ny;
+                    if (parents.putIfAbsent(state, node.state()) == null) { // Every state has the cost of its tick
+                        openSet.add(new Node(state, tick + 1, tick + 1 + distance(nx, ny, goal)));
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Walks the parent states back to tick 0 and resolves the cells to grid points.
+     *
+     * @param state The final space-time state.
+     * @param parents The parent of every generated state.
+     * @param cellCount The number of cells in the grid.
+     * @return The timed path ordered from tick 0.
+     */
+    private ArrayList<Point> timedPath(long state, HashMap<Long, Long> parents, int cellCount) {
+        ArrayList<Point> path = new ArrayList<>();
+        int gridHeight = grid2D.getGridHeight();
+        while (state >= 0) {
+            int cell = (int) (state % cellCount);
+            path.add(matrix[cell / gridHeight][cell % gridHeight]);
+            state = parents.get(state);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Number of ticks needed to reach the goal on an empty grid, where diagonal moves take one tick.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @param goal The goal point.
+     * @return The Chebyshev distance to the goal.
+     */
+    private int distance(int x, int y, Point goal) {
+        return Math.max(Math.abs(goal.x - x), Math.abs(goal.y - y));
+    }
+
+    /**
+     * Splits the agents into groups that can be planned independently: agents end up in one group
+     * when the boxes around their start and goal, grown by the group margin, overlap.
+     * Overlaps are found with a sweep over the boxes sorted by their left edge.
+     *
+     * @param agents The agents to split.
+     * @return A list of agent groups.
+     */
+    private List<List<Agent>> splitIntoGroups(List<Agent> agents) {
+        int n = agents.size();
+        int[][] boxes = new int[n][];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            Agent agent = agents.get(i);
+            boxes[i] = new int[]{
+                    Math.min(agent.start().x, agent.goal().x) - groupMargin,
+                    Math.min(agent.start().y, agent.goal().y) - groupMargin,
+                    Math.max(agent.start().x, agent.goal().x) + groupMargin,
+                    Math.max(agent.start().y, agent.goal().y) + groupMargin};
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> boxes[i][0]));
+
+        int[] groupOf = new int[n];
+        for (int i = 0; i < n; i++) groupOf[i] = i;
+        for (int a = 0; a < n; a++) {
+            int[] first = boxes[order[a]];
+            for (int b = a + 1; b < n && boxes[order[b]][0] <= first[2]; b++) {
+                int[] second = boxes[order[b]];
+                if (second[1] <= first[3] && first[1] <= second[3]) {
+                    groupOf[find(groupOf, order[a])] = find(groupOf, order[b]);
+                }
+            }
+        }
+
+        LinkedHashMap<Integer, List<Agent>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            groups.computeIfAbsent(find(groupOf, i), key -> new ArrayList<>()).add(agents.get(i));
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Finds the representative of a group with path halving.
+     *
+     * @param groupOf The parent links of the union-find forest.
+     * @param i The element to look up.
+     * @return The representative element.
+     */
+    private static int find(int[] groupOf, int i) {
+        while (groupOf[i] != i) {
+            groupOf[i] = groupOf[groupOf[i]];
+            i = groupOf[i];
+        }
+        return i;
+    }
+}
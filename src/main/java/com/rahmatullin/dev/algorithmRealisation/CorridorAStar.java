@@ -0,0 +1,239 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: CorridorAStar.java
+ * Description: Coarse-to-fine A* that searches a downsampled grid first and then only a corridor around its path
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.util.Arrays;
+
+/**
+ * Two-phase search for large grids with much open space. The grid is downsampled into blocks of
+ * factor x factor cells; a block is a wall only if all its cells are walls, so every fine path has a coarse
+ * counterpart and a failed coarse search proves there is no path. The fine search then only enters blocks
+ * within a radius of the coarse path. A block with a free cell may still be impossible to cross, e.g. where
+ * a wall thinner than a block runs through it, so when the corridor holds no path the fine search is repeated
+ * on the whole grid.
+ * The corridor path is usually, but not always, as cheap as the optimal one.
+ * The grid must not change while the instance is in use; the coarse grid is built once.
+ */
+public class CorridorAStar {
+    public static final int DEFAULT_FACTOR = 8;
+    public static final int DEFAULT_RADIUS = 1;
+
+    private final int factor;
+    private final int radius;
+    private final BitGrid coarseGrid;
+    private final IndexedAStar coarseSearch;
+    private final CorridorGrid corridorGrid;
+    private final IndexedAStar fineSearch;
+    // Results of the last search
+    private int cost;
+    private int coarseExpandedNodes;
+    private int expandedNodes;
+    private boolean fallback;
+
+    /**
+     * Constructor for a search with the default block size and corridor radius.
+     *
+     * @param grid The grid on which paths are to be found.
+     */
+    public CorridorAStar(WalkableGrid grid) {
+        this(grid, DEFAULT_FACTOR, DEFAULT_RADIUS);
+    }
+
+    /**
+     * Constructor for a search.
+     *
+     * @param grid The grid on which paths are to be found.
+     * @param factor The side of the square block of cells that becomes one coarse cell.
+     * @param radius The number of blocks on each side of the coarse path that the fine search may enter.
+     * @throws IllegalArgumentException If the factor is not positive or the radius is negative.
+     */
+    public CorridorAStar(WalkableGrid grid, int factor, int radius) {
+        if (factor < 1 || radius < 0) {
+            throw new IllegalArgumentException("Invalid block size " + factor + " or corridor radius " + radius);
+        }
+        this.factor = factor;
+        this.radius = radius;
+        this.coarseGrid = downsample(grid, factor);
+        this.coarseSearch = new IndexedAStar(coarseGrid);
+        this.corridorGrid = new CorridorGrid(grid, factor, coarseGrid.getGridWidth(), coarseGrid.getGridHeight());
+        this.fineSearch = new IndexedAStar(corridorGrid);
+    }
+
+    /**
+     * Builds the coarse grid: a block is a wall only if it has no free cell.
+     */
+    private static BitGrid downsample(WalkableGrid grid, int factor) {
+        int coarseWidth = (grid.getGridWidth() + factor - 1) / factor;
+        int coarseHeight = (grid.getGridHeight() + factor - 1) / factor;
+        BitGrid coarse = new BitGrid(coarseWidth, coarseHeight);
+        for (int bx = 0; bx < coarseWidth; bx++) {
+            for (int by = 0; by < coarseHeight; by++) {
+                coarse.setBlocked(bx, by, !hasFreeCell(grid, bx * factor, by * factor, factor));
+            }
+        }
+        return coarse;
+    }
+
+    private static boolean hasFreeCell(WalkableGrid grid, int x0, int y0, int factor) {
+        for (int x = x0; x < Math.min(grid.getGridWidth(), x0 + factor); x++) {
+            for (int y = y0; y < Math.min(grid.getGridHeight(), y0 + factor); y++) {
+                if (!grid.isBlocked(x, y)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds a path between two cells, first inside the corridor of the coarse path and, if there is none,
+     * on the whole grid.
+     *
+     * @param startX The x-coordinate of the start.
+     * @param startY The y-coordinate of the start.
+     * @param endX The x-coordinate of the end.
+     * @param endY The y-coordinate of the end.
+     * @return The path, or null if no path is found.
+     */
+    public CompactPath search(int startX, int startY, int endX, int endY) {
+        cost = -1;
+        fallback = false;
+        CompactPath coarsePath = coarseSearch.search(startX / factor, startY / factor, endX / factor, endY / factor);
+        coarseExpandedNodes = coarseSearch.getExpandedNodes();
+        expandedNodes = 0;
+        if (coarsePath == null) {
+            return null; // no block path means no cell path
+        }
+
+        corridorGrid.open(coarsePath, radius);
+        CompactPath path = fineSearch.search(startX, startY, endX, endY);
+        expandedNodes = fineSearch.getExpandedNodes();
+        if (path == null) { // the corridor is too narrow
+            fallback = true;
+            corridorGrid.openAll();
+            path = fineSearch.search(startX, startY, endX, endY);
+            expandedNodes += fineSearch.getExpandedNodes();
+        }
+        cost = fineSearch.getCost();
+        return path;
+    }
+
+    /**
+     * Retrieves the cost of the path found by the last search.
+     *
+     * @return The cost of the path, or -1 if no path was found.
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Retrieves the number of cells expanded by the fine searches of the last search.
+     *
+     * @return The number of expanded cells.
+     */
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Retrieves the number of blocks expanded by the coarse search of the last search.
+     *
+     * @return The number of expanded blocks.
+     */
+    public int getCoarseExpandedNodes() {
+        return coarseExpandedNodes;
+    }
+
+    /**
+     * Checks whether the last search had to leave the corridor.
+     *
+     * @return True if the whole grid was searched.
+     */
+    public boolean isFallback() {
+        return fallback;
+    }
+
+    public BitGrid getCoarseGrid() {
+        return coarseGrid;
+    }
+
+    /**
+     * The fine grid with every cell outside the corridor blocked.
+     */
+    private static final class CorridorGrid implements WalkableGrid {
+        private final WalkableGrid grid;
+        private final int factor;
+        private final int coarseWidth;
+        private final int coarseHeight;
+        // Blocks of the corridor are marked with the corridor number, so opening a corridor clears the last one
+        private final int[] corridor;
+        private int corridorNumber;
+        private boolean unrestricted;
+
+        CorridorGrid(WalkableGrid grid, int factor, int coarseWidth, int coarseHeight) {
+            this.grid = grid;
+            this.factor = factor;
+            this.coarseWidth = coarseWidth;
+            this.coarseHeight = coarseHeight;
+            this.corridor = new int[coarseWidth * coarseHeight];
+        }
+
+        /**
+         * Restricts the grid to the blocks within a radius of a coarse path.
+         */
+        void open(CompactPath coarsePath, int radius) {
+            unrestricted = false;
+            if (++corridorNumber == Integer.MAX_VALUE) {
+                Arrays.fill(corridor, 0);
+                corridorNumber = 1;
+            }
+            CompactPath.Cursor cursor = coarsePath.cursor();
+            while (cursor.next()) {
+                for (int bx = Math.max(0, cursor.getX() - radius); bx <= Math.min(coarseWidth - 1, cursor.getX() + radius); bx++) {
+                    for (int by = Math.max(0, cursor.getY() - radius); by <= Math.min(coarseHeight - 1, cursor.getY() + radius); by++) {
+                        corridor[bx * coarseHeight + by] = corridorNumber;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Lifts the restriction.
+         */
+        void openAll() {
+            unrestricted = true;
+        }
+
+        @Override
+        public boolean isBlocked(int x, int y) {
+            return grid.isBlocked(x, y)
+                    || (!unrestricted && corridor[(x / factor) * coarseHeight + y / factor] != corridorNumber);
+        }
+
+        @Override
+        public int getTerrainCost(int x, int y) {
+            return grid.getTerrainCost(x, y);
+        }
+
+        @Override
+        public int getMaxTerrainCost() {
+            return grid.getMaxTerrainCost();
+        }
+
+        @Override
+        public int getGridWidth() {
+            return grid.getGridWidth();
+        }
+
+        @Override
+        public int getGridHeight() {
+            return grid.getGridHeight();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: DirtyRegion.java
+ * Description: Summary of the cells changed by one batch of obstacle updates
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.util.BitSet;
+
+/**
+ * Compact summary of one applied change set: the new grid version, the bounding box of the cells
+ * whose walls changed and the set of 64 x 64 tiles that contain them. Caches and indexes use it
+ * to invalidate only what the batch touched.
+ */
+public final class DirtyRegion {
+    // Tiles are 2^TILE_SHIFT cells wide and high
+    public static final int TILE_SHIFT = 6;
+
+    private final long version;             // grid version after the batch
+    private final int minX, minY;           // first corner of the bounding box
+    private final int maxX, maxY;           // opposite corner, inclusive
+    private final int blockedCells;         // number of cells that became walls
+    private final int freedCells;           // number of cells that became free
+    private final int tilesPerRow;          // number of tiles along the y-coordinate
+    private final BitSet dirtyTiles;        // tiles (x >> 6) * tilesPerRow + (y >> 6) with a changed cell
+
+    DirtyRegion(long version, int minX, int minY, int maxX, int maxY,
+                int blockedCells, int freedCells, int tilesPerRow, BitSet dirtyTiles) {
+        this.version = version;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.blockedCells = blockedCells;
+        this.freedCells = freedCells;
+        this.tilesPerRow = tilesPerRow;
+        this.dirtyTiles = dirtyTiles;
+    }
+
+    /**
+     * Checks whether the tile of a cell contains a changed cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return True if the tile of the cell is dirty.
+     */
+    public boolean isTileDirty(int x, int y) {
+        return dirtyTiles.get((x >> TILE_SHIFT) * tilesPerRow + (y >> TILE_SHIFT));
+    }
+
+    /**
+     * Checks whether a rectangle may contain a changed cell, e.g. the bounding box of a cached path.
+     *
+     * @param x0 The smallest x-coordinate of the rectangle.
+     * @param y0 The smallest y-coordinate of the rectangle.
+     * @param x1 The largest x-coordinate of the rectangle.
+     * @param y1 The largest y-coordinate of the rectangle.
+     * @return True if a dirty tile overlaps the rectangle.
+     */
+    public boolean intersects(int x0, int y0, int x1, int y1) {
+        if (x1 < minX || x0 > maxX || y1 < minY || y0 > maxY) {
+            return false;
+        }
+        for (int tx = Math.max(x0, minX) >> TILE_SHIFT; tx <= Math.min(x1, maxX) >> TILE_SHIFT; tx++) {
+            int from = tx * tilesPerRow + (Math.max(y0, minY) >> TILE_SHIFT);
+            int to = tx * tilesPerRow + (Math.min(y1, maxY) >> TILE_SHIFT);
+            int next = dirtyTiles.nextSetBit(from);
+            if (next >= 0 && next <= to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getBlockedCells() {
+        return blockedCells;
+    }
+
+    public int getFreedCells() {
+        return freedCells;
+    }
+
+    /**
+     * Retrieves the number of dirty tiles.
+     *
+     * @return The number of tiles with a changed cell.
+     */
+    public int getDirtyTileCount() {
+        return dirtyTiles.cardinality();
+    }
+
+    @Override
+    public String toString() {
+        return "DirtyRegion{version=" + version + ", x=[" + minX + ", " + maxX + "], y=[" + minY + ", " + maxY
+                + "], blocked=" + blockedCells + ", freed=" + freedCells + ", tiles=" + getDirtyTileCount() + "}";
+    }
+}
@@ -0,0 +1,299 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: FirstMoveDatabase.java
+ * Description: Compressed path database answering the first move towards any target without a search
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import com.rahmatullin.dev.priorityQueue.BinaryIntHeap;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * First move of a cheapest path from every free cell to every other cell of a static grid, with the step
+ * costs of AStar. The moves of one source are listed over the targets in Z-order (Morton order), where close
+ * cells are usually reached through the same first move, and stored as runs of equal moves; walls take the
+ * move of the run around them, so they never split a run. A lookup is a binary search over the runs of the
+ * source, and a whole path is read by following first moves, one lookup per move.
+ *
+ * Building runs one Dijkstra search per free cell, in parallel, so it takes time quadratic in the cell count
+ * and is meant for small and medium maps. The database is a snapshot; it must be rebuilt when the grid changes.
+ */
+public final class FirstMoveDatabase {
+    // First move when the target is the source, a wall or not reachable
+    public static final int NONE = -1;
+
+    // Move code of a run of unreachable targets
+    private static final int UNREACHABLE = 8;
+    // Bits of a run entry holding the move; the rest is the Z-order rank of the first target of the run
+    private static final int MOVE_BITS = 4;
+    // Stripes of sources per thread of the common pool, so a thread that finishes early takes another one
+    private static final int STRIPES_PER_THREAD = 4;
+
+    private final WalkableGrid grid;
+    private final int gridWidth;
+    private final int gridHeight;
+    // Z-order rank of every cell (x * gridHeight + y)
+    private final int[] rank;
+    // Runs of the source cell c are runs[offsets[c]] to runs[offsets[c + 1] - 1], as rank << MOVE_BITS | move
+    private final int[] offsets;
+    private final int[] runs;
+
+    private FirstMoveDatabase(WalkableGrid grid, int[] rank, int[] offsets, int[] runs) {
+        this.grid = grid;
+        this.gridWidth = grid.getGridWidth();
+        this.gridHeight = grid.getGridHeight();
+        this.rank = rank;
+        this.offsets = offsets;
+        this.runs = runs;
+    }
+
+    /**
+     * Builds the database of a grid with one Dijkstra search per free cell, spread over the common pool.
+     *
+     * @param grid The grid, which must not change while the database is in use.
+     * @return The database.
+     * @throws IllegalArgumentException If the grid has too many cells to rank them in a run entry.
+     * @throws IllegalStateException If the runs do not fit into one array.
+     */
+    public static FirstMoveDatabase build(WalkableGrid grid) {
+        int gridWidth = grid.getGridWidth();
+        int gridHeight = grid.getGridHeight();
+        if ((long) gridWidth * gridHeight > Integer.MAX_VALUE >>> MOVE_BITS) {
+            throw new IllegalArgumentException("Grid of " + gridWidth + "x" + gridHeight + " cells is too large");
+        }
+        int cellCount = gridWidth * gridHeight;
+
+        // Z-order of the cells: sort them by their interleaved coordinate bits. Coordinates are below 2^27,
+        // so the keys stay positive and every key decodes back to its cell
+        long[] keys = new long[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            keys[cell] = interleave(cell / gridHeight) << 1 | interleave(cell % gridHeight);
+        }
+        Arrays.sort(keys);
+        int[] order = new int[cellCount];
+        int[] rank = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            order[i] = (int) deinterleave(keys[i] >>> 1) * gridHeight + (int) deinterleave(keys[i]);
+            rank[order[i]] = i;
+        }
+
+        // Every stripe takes every stripes-th source with its own search, which is dropped when the stripe ends
+        int[][] sourceRuns = new int[cellCount][];
+        int stripes = Math.min(cellCount, STRIPES_PER_THREAD * (ForkJoinPool.getCommonPoolParallelism() + 1));
+        IntStream.range(0, stripes).parallel().forEach(stripe -> {
+            Dijkstra search = new Dijkstra(grid);
+            for (int source = stripe; source < cellCount; source += stripes) {
+                if (!grid.isBlocked(source / gridHeight, source % gridHeight)) {
+                    sourceRuns[source] = search.runs(source, order);
+                }
+            }
+        });
+
+        int[] offsets = new int[cellCount + 1];
+        long total = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            total += sourceRuns[cell] == null ? 0 : sourceRuns[cell].length;
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Too many runs for one array: " + total);
+            }
+            offsets[cell + 1] = (int) total;
+        }
+        int[] runs = new int[(int) total];
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (sourceRuns[cell] != null) {
+                System.arraycopy(sourceRuns[cell], 0, runs, offsets[cell], sourceRuns[cell].length);
+            }
+        }
+        return new FirstMoveDatabase(grid, rank, offsets, runs);
+    }
+
+    /**
+     * Spreads the 32 bits of a non-negative coordinate to the even bits of the result.
+     */
+    private static long interleave(int value) {
+        long bits = value & 0xFFFFFFFFL;
+        bits = (bits | bits << 16) & 0x0000FFFF0000FFFFL;
+        bits = (bits | bits << 8) & 0x00FF00FF00FF00FFL;
+        bits = (bits | bits << 4) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | bits << 2) & 0x3333333333333333L;
+        bits = (bits | bits << 1) & 0x5555555555555555L;
+        return bits;
+    }
+
+    /**
+     * Gathers the even bits of a key back into a coordinate, the inverse of interleave.
+     */
+    private static long deinterleave(long key) {
+        long bits = key & 0x5555555555555555L;
+        bits = (bits | bits >>> 1) & 0x3333333333333333L;
+        bits = (bits | bits >>> 2) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | bits >>> 4) & 0x00FF00FF00FF00FFL;
+        bits = (bits | bits >>> 8) & 0x0000FFFF0000FFFFL;
+        bits = (bits | bits >>> 16) & 0x00000000FFFFFFFFL;
+        return bits;
+    }
+
+    /**
+     * Finds the first move of a cheapest path between two cells.
+     *
+     * @param startX The x-coordinate of the source.
+     * @param startY The y-coordinate of the source.
+     * @param endX The x-coordinate of the target.
+     * @param endY The y-coordinate of the target.
+     * @return The direction code of the move (see CompactPath.getDirectionX), or NONE if the cells are equal,
+     *         either is a wall or the target is not reachable.
+     */
+    public int getFirstMove(int startX, int startY, int endX, int endY) {
+        if ((startX == endX && startY == endY) || grid.isBlocked(startX, startY) || grid.isBlocked(endX, endY)) {
+            return NONE;
+        }
+        int move = lookup(startX * gridHeight + startY, rank[endX * gridHeight + endY]);
+        return move == UNREACHABLE ? NONE : move;
+    }
+
+    /**
+     * Reads a cheapest path between two cells by following first moves; no search is made.
+     *
+     * @param startX The x-coordinate of the source.
+     * @param startY The y-coordinate of the source.
+     * @param endX The x-coordinate of the target.
+     * @param endY The y-coordinate of the target.
+     * @return The path, or null if either cell is a wall or the target is not reachable.
+     */
+    public CompactPath path(int startX, int startY, int endX, int endY) {
+        if (grid.isBlocked(startX, startY) || grid.isBlocked(endX, endY)) return null;
+        int target = rank[endX * gridHeight + endY];
+        byte[] moves = new byte[64];
+        int count = 0;
+        int x = startX, y = startY;
+        while (x != endX || y != endY) {
+            int move = lookup(x * gridHeight + y, target);
+            if (move == UNREACHABLE) return null;
+            if (count == moves.length) moves = Arrays.copyOf(moves, count * 2);
+            moves[count++] = (byte) move;
+            x += CompactPath.getDirectionX(move);
+            y += CompactPath.getDirectionY(move);
+        }
+        return CompactPath.fromDirections(startX, startY, moves, count);
+    }
+
+    /**
+     * Finds the move of the last run of a source that starts at or before a target rank.
+     */
+    private int lookup(int source, int targetRank) {
+        int low = offsets[source];
+        int high = offsets[source + 1] - 1; // the first run starts at rank 0
+        int key = targetRank << MOVE_BITS | ((1 << MOVE_BITS) - 1);
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (runs[middle] <= key) low = middle;
+            else high = middle - 1;
+        }
+        return runs[low] & ((1 << MOVE_BITS) - 1);
+    }
+
+    /**
+     * Retrieves the number of runs of a source cell; a lookup takes about log2 of it steps.
+     *
+     * @return The number of runs, 0 for a wall.
+     */
+    public int getRunCount(int x, int y) {
+        int cell = x * gridHeight + y;
+        return offsets[cell + 1] - offsets[cell];
+    }
+
+    /**
+     * Retrieves the number of runs of all sources.
+     *
+     * @return The number of runs, 4 bytes each.
+     */
+    public int getRunCount() {
+        return runs.length;
+    }
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    /**
+     * Dijkstra search from one source that records the first move towards every cell.
+     * Each stripe of sources has one and reuses its arrays.
+     */
+    private static final class Dijkstra {
+        private final WalkableGrid grid;
+        private final int[] gCost;
+        private final byte[] firstMove;
+        private final boolean[] closed;
+        private final BinaryIntHeap openSet = new BinaryIntHeap(1024);
+        private int[] runs = new int[64];
+
+        Dijkstra(WalkableGrid grid) {
+            this.grid = grid;
+            int cellCount = grid.getGridWidth() * grid.getGridHeight();
+            this.gCost = new int[cellCount];
+            this.firstMove = new byte[cellCount];
+            this.closed = new boolean[cellCount];
+        }
+
+        /**
+         * Searches from a source and compresses its first moves along the Z-order of the targets.
+         */
+        int[] runs(int source, int[] order) {
+            int gridHeight = grid.getGridHeight();
+            Arrays.fill(gCost, Integer.MAX_VALUE);
+            Arrays.fill(firstMove, (byte) UNREACHABLE);
+            Arrays.fill(closed, false);
+            openSet.clear();
+            gCost[source] = 0;
+            openSet.add(source, 0);
+
+            while (!openSet.isEmpty()) {
+                int cell = openSet.extract();
+                if (closed[cell]) continue; // Skip outdated entries
+                closed[cell] = true;
+                int x = cell / gridHeight;
+                int y = cell % gridHeight;
+                for (int move = 0; move < 8; move++) {
+                    int dx = CompactPath.getDirectionX(move);
+                    int dy = CompactPath.getDirectionY(move);
+                    int nx = x + dx;
+                    int ny = y + dy;
+                    if (!grid.contains(nx, ny) || grid.isBlocked(nx, ny)) continue;
+                    int neighbor = nx * gridHeight + ny;
+                    int tentativeGCost = gCost[cell] + ((dx != 0 && dy != 0) ? 14 : 10) * grid.getTerrainCost(nx, ny);
+                    if (tentativeGCost < gCost[neighbor]) {
+                        gCost[neighbor] = tentativeGCost;
+                        firstMove[neighbor] = cell == source ? (byte) move : firstMove[cell];
+                        openSet.add(neighbor, tentativeGCost);
+                    }
+                }
+            }
+
+            int count = 0;
+            int current = -1;
+            for (int i = 0; i < order.length; i++) {
+                int target = order[i];
+                if (target == source || grid.isBlocked(target / gridHeight, target % gridHeight)) continue; // any move will do
+                int move = firstMove[target];
+                if (move == current) continue;
+                if (count == runs.length) runs = Arrays.copyOf(runs, count * 2);
+                int start = count == 0 ? 0 : i; // the first run covers the ranks before it
+                runs[count++] = start << MOVE_BITS | move;
+                current = move;
+            }
+            if (count == 0) runs[count++] = UNREACHABLE; // a free cell alone
+            return Arrays.copyOf(runs, count);
+        }
+    }
+}
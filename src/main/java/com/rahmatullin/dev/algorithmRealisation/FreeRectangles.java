@@ -0,0 +1,26 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: FreeRectangles.java
+ * Description: Decomposition of the free space of a grid into empty rectangles
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+/**
+ * Disjoint rectangles of free cells with terrain cost 1, as used by RectangleAStar to cross them in one step.
+ */
+interface FreeRectangles {
+
+    /**
+     * Finds the rectangle holding a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @param bounds Receives the first x, first y, last x and last y of the rectangle, inclusive.
+     * @return False if the cell is in no rectangle of more than one cell.
+     */
+    boolean find(int x, int y, int[] bounds);
+}
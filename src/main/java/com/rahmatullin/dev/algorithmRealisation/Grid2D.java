@@ -9,12 +9,23 @@ package com.rahmatullin.dev.algorithmRealisation;
  * License: This file is licensed under the MIT License.
  */
 
+import com.rahmatullin.dev.events.GridBuildEvent;
+import com.rahmatullin.dev.events.ObstacleGenerationEvent;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import static com.rahmatullin.dev.utils.Utils.getRandomValue;
 
-public class Grid2D {
+public class Grid2D implements WalkableGrid {
+    // Largest movement cost a cell can have
+    public static final int MAX_TERRAIN_COST = 255;
     // Initialize the random number generator
     private final Random rnd = new Random();
     // Two-dimensional array of points representing the grid
@@ -25,6 +36,16 @@ public class Grid2D {
 
     // List of obstacles in the grid
     private ArrayList<Point> gridObstacles;
+    // Whether gridObstacles must be rebuilt after change sets were applied
+    private boolean obstaclesStale;
+    // Number of applied change sets
+    private long version;
+    // Listeners notified after every applied change set
+    private final CopyOnWriteArrayList<Consumer<DirtyRegion>> changeListeners = new CopyOnWriteArrayList<>();
+    // Movement cost of every cell (x * gridHeight + y) as an unsigned byte, null while all cells cost 1
+    private byte[] terrainCosts;
+    // Upper bound of the terrain costs, raised by setTerrainCost so that reading it is O(1)
+    private int maxTerrainCost = 1;
 
     /**
      * Constructor for creating a grid with specified dimensions.
@@ -34,6 +55,8 @@ public class Grid2D {
      * @param gridHeight The height of the grid.
      */
     public Grid2D(int gridWidth, int gridHeight) {
+        GridBuildEvent event = new GridBuildEvent();
+        event.begin();
         this.gridWidth = gridWidth;
         this.gridHeight = gridHeight;
         this.grid2D = new Point[gridWidth][gridHeight];
@@ -43,6 +66,11 @@ public class Grid2D {
                 grid2D[i][j] = new Point(i, j);
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setSize(gridWidth, gridHeight);
+            event.commit();
+        }
     }
 
     /**
@@ -52,8 +80,11 @@ public class Grid2D {
      * @param numObstacles The number of obstacles to create.
      */
     public void createObstaclesInGrid(int numObstacles) {
+        ObstacleGenerationEvent event = new ObstacleGenerationEvent();
+        event.begin();
         var obstacles = generateObstacles(numObstacles);
         gridObstacles = obstacles;
+        obstaclesStale = false;
 
         // Add obstacles to the grid
         for (Point obstacle : obstacles) {
@@ -65,6 +96,11 @@ public class Grid2D {
                 grid2D[x][y] = obstacle; // Set the obstacle
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setObstacles(gridWidth, gridHeight, numObstacles);
+            event.commit();
+        }
     }
 
     /**
@@ -103,9 +139,165 @@ public class Grid2D {
      * @return An ArrayList of Points representing the obstacles.
      */
     public ArrayList<Point> getGridObstacles() {
+        if (obstaclesStale) { // rebuilt once per read instead of once per event
+            gridObstacles = new ArrayList<>();
+            for (Point[] row : grid2D) {
+                for (Point point : row) {
+                    if (point.status == Point.Status.BLOCK) {
+                        gridObstacles.add(point);
+                    }
+                }
+            }
+            obstaclesStale = false;
+        }
         return gridObstacles;
     }
 
+    /**
+     * Applies a batch of wall events, bumps the version and notifies the change listeners once.
+     * The whole batch is checked before any cell changes. Only the net changes are summarized:
+     * a cell blocked and freed again in the same batch is not dirty. If no cell changes, nothing is published.
+     *
+     * @param changes The events to apply, in order.
+     * @return The summary of the changed cells, or null if no cell changed.
+     * @throws IndexOutOfBoundsException If an event lies outside the grid.
+     */
+    public synchronized DirtyRegion applyChanges(ObstacleChangeSet changes) {
+        for (int i = 0; i < changes.size(); i++) {
+            if (!contains(changes.getX(i), changes.getY(i))) {
+                throw new IndexOutOfBoundsException("Cell (" + changes.getX(i) + ", " + changes.getY(i)
+                        + ") is outside the grid");
+            }
+        }
+        // Walls of the touched cells before the batch, so a cell blocked and freed again is not dirty
+        HashMap<Integer, Boolean> wallsBefore = new HashMap<>();
+        for (int i = 0; i < changes.size(); i++) {
+            int x = changes.getX(i);
+            int y = changes.getY(i);
+            boolean wasBlocked = isBlocked(x, y);
+            if (wasBlocked == changes.isBlocking(i)) continue;
+            wallsBefore.putIfAbsent(x * gridHeight + y, wasBlocked);
+            grid2D[x][y].status = wasBlocked ? Point.Status.CLOSED : Point.Status.BLOCK;
+        }
+        int tilesPerRow = (gridHeight + (1 << DirtyRegion.TILE_SHIFT) - 1) >> DirtyRegion.TILE_SHIFT;
+        BitSet dirtyTiles = new BitSet();
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = -1, maxY = -1;
+        int blocked = 0, freed = 0;
+        for (Map.Entry<Integer, Boolean> entry : wallsBefore.entrySet()) {
+            int x = entry.getKey() / gridHeight;
+            int y = entry.getKey() % gridHeight;
+            if (isBlocked(x, y) == entry.getValue()) continue;
+            if (entry.getValue()) freed++; else blocked++;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            dirtyTiles.set((x >> DirtyRegion.TILE_SHIFT) * tilesPerRow + (y >> DirtyRegion.TILE_SHIFT));
+        }
+        if (blocked + freed == 0) {
+            return null;
+        }
+        obstaclesStale = true;
+        DirtyRegion region = new DirtyRegion(++version, minX, minY, maxX, maxY, blocked, freed, tilesPerRow, dirtyTiles);
+        for (Consumer<DirtyRegion> listener : changeListeners) {
+            listener.accept(region);
+        }
+        return region;
+    }
+
+    /**
+     * Registers a listener that receives the summary of every applied change set,
+     * on the thread that applied it.
+     *
+     * @param listener The listener to add.
+     */
+    public void addChangeListener(Consumer<DirtyRegion> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a change listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeChangeListener(Consumer<DirtyRegion> listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Retrieves the version of the walls.
+     *
+     * @return The number of change sets that changed the grid.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks whether the coordinates lie inside the grid.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return True if the cell is inside the grid bounds, false otherwise.
+     */
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < gridWidth && y >= 0 && y < gridHeight;
+    }
+
+    /**
+     * Checks whether the cell is an obstacle.
+     * Unlike a lookup in the obstacle list this takes constant time.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return True if the cell is blocked, false otherwise.
+     */
+    public boolean isBlocked(int x, int y) {
+        return grid2D[x][y].status == Point.Status.BLOCK;
+    }
+
+    /**
+     * Sets the movement cost of a cell, e.g. 1 for a road and 5 for mud.
+     * Entering the cell costs the regular step cost multiplied by this value.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @param cost The cost multiplier, from 1 to 255.
+     */
+    public void setTerrainCost(int x, int y, int cost) {
+        if (cost < 1 || cost > MAX_TERRAIN_COST) {
+            throw new IllegalArgumentException("Terrain cost must be in [1, " + MAX_TERRAIN_COST + "]: " + cost);
+        }
+        if (terrainCosts == null) {
+            if (cost == 1) return;
+            terrainCosts = new byte[gridWidth * gridHeight];
+            Arrays.fill(terrainCosts, (byte) 1);
+        }
+        terrainCosts[x * gridHeight + y] = (byte) cost;
+        maxTerrainCost = Math.max(maxTerrainCost, cost);
+    }
+
+    /**
+     * Retrieves the movement cost of a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The cost multiplier of the cell, 1 if no terrain was set.
+     */
+    public int getTerrainCost(int x, int y) {
+        return terrainCosts == null ? 1 : terrainCosts[x * gridHeight + y] & 0xFF;
+    }
+
+    /**
+     * Retrieves an upper bound of the terrain costs without scanning the grid, as it is read for every
+     * bucket queue search. Lowering a cost does not lower the bound.
+     *
+     * @return The largest cost multiplier any cell may have.
+     */
+    public int getMaxTerrainCost() {
+        return maxTerrainCost;
+    }
+
     /**
      * Retrieves the width of the grid.
      *
@@ -0,0 +1,256 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: GridSnapshot.java
+ * Description: Immutable version of the walls and terrain of a GridGraph, stored in shared square tiles
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.util.Arrays;
+
+/**
+ * Immutable walls and terrain costs of a grid at one version.
+ * The grid is cut into tiles of 64 x 64 cells. Editing a snapshot copies only the tiles that change,
+ * so consecutive versions share every other tile and a new version costs memory proportional to the edit.
+ * A search that holds a snapshot sees the same grid until it ends, whatever writers publish meanwhile.
+ */
+public final class GridSnapshot implements WalkableGrid {
+    // Tiles are 2^TILE_SHIFT cells wide and high
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE_MASK = (1 << TILE_SHIFT) - 1;
+    // Wall tile without any wall, shared by all free areas
+    private static final long[] FREE_TILE = new long[1 << TILE_SHIFT];
+
+    // Dimensions of the grid, as in Grid2D
+    private final int gridWidth;
+    private final int gridHeight;
+    // Number of tiles along the y-coordinate
+    private final int tilesPerRow;
+    // Version number, incremented by every edit
+    private final long version;
+    // Wall tiles: word (x & 63) of tile (x >> 6, y >> 6) holds the walls of row x in bits (y & 63)
+    private final long[][] wallTiles;
+    // Terrain cost tiles indexed (x & 63) << 6 | (y & 63), null where every cell costs 1
+    private final byte[][] costTiles;
+    // Upper bound of the terrain costs
+    private final int maxTerrainCost;
+
+    private GridSnapshot(int gridWidth, int gridHeight, long version, long[][] wallTiles,
+                         byte[][] costTiles, int maxTerrainCost) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.tilesPerRow = (gridHeight + TILE_MASK) >>> TILE_SHIFT;
+        this.version = version;
+        this.wallTiles = wallTiles;
+        this.costTiles = costTiles;
+        this.maxTerrainCost = maxTerrainCost;
+    }
+
+    /**
+     * Creates the first version of a snapshot from the current walls and terrain costs of a grid.
+     *
+     * @param grid2D The grid to copy.
+     * @return A snapshot with version 0.
+     */
+    public static GridSnapshot of(Grid2D grid2D) {
+        int tilesPerColumn = (grid2D.getGridWidth() + TILE_MASK) >>> TILE_SHIFT;
+        int tilesPerRow = (grid2D.getGridHeight() + TILE_MASK) >>> TILE_SHIFT;
+        long[][] wallTiles = new long[tilesPerColumn * tilesPerRow][];
+        Arrays.fill(wallTiles, FREE_TILE);
+        GridSnapshot empty = new GridSnapshot(grid2D.getGridWidth(), grid2D.getGridHeight(), -1,
+                wallTiles, new byte[wallTiles.length][], 1);
+        Editor editor = empty.edit();
+        for (int x = 0; x < grid2D.getGridWidth(); x++) {
+            for (int y = 0; y < grid2D.getGridHeight(); y++) {
+                if (grid2D.isBlocked(x, y)) {
+                    editor.setBlocked(x, y, true);
+                }
+                if (grid2D.getTerrainCost(x, y) != 1) {
+                    editor.setTerrainCost(x, y, grid2D.getTerrainCost(x, y));
+                }
+            }
+        }
+        return editor.build();
+    }
+
+    /**
+     * Starts an edit of this snapshot. The snapshot itself never changes;
+     * the editor builds the next version from it.
+     *
+     * @return A new editor based on this snapshot.
+     */
+    public Editor edit() {
+        return new Editor();
+    }
+
+    @Override
+    public boolean isBlocked(int x, int y) {
+        return (wallTiles[tile(x, y)][x & TILE_MASK] & (1L << y)) != 0;
+    }
+
+    @Override
+    public int getTerrainCost(int x, int y) {
+        byte[] costs = costTiles[tile(x, y)];
+        return costs == null ? 1 : costs[(x & TILE_MASK) << TILE_SHIFT | (y & TILE_MASK)] & 0xFF;
+    }
+
+    /**
+     * Retrieves an upper bound of the terrain costs. Lowering a cost does not lower the bound.
+     *
+     * @return The largest cost multiplier any cell may have.
+     */
+    @Override
+    public int getMaxTerrainCost() {
+        return maxTerrainCost;
+    }
+
+    @Override
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    @Override
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    /**
+     * Retrieves the version of the snapshot.
+     *
+     * @return The number of edits since the first version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Counts the tiles this snapshot shares with another one, to see how much memory versions share.
+     *
+     * @param other A snapshot of the same grid.
+     * @return The number of wall and terrain tiles that are the same objects in both snapshots.
+     */
+    public int getSharedTileCount(GridSnapshot other) {
+        int shared = 0;
+        for (int i = 0; i < Math.min(wallTiles.length, other.wallTiles.length); i++) {
+            if (wallTiles[i] == other.wallTiles[i]) shared++;
+            if (costTiles[i] != null && costTiles[i] == other.costTiles[i]) shared++;
+        }
+        return shared;
+    }
+
+    private int tile(int x, int y) {
+        return (x >>> TILE_SHIFT) * tilesPerRow + (y >>> TILE_SHIFT);
+    }
+
+    /**
+     * Collects the changes of one edit. A tile is copied the first time one of its cells changes,
+     * later changes of the same edit write to the copy.
+     * An editor is used by one thread and builds one version.
+     */
+    public final class Editor {
+        private final long[][] newWallTiles = wallTiles.clone();
+        private final byte[][] newCostTiles = costTiles.clone();
+        private final boolean[] copiedWalls = new boolean[wallTiles.length];
+        private final boolean[] copiedCosts = new boolean[costTiles.length];
+        private int newMaxTerrainCost = maxTerrainCost;
+        private boolean changed;
+        private boolean built;
+
+        private Editor() {
+        }
+
+        /**
+         * Sets or clears the wall of a cell.
+         *
+         * @param x The x-coordinate of the cell.
+         * @param y The y-coordinate of the cell.
+         * @param blocked True to make the cell a wall, false to make it free.
+         * @return This editor.
+         * @throws IndexOutOfBoundsException If the cell is outside the grid.
+         */
+        public Editor setBlocked(int x, int y, boolean blocked) {
+            checkCell(x, y);
+            int tile = tile(x, y);
+            long bit = 1L << y;
+            if (((newWallTiles[tile][x & TILE_MASK] & bit) != 0) == blocked) {
+                return this;
+            }
+            if (!copiedWalls[tile]) {
+                newWallTiles[tile] = newWallTiles[tile].clone();
+                copiedWalls[tile] = true;
+            }
+            newWallTiles[tile][x & TILE_MASK] ^= bit;
+            changed = true;
+            return this;
+        }
+
+        /**
+         * Sets the movement cost multiplier of a cell.
+         *
+         * @param x The x-coordinate of the cell.
+         * @param y The y-coordinate of the cell.
+         * @param cost The cost multiplier, from 1 to Grid2D.MAX_TERRAIN_COST.
+         * @return This editor.
+         * @throws IllegalArgumentException If the cost is out of range.
+         * @throws IndexOutOfBoundsException If the cell is outside the grid.
+         */
+        public Editor setTerrainCost(int x, int y, int cost) {
+            if (cost < 1 || cost > Grid2D.MAX_TERRAIN_COST) {
+                throw new IllegalArgumentException("Terrain cost must be between 1 and " + Grid2D.MAX_TERRAIN_COST);
+            }
+            checkCell(x, y);
+            int tile = tile(x, y);
+            int index = (x & TILE_MASK) << TILE_SHIFT | (y & TILE_MASK);
+            byte[] costs = newCostTiles[tile];
+            if ((costs == null ? 1 : costs[index] & 0xFF) == cost) {
+                return this;
+            }
+            if (!copiedCosts[tile]) {
+                if (costs == null) {
+                    costs = new byte[1 << (2 * TILE_SHIFT)];
+                    Arrays.fill(costs, (byte) 1);
+                } else {
+                    costs = costs.clone();
+                }
+                newCostTiles[tile] = costs;
+                copiedCosts[tile] = true;
+            }
+            costs[index] = (byte) cost;
+            newMaxTerrainCost = Math.max(newMaxTerrainCost, cost);
+            changed = true;
+            return this;
+        }
+
+        /**
+         * Checks whether any cell changed so far.
+         *
+         * @return True if the edit changes the grid.
+         */
+        public boolean isChanged() {
+            return changed;
+        }
+
+        /**
+         * Builds the next version. Unchanged tiles are shared with the base snapshot.
+         *
+         * @return A snapshot with the version of the base snapshot plus one.
+         * @throws IllegalStateException If the editor was already built.
+         */
+        public GridSnapshot build() {
+            if (built) {
+                throw new IllegalStateException("Editor was already built");
+            }
+            built = true;
+            return new GridSnapshot(gridWidth, gridHeight, version + 1, newWallTiles, newCostTiles, newMaxTerrainCost);
+        }
+
+        private void checkCell(int x, int y) {
+            if (!contains(x, y)) {
+                throw new IndexOutOfBoundsException("Cell (" + x + ", " + y + ") is outside the grid");
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: HeapSearchState.java
+ * Description: Search state kept in int arrays on the Java heap
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.util.Arrays;
+
+/**
+ * Search state in plain int arrays. Visited and closed cells are marked with the search number,
+ * so the arrays need no clearing between searches.
+ */
+public final class HeapSearchState implements SearchState {
+    private final int[] gCost;
+    private final int[] parent;
+    private final int[] visited;
+    private final int[] closed;
+    private int searchNumber;
+
+    public HeapSearchState(int cellCount) {
+        this.gCost = new int[cellCount];
+        this.parent = new int[cellCount];
+        this.visited = new int[cellCount];
+        this.closed = new int[cellCount];
+    }
+
+    @Override
+    public void reset() {
+        if (++searchNumber == Integer.MAX_VALUE) { // Clear the marks once the numbers run out
+            Arrays.fill(visited, 0);
+            Arrays.fill(closed, 0);
+            searchNumber = 1;
+        }
+    }
+
+    @Override
+    public void visit(int cell, int from, int g) {
+        visited[cell] = searchNumber;
+        gCost[cell] = g;
+        parent[cell] = from;
+    }
+
+    @Override
+    public boolean isVisited(int cell) {
+        return visited[cell] == searchNumber;
+    }
+
+    @Override
+    public int getGCost(int cell) {
+        return gCost[cell];
+    }
+
+    @Override
+    public int getParent(int cell) {
+        return parent[cell];
+    }
+
+    @Override
+    public void markClosed(int cell) {
+        closed[cell] = searchNumber;
+    }
+
+    @Override
+    public boolean isClosed(int cell) {
+        return closed[cell] == searchNumber;
+    }
+
+    @Override
+    public int getCellCount() {
+        return gCost.length;
+    }
+
+    @Override
+    public void close() {
+        // The arrays are left to the garbage collector
+    }
+}
@@ -0,0 +1,207 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: IndexedAStar.java
+ * Description: A* on cell indices over any WalkableGrid, without touching the grid's Points
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import com.rahmatullin.dev.events.SearchEvent;
+import com.rahmatullin.dev.priorityQueue.IntPriorityQueue;
+
+/**
+ * A* search whose whole state lives in a SearchState owned by the instance, so it writes nothing into the grid.
+ * Any number of instances may search the same immutable grid, e.g. a pinned GridSnapshot, at the same time.
+ * One instance serves one thread and reuses its state for every search.
+ */
+public class IndexedAStar {
+
+    // Grid the searches run on
+    private final WalkableGrid grid;
+    // Data structure used for the open set
+    private final AStar.OpenSetType openSetType;
+    // Best known cost, parent and closed mark of every cell, on or off the heap
+    private final SearchState state;
+    // Cost of the path and number of expanded nodes of the last search
+    private int cost;
+    private int expandedNodes;
+
+    /**
+     * Constructor for a search with a binary heap as the open set.
+     *
+     * @param grid The grid on which paths are to be found.
+     */
+    public IndexedAStar(WalkableGrid grid) {
+        this(grid, AStar.OpenSetType.BINARY_HEAP);
+    }
+
+    /**
+     * Constructor for a search with the given open set implementation.
+     *
+     * @param grid The grid on which paths are to be found.
+     * @param openSetType The data structure used for the open set.
+     */
+    public IndexedAStar(WalkableGrid grid, AStar.OpenSetType openSetType) {
+        this(grid, openSetType, new HeapSearchState(grid.getGridWidth() * grid.getGridHeight()));
+    }
+
+    /**
+     * Constructor for a search that keeps its per-cell state in the given storage, e.g. an OffHeapSearchState
+     * for grids too large to keep the state on the Java heap. The caller owns the state and closes it.
+     *
+     * @param grid The grid on which paths are to be found.
+     * @param openSetType The data structure used for the open set.
+     * @param state The per-cell state, with at least one entry per grid cell.
+     * @throws IllegalArgumentException If the state is smaller than the grid.
+     */
+    public IndexedAStar(WalkableGrid grid, AStar.OpenSetType openSetType, SearchState state) {
+        int cellCount = grid.getGridWidth() * grid.getGridHeight();
+        if (state.getCellCount() < cellCount) {
+            throw new IllegalArgumentException("Search state holds " + state.getCellCount()
+                    + " cells, the grid has " + cellCount);
+        }
+        this.grid = grid;
+        this.openSetType = openSetType;
+        this.state = state;
+    }
+
+    /**
+     * Finds the cheapest path between two cells with the step costs of AStar:
+     * the distance between the cells times the terrain cost of the cell being entered.
+     *
+     * @param startX The x-coordinate of the start.
+     * @param startY The y-coordinate of the start.
+     * @param endX The x-coordinate of the end.
+     * @param endY The y-coordinate of the end.
+     * @return The path, or null if no path is found.
+     */
+    public CompactPath search(int startX, int startY, int endX, int endY) {
+        return search(startX, startY, endX, endY, SearchControl.UNLIMITED).path();
+    }
+
+    /**
+     * Finds the cheapest path between two cells, stopping when the deadline passes or the token fires.
+     * A stopped search returns the path to the expanded cell closest to the end by the heuristic.
+     *
+     * @param startX The x-coordinate of the start.
+     * @param startY The y-coordinate of the start.
+     * @param endX The x-coordinate of the end.
+     * @param endY The y-coordinate of the end.
+     * @param control The deadline and cancellation token, checked every few expansions.
+     * @return The status, the path or partial path, its cost and the number of expanded nodes.
+     */
+    public SearchResult<CompactPath> search(int startX, int startY, int endX, int endY, SearchControl control) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        SearchResult<CompactPath> result = run(startX, startY, endX, endY, control);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setQuery("IndexedAStar", grid.getGridWidth(), grid.getGridHeight(), startX, startY, endX, endY);
+            event.setOutcome(result.status().name(), result.expandedNodes(),
+                    result.path() == null ? 0 : result.path().getCellCount(), result.cost());
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Runs the search itself; search() records it as a SearchEvent.
+     */
+    private SearchResult<CompactPath> run(int startX, int startY, int endX, int endY, SearchControl control) {
+        state.reset();
+        int gridHeight = grid.getGridHeight();
+        IntPriorityQueue openSet = openSetType.createIndexed(grid);
+        cost = -1;
+        expandedNodes = 0;
+
+        int startCell = startX * gridHeight + startY;
+        state.visit(startCell, -1, 0);
+        openSet.add(startCell, AStar.heuristic(startX, startY, endX, endY));
+        int closestCell = startCell; // Expanded cell with the lowest heuristic cost
+        int closestHCost = AStar.heuristic(startX, startY, endX, endY);
+
+        while (!openSet.isEmpty()) {
+            int cell = openSet.extract(); // Select the node with the lowest total cost
+            if (state.isClosed(cell)) continue; // Skip outdated entries
+            state.markClosed(cell);
+            expandedNodes++;
+            int x = cell / gridHeight;
+            int y = cell % gridHeight;
+
+            if (x == endX && y == endY) {
+                cost = state.getGCost(cell);
+                return new SearchResult<>(SearchStatus.FOUND, CompactPath.fromCells(state::getParent, cell, gridHeight),
+                        cost, expandedNodes);
+            }
+            int hCost = AStar.heuristic(x, y, endX, endY);
+            if (hCost < closestHCost) {
+                closestCell = cell;
+                closestHCost = hCost;
+            }
+            if (expandedNodes % control.getCheckInterval() == 0) { // Check the limits every few expansions
+                SearchStatus stop = control.check();
+                if (stop != null) {
+                    return new SearchResult<>(stop, CompactPath.fromCells(state::getParent, closestCell, gridHeight),
+                            state.getGCost(closestCell), expandedNodes);
+                }
+            }
+
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    int nx = x + dx;
+                    int ny = y + dy;
+                    if ((dx == 0 && dy == 0) || !grid.contains(nx, ny) || grid.isBlocked(nx, ny)) continue;
+                    int neighbor = nx * gridHeight + ny;
+                    if (state.isClosed(neighbor)) continue;
+
+                    int tentativeGCost = state.getGCost(cell) + ((dx != 0 && dy != 0) ? 14 : 10) * grid.getTerrainCost(nx, ny);
+                    if (!state.isVisited(neighbor) || tentativeGCost < state.getGCost(neighbor)) {
+                        state.visit(neighbor, cell, tentativeGCost);
+                        openSet.add(neighbor, tentativeGCost + AStar.heuristic(nx, ny, endX, endY));
+                    }
+                }
+            }
+        }
+
+        return new SearchResult<>(SearchStatus.NO_PATH, null, -1, expandedNodes);
+    }
+
+    /**
+     * Retrieves the cost of the path found by the last search.
+     *
+     * @return The cost of the path, or -1 if no path was found or the search was stopped.
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Retrieves the number of nodes expanded by the last search.
+     *
+     * @return The number of expanded nodes.
+     */
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Retrieves the grid the searches run on.
+     *
+     * @return The grid.
+     */
+    public WalkableGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Retrieves the per-cell state the searches run on.
+     *
+     * @return The search state.
+     */
+    public SearchState getState() {
+        return state;
+    }
+}
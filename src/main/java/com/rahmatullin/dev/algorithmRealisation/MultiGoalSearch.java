@@ -0,0 +1,205 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: MultiGoalSearch.java
+ * Description: One-to-many search that finds paths from one start point to several goals in a single expansion
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import com.rahmatullin.dev.priorityQueue.PriorityQueueMin;
+
+import java.util.*;
+
+public class MultiGoalSearch {
+
+    // Entry of the open set; the cost is frozen at insertion time so stale entries can be skipped lazily
+    private record Node(Point point, int gCost) {
+    }
+
+    // Priority queue for nodes awaiting evaluation, ordered by the cost from the start
+    private final PriorityQueueMin<Node> openSet;
+    // Best known cost from the start for every reached node
+    private final HashMap<Point, Integer> bestCost;
+    // Set for storing evaluated nodes
+    private final HashSet<Point> closedSet;
+    // Goals that have not been reached yet
+    private final HashSet<Point> pendingGoals;
+    // Reached goals with their costs, in the order they were reached (nearest first)
+    private final LinkedHashMap<Point, Integer> reachedGoals;
+    // Start node
+    private final Point start;
+    // Reference to the grid
+    private final Grid2D grid2D;
+    // Grid matrix
+    private final Point[][] matrix;
+
+    /**
+     * Constructor for initializing the one-to-many search.
+     * The start and goal points are resolved to the grid's own points,
+     * goals outside the grid are ignored.
+     *
+     * @param start The starting point of all paths.
+     * @param goals The goal points to search for.
+     * @param grid2D The grid on which the paths are to be found.
+     */
+    public MultiGoalSearch(Point start, Collection<Point> goals, Grid2D grid2D) {
+        this.grid2D = grid2D;
+        this.matrix = grid2D.getGrid();
+        this.start = this.matrix[start.x][start.y];
+        this.openSet = new PriorityQueueMin<>(Comparator.comparingInt(Node::gCost));
+        this.bestCost = new HashMap<>();
+        this.closedSet = new HashSet<>();
+        this.pendingGoals = new HashSet<>();
+        this.reachedGoals = new LinkedHashMap<>();
+        for (Point goal : goals) {
+            if (grid2D.contains(goal.x, goal.y)) {
+                pendingGoals.add(matrix[goal.x][goal.y]);
+            }
+        }
+    }
+
+    /**
+     * Searches for all goals.
+     *
+     * @return Reached goals mapped to their path cost, nearest first.
+     */
+    public LinkedHashMap<Point, Integer> search() {
+        return search(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Expands the grid once from the start point (uniform-cost order) until the first
+     * maxGoals goals are reached or the open set is exhausted.
+     * Each expansion checks goal membership with a single hash lookup,
+     * so the cost grows with the explored area, not with the number of goals.
+     * Every call starts over: the points of the previous search are reset first.
+     *
+     * @param maxGoals The number of goals after which the search stops early.
+     * @return Reached goals mapped to their path cost, nearest first; empty if the start is blocked.
+     */
+    public LinkedHashMap<Point, Integer> search(int maxGoals) {
+        reset();
+        if (maxGoals <= 0 || pendingGoals.isEmpty() || grid2D.isBlocked(start.x, start.y)) {
+            return reachedGoals;
+        }
+        start.parent = null;
+        start.gCost = 0;
+        start.status = Point.Status.OPENED;
+        bestCost.put(start, 0);
+        openSet.add(new Node(start, 0));
+
+        while (!openSet.isEmpty()) {
+            Node node = openSet.extract(); // Select the node with the lowest cost
+            Point current = node.point();
+            if (node.gCost() > bestCost.get(current) || !closedSet.add(current)) {
+                continue; // Skip stale entries of already improved nodes
+            }
+
+            if (pendingGoals.remove(current)) { // If the current node is one of the goals
+                reachedGoals.put(current, current.gCost);
+                if (reachedGoals.size() >= maxGoals || pendingGoals.isEmpty()) {
+                    break;
+                }
+            }
+
+            for (Point neighbor : neighbors(current)) { // Consider all neighbors of the current node
+                if (closedSet.contains(neighbor)) continue; // Skip already evaluated nodes
+
+                int tentativeGCost = current.gCost + stepCost(current, neighbor);
+                Integer known = bestCost.get(neighbor);
+                if (known == null || tentativeGCost < known) { // If the node is new or the new cost is lower
+                    neighbor.parent = current; // Set the parent for path reconstruction
+                    neighbor.gCost = tentativeGCost;
+                    neighbor.hCost = 0;
+                    neighbor.fCost = tentativeGCost;
+                    neighbor.status = Point.Status.OPENED;
+                    bestCost.put(neighbor, tentativeGCost);
+                    openSet.add(new Node(neighbor, tentativeGCost));
+                }
+            }
+        }
+        return reachedGoals;
+    }
+
+    /**
+     * Resets the parent, costs and status of every point the last search reached, so other searches
+     * can run on the grid, and forgets its results. The paths of the last search are lost.
+     */
+    public void reset() {
+        for (Point point : bestCost.keySet()) {
+            point.parent = null;
+            point.gCost = 0;
+            point.hCost = 0;
+            point.fCost = 0;
+            if (point.status != Point.Status.BLOCK) { // walls placed since the search stay walls
+                point.status = Point.Status.CLOSED;
+            }
+        }
+        while (!openSet.isEmpty()) {
+            openSet.extract();
+        }
+        bestCost.clear();
+        closedSet.clear();
+        pendingGoals.addAll(reachedGoals.keySet());
+        reachedGoals.clear();
+    }
+
+    /**
+     * Reconstructs the path to a goal reached by the last search.
+     *
+     * @param goal The goal point.
+     * @return An ArrayList of Points from the start to the goal, or null if the goal was not reached.
+     */
+    public ArrayList<Point> getPath(Point goal) {
+        if (!grid2D.contains(goal.x, goal.y)) {
+            return null;
+        }
+        Point target = matrix[goal.x][goal.y];
+        return reachedGoals.containsKey(target) ? PathSeacrh.reconstructPath(target) : null;
+    }
+
+    /**
+     * Retrieves the goals that were not reached by the last search.
+     *
+     * @return A set of the unreached goal points.
+     */
+    public Set<Point> getPendingGoals() {
+        return Collections.unmodifiableSet(pendingGoals);
+    }
+
+    /**
+     * Cost of a single move, the same as in A*: 10 for straight moves and 14 for diagonal moves,
+     * scaled by the terrain cost of the cell being entered.
+     *
+     * @param from The point the move starts in.
+     * @param to The adjacent point the move ends in.
+     * @return The cost of the move.
+     */
+    private int stepCost(Point from, Point to) {
+        return ((from.x != to.x && from.y != to.y) ? 14 : 10) * grid2D.getTerrainCost(to.x, to.y);
+    }
+
+    /**
+     * Retrieves the passable neighbors of the current node in all 8 directions.
+     *
+     * @param current The current node.
+     * @return An ArrayList of Points representing the neighbors.
+     */
+    private ArrayList<Point> neighbors(Point current) {
+        ArrayList<Point> results = new ArrayList<>(8);
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx == 0 && dy == 0) continue;
+                int x = current.x + dx;
+                int y = current.y + dy;
+                if (grid2D.contains(x, y) && !grid2D.isBlocked(x, y)) {
+                    results.add(matrix[x][y]);
+                }
+            }
+        }
+        return results;
+    }
+}
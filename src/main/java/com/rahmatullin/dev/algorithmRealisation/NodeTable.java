@@ -0,0 +1,84 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: NodeTable.java
+ * Description: Sparse search state of the cells a search has touched
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+/**
+ * Open-addressing hash table from cell index to the search state of the cell, for searches whose state
+ * must scale with the cells they touch instead of the grid area.
+ */
+final class NodeTable {
+    int[] keys = new int[64];       // cell + 1, 0 for an empty slot
+    int[] gCost = new int[64];
+    int[] parent = new int[64];
+    boolean[] closed = new boolean[64];
+    private int size;
+
+    /**
+     * Finds the slot of a cell, or the empty slot where it belongs.
+     */
+    int find(int cell) {
+        int mask = keys.length - 1;
+        int hash = cell * 0x9E3779B1;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (keys[slot] != 0 && keys[slot] != cell + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Records a cost for a cell if the cell is new, or open and the cost is lower.
+     *
+     * @return True if the cost was recorded and the cell must be (re)added to the open set.
+     */
+    boolean improve(int cell, int from, int g) {
+        int slot = find(cell);
+        if (keys[slot] != 0) {
+            if (closed[slot] || g >= gCost[slot]) {
+                return false;
+            }
+        } else {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+                slot = find(cell);
+            }
+            keys[slot] = cell + 1;
+            size++;
+        }
+        gCost[slot] = g;
+        parent[slot] = from;
+        return true;
+    }
+
+    /**
+     * Retrieves the number of touched cells.
+     */
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys, oldG = gCost, oldParent = parent;
+        boolean[] oldClosed = closed;
+        keys = new int[oldKeys.length * 2];
+        gCost = new int[keys.length];
+        parent = new int[keys.length];
+        closed = new boolean[keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(oldKeys[i] - 1);
+                keys[slot] = oldKeys[i];
+                gCost[slot] = oldG[i];
+                parent[slot] = oldParent[i];
+                closed[slot] = oldClosed[i];
+            }
+        }
+    }
+}
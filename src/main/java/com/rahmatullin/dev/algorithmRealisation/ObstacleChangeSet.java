@@ -0,0 +1,107 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: ObstacleChangeSet.java
+ * Description: Batch of wall add and remove events applied to a GridGraph at once
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.util.Arrays;
+
+/**
+ * Ordered batch of wall events. Events are applied in the order they were added,
+ * so the last event of a cell wins. A change set can be cleared and filled again for the next batch.
+ */
+public class ObstacleChangeSet {
+    private int[] xs = new int[16];              // x-coordinates of the events
+    private int[] ys = new int[16];              // y-coordinates of the events
+    private boolean[] blocking = new boolean[16]; // whether each event adds or removes a wall
+    private int size;                            // number of events
+
+    /**
+     * Adds a wall to a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return This change set.
+     */
+    public ObstacleChangeSet block(int x, int y) {
+        return add(x, y, true);
+    }
+
+    /**
+     * Removes the wall of a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return This change set.
+     */
+    public ObstacleChangeSet unblock(int x, int y) {
+        return add(x, y, false);
+    }
+
+    /**
+     * Retrieves the x-coordinate of an event.
+     *
+     * @param index The index of the event.
+     * @return The x-coordinate of the cell.
+     */
+    public int getX(int index) {
+        return xs[index];
+    }
+
+    /**
+     * Retrieves the y-coordinate of an event.
+     *
+     * @param index The index of the event.
+     * @return The y-coordinate of the cell.
+     */
+    public int getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * Checks whether an event adds a wall.
+     *
+     * @param index The index of the event.
+     * @return True if the event adds a wall, false if it removes one.
+     */
+    public boolean isBlocking(int index) {
+        return blocking[index];
+    }
+
+    /**
+     * Retrieves the number of events.
+     *
+     * @return The number of events in the batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all events, keeping the allocated arrays.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private ObstacleChangeSet add(int x, int y, boolean blocks) {
+        if (size == xs.length) {
+            xs = Arrays.copyOf(xs, size * 2);
+            ys = Arrays.copyOf(ys, size * 2);
+            blocking = Arrays.copyOf(blocking, size * 2);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        blocking[size++] = blocks;
+        return this;
+    }
+}
@@ -0,0 +1,126 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: OffHeapSearchState.java
+ * Description: Search state kept in native memory through the foreign memory API
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Search state in one native memory segment, so a search over a huge grid puts nothing but its open set
+ * on the Java heap and the collector never scans or copies the per-cell state.
+ * The memory is freed when the arena is closed: by close() if the state created the arena,
+ * or by the caller if it passed its own arena to share one lifetime between several states.
+ * On Java 21 the foreign memory API is a preview feature, so the JVM must run with --enable-preview.
+ */
+public final class OffHeapSearchState implements SearchState {
+    // Ints per cell: cost, parent, visited mark and closed mark, kept together for locality
+    private static final int STRIDE = 4;
+    private static final int G_COST = 0;
+    private static final int PARENT = 1;
+    private static final int VISITED = 2;
+    private static final int CLOSED = 3;
+
+    private final Arena arena;
+    private final boolean ownsArena;
+    private final MemorySegment cells;
+    private final int cellCount;
+    private int searchNumber;
+
+    /**
+     * Constructor for a state that owns its memory and frees it on close().
+     *
+     * @param cellCount The number of cells.
+     */
+    public OffHeapSearchState(int cellCount) {
+        this(cellCount, Arena.ofShared(), true);
+    }
+
+    /**
+     * Constructor for a state whose memory lives as long as the given arena.
+     *
+     * @param cellCount The number of cells.
+     * @param arena The arena to allocate from; closing it frees the state.
+     */
+    public OffHeapSearchState(int cellCount, Arena arena) {
+        this(cellCount, arena, false);
+    }
+
+    private OffHeapSearchState(int cellCount, Arena arena, boolean ownsArena) {
+        this.arena = arena;
+        this.ownsArena = ownsArena;
+        this.cellCount = cellCount;
+        // Allocated memory is zeroed, so no cell carries a mark of search number 1 or later
+        this.cells = arena.allocate((long) cellCount * STRIDE * Integer.BYTES, Long.BYTES);
+    }
+
+    @Override
+    public void reset() {
+        if (++searchNumber == Integer.MAX_VALUE) { // Clear the marks once the numbers run out
+            cells.fill((byte) 0);
+            searchNumber = 1;
+        }
+    }
+
+    @Override
+    public void visit(int cell, int from, int g) {
+        long base = (long) cell * STRIDE;
+        cells.setAtIndex(ValueLayout.JAVA_INT, base + VISITED, searchNumber);
+        cells.setAtIndex(ValueLayout.JAVA_INT, base + G_COST, g);
+        cells.setAtIndex(ValueLayout.JAVA_INT, base + PARENT, from);
+    }
+
+    @Override
+    public boolean isVisited(int cell) {
+        return cells.getAtIndex(ValueLayout.JAVA_INT, (long) cell * STRIDE + VISITED) == searchNumber;
+    }
+
+    @Override
+    public int getGCost(int cell) {
+        return cells.getAtIndex(ValueLayout.JAVA_INT, (long) cell * STRIDE + G_COST);
+    }
+
+    @Override
+    public int getParent(int cell) {
+        return cells.getAtIndex(ValueLayout.JAVA_INT, (long) cell * STRIDE + PARENT);
+    }
+
+    @Override
+    public void markClosed(int cell) {
+        cells.setAtIndex(ValueLayout.JAVA_INT, (long) cell * STRIDE + CLOSED, searchNumber);
+    }
+
+    @Override
+    public boolean isClosed(int cell) {
+        return cells.getAtIndex(ValueLayout.JAVA_INT, (long) cell * STRIDE + CLOSED) == searchNumber;
+    }
+
+    @Override
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Retrieves the native memory taken by the state.
+     *
+     * @return The size in bytes.
+     */
+    public long getByteSize() {
+        return cells.byteSize();
+    }
+
+    /**
+     * Frees the memory if the state owns its arena; otherwise the memory lives until the caller closes the arena.
+     */
+    @Override
+    public void close() {
+        if (ownsArena) arena.close();
+    }
+}
@@ -0,0 +1,271 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: ParallelAStar.java
+ * Description: Hash-distributed parallel A* (HDA*) for single queries that expand millions of nodes
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import com.rahmatullin.dev.priorityQueue.BinaryIntHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class ParallelAStar {
+
+    // A generated node sent to the worker that owns its cell
+    private record Message(int cell, int parent, int gCost) {
+    }
+
+    // Cells are hashed in square blocks of 2^BLOCK_SHIFT cells, so most neighbors stay with the same worker
+    private static final int BLOCK_SHIFT = 2;
+    // Number of nodes a worker expands between two checks of its inbox
+    private static final int EXPANSIONS_PER_ROUND = 64;
+
+    // Start and end nodes
+    private final Point start, end;
+    // Reference to the grid
+    private final Grid2D grid2D;
+    // Grid matrix
+    private final Point[][] matrix;
+    // Number of worker threads
+    private final int workers;
+
+    // Best known cost of every cell, written only by the cell's owner
+    private int[] gCost;
+    // Parent cell of every cell, written only by the cell's owner
+    private int[] parent;
+    // Inbox of every worker; many workers add, only the owner polls
+    private ConcurrentLinkedQueue<Message>[] inboxes;
+    // Thread of every worker, and 1 for every worker that may be parked waiting for its inbox
+    private Thread[] threads;
+    private AtomicIntegerArray idle;
+    // Cost of the best path found so far
+    private AtomicInteger incumbent;
+    // Tokens of active workers plus messages in flight; the search is over when it drops to zero
+    private AtomicInteger activeWork;
+    // Total number of expanded nodes
+    private AtomicLong expandedNodes;
+
+    /**
+     * Constructor for initializing the parallel search.
+     *
+     * @param start The starting point of the path.
+     * @param end The ending point of the path.
+     * @param grid2D The grid on which the path is to be found.
+     * @param workers The number of worker threads.
+     */
+    public ParallelAStar(Point start, Point end, Grid2D grid2D, int workers) {
+        this.grid2D = grid2D;
+        this.matrix = grid2D.getGrid();
+        this.start = matrix[start.x][start.y];
+        this.end = matrix[end.x][end.y];
+        this.workers = Math.max(1, workers);
+    }
+
+    /**
+     * Runs the search on all workers.
+     * Every cell is owned by the worker its block hashes to. A worker expands the nodes of its own
+     * local open list and sends every generated neighbor to the neighbor's owner, which keeps the node
+     * only if it improves the known cost. Nodes may be reopened, and nodes whose total cost is not below
+     * the best path found so far are pruned. The octile heuristic never overestimates, so no node of an
+     * optimal path is pruned and the result is optimal once no work is left anywhere.
+     *
+     * @return An ArrayList of Points representing the shortest path, or null if no path is found.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the workers.
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayList<Point> search() throws InterruptedException {
+        int cellCount = grid2D.getGridWidth() * grid2D.getGridHeight();
+        gCost = new int[cellCount];
+        parent = new int[cellCount];
+        Arrays.fill(gCost, Integer.MAX_VALUE);
+        inboxes = new ConcurrentLinkedQueue[workers];
+        for (int i = 0; i < workers; i++) {
+            inboxes[i] = new ConcurrentLinkedQueue<>();
+        }
+        idle = new AtomicIntegerArray(workers);
+        incumbent = new AtomicInteger(Integer.MAX_VALUE);
+        activeWork = new AtomicInteger(workers); // every worker starts active
+        expandedNodes = new AtomicLong();
+
+        int startCell = cell(start.x, start.y);
+        activeWork.incrementAndGet();
+        inboxes[owner(start.x, start.y)].add(new Message(startCell, -1, 0));
+
+        // Every thread exists before any starts, so a worker can wake any other
+        threads = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            final int id = i;
+            threads[i] = new Thread(() -> work(id), "hda-worker-" + i);
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (incumbent.get() == Integer.MAX_VALUE) {
+            return null;
+        }
+        // Joining the workers makes their writes visible here
+        int gridHeight = grid2D.getGridHeight();
+        int current = cell(end.x, end.y);
+        end.gCost = gCost[current];
+        while (current != startCell) {
+            int previous = parent[current];
+            Point point = matrix[current / gridHeight][current % gridHeight];
+            point.parent = matrix[previous / gridHeight][previous % gridHeight];
+            current = previous;
+        }
+        start.parent = null;
+        return PathSeacrh.reconstructPath(end);
+    }
+
+    /**
+     * Retrieves the number of nodes expanded by all workers during the last search.
+     *
+     * @return The number of expanded nodes.
+     */
+    public long getExpandedNodes() {
+        return expandedNodes == null ? 0 : expandedNodes.get();
+    }
+
+    /**
+     * Main loop of a worker: receive nodes, expand a batch of the local open list, and go idle when
+     * nothing below the best path cost is left. The worker that returns the last token ends the search.
+     *
+     * @param id The index of the worker.
+     */
+    private void work(int id) {
+        int gridHeight = grid2D.getGridHeight();
+        BinaryIntHeap openSet = new BinaryIntHeap(1024);
+        ConcurrentLinkedQueue<Message> inbox = inboxes[id];
+        boolean active = true;
+        long expanded = 0;
+
+        while (activeWork.get() > 0) {
+            Message message;
+            while ((message = inbox.poll()) != null) {
+                if (active) {
+                    activeWork.decrementAndGet(); // the message's token is consumed
+                } else {
+                    active = true; // the message's token becomes the worker's token
+                }
+                relax(openSet, message.cell(), message.parent(), message.gCost());
+            }
+
+            int budget = EXPANSIONS_PER_ROUND;
+            while (budget > 0 && !openSet.isEmpty() && openSet.getMinKey() < incumbent.get()) {
+                int key = openSet.getMinKey();
+                int cell = openSet.extract();
+                int x = cell / gridHeight;
+                int y = cell % gridHeight;
+                int g = gCost[cell];
+                if (key != g + octile(x, y, end.x, end.y)) continue; // Skip outdated entries
+                budget--;
+                expanded++;
+
+                if (x == end.x && y == end.y) {
+                    incumbent.accumulateAndGet(g, Math::min);
+                    continue;
+                }
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        int nx = x + dx;
+                        int ny = y + dy;
+                        if ((dx == 0 && dy == 0) || !grid2D.contains(nx, ny) || grid2D.isBlocked(nx, ny)) continue;
+                        int ng = g + ((dx != 0 && dy != 0) ? 14 : 10) * grid2D.getTerrainCost(nx, ny);
+                        if (ng + octile(nx, ny, end.x, end.y) >= incumbent.get()) continue;
+                        int owner = owner(nx, ny);
+                        if (owner == id) {
+                            relax(openSet, cell(nx, ny), cell, ng);
+                        } else {
+                            activeWork.incrementAndGet(); // count the message before it can be received
+                            inboxes[owner].add(new Message(cell(nx, ny), cell, ng));
+                            if (idle.get(owner) == 1) {
+                                LockSupport.unpark(threads[owner]);
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (budget == EXPANSIONS_PER_ROUND && inbox.isEmpty()) { // nothing useful was done this round
+                if (active) {
+                    active = false;
+                    if (activeWork.decrementAndGet() == 0) { // the search is over, wake the parked workers
+                        for (Thread thread : threads) {
+                            LockSupport.unpark(thread);
+                        }
+                    }
+                } else {
+                    // Sleep until a sender or the end of the search unparks this worker. A sender adds before
+                    // it reads the flag and this worker sets the flag before it looks at the inbox,
+                    // so one of them sees the other
+                    idle.set(id, 1);
+                    if (inbox.isEmpty() && activeWork.get() > 0) {
+                        LockSupport.park(this);
+                    }
+                    idle.set(id, 0);
+                }
+            }
+        }
+        expandedNodes.addAndGet(expanded);
+    }
+
+    /**
+     * Keeps a node in the owner's open list if it improves the known cost of its cell.
+     *
+     * @param openSet The owner's open list.
+     * @param cell The cell of the node.
+     * @param from The parent cell.
+     * @param g The cost from the start through the parent.
+     */
+    private void relax(BinaryIntHeap openSet, int cell, int from, int g) {
+        if (g < gCost[cell]) {
+            gCost[cell] = g;
+            parent[cell] = from;
+            int gridHeight = grid2D.getGridHeight();
+            openSet.add(cell, g + octile(cell / gridHeight, cell % gridHeight, end.x, end.y));
+        }
+    }
+
+    /**
+     * Calculates the cost of the cheapest 8-connected move sequence between two cells without walls.
+     * Unlike the Euclidean heuristic of AStar, which counts about 14.14 per diagonal move against a cost
+     * of 14 (113 instead of 112 for eight diagonal moves), it never overestimates, which the pruning
+     * against the best path needs.
+     */
+    private static int octile(int x1, int y1, int x2, int y2) {
+        int dx = Math.abs(x2 - x1);
+        int dy = Math.abs(y2 - y1);
+        return 10 * Math.max(dx, dy) + 4 * Math.min(dx, dy);
+    }
+
+    /**
+     * Hashes the block of a cell to the worker that owns it.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The index of the owner worker.
+     */
+    private int owner(int x, int y) {
+        int block = (x >> BLOCK_SHIFT) * 0x9E3779B1 + (y >> BLOCK_SHIFT) * 0x85EBCA77;
+        block ^= block >>> 15;
+        return Math.floorMod(block, workers);
+    }
+
+    private int cell(int x, int y) {
+        return x * grid2D.getGridHeight() + y;
+    }
+}
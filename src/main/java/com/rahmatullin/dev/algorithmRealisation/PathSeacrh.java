@@ -31,4 +31,14 @@ public class PathSeacrh {
         Collections.reverse(path); // Reverse the path to ensure it's ordered from start to end
         return path; // Return the reconstructed path
     }
+
+    /**
+     * Encodes the shortest path that ends in the given point without building a list
+     * and without marking the points as part of the path.
+     * @param current The end point of the path.
+     * @return A CompactPath from the start to the end.
+     */
+    public static CompactPath encodePath(Point current) {
+        return CompactPath.fromParents(current);
+    }
 }
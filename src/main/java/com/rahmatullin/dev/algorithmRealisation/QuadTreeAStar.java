@@ -0,0 +1,74 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: QuadTreeAStar.java
+ * Description: A* on a QuadTreeGrid that crosses free quadrants in one step
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+/**
+ * A* search that skips the inside of free quadrants.
+ * Inside a free square the cheapest way between two cells is the straight octile move
+ * (diagonal steps, then straight steps), which never leaves the square. So a cell that enters a free
+ * leaf from outside, or the start, jumps straight to every cell on the border of its leaf and to the end
+ * if the end lies in the leaf; moves to adjacent cells are only made into other leaves. A cell reached
+ * by a jump does not jump again, its leaf was already crossed. The paths are as short as those of
+ * the cell-by-cell search, while an empty quadrant costs one expansion per entry instead of one per cell.
+ * The state holds only the touched cells, so it stays small on huge maps.
+ */
+public class QuadTreeAStar {
+
+    // Search over the free leaves of the grid, looked up at every expansion so changes of the tree are seen
+    private final RectangleAStar search;
+
+    /**
+     * Constructor for searches on a quadtree.
+     *
+     * @param grid The grid on which paths are to be found.
+     */
+    public QuadTreeAStar(QuadTreeGrid grid) {
+        this.search = new RectangleAStar(grid, (x, y, bounds) -> {
+            // Leaf of the cell; its corner is aligned to its side
+            int side = grid.getLeafSize(x, y);
+            bounds[0] = x & -side;
+            bounds[1] = y & -side;
+            bounds[2] = bounds[0] + side - 1;
+            bounds[3] = bounds[1] + side - 1;
+            return side > 1;
+        });
+    }
+
+    /**
+     * Finds the shortest path between two cells; straight moves cost 10 and diagonal moves 14.
+     *
+     * @param startX The x-coordinate of the start.
+     * @param startY The y-coordinate of the start.
+     * @param endX The x-coordinate of the end.
+     * @param endY The y-coordinate of the end.
+     * @return The path cell by cell, or null if no path is found.
+     */
+    public CompactPath search(int startX, int startY, int endX, int endY) {
+        return search.search(startX, startY, endX, endY);
+    }
+
+    /**
+     * Retrieves the cost of the path found by the last search.
+     *
+     * @return The cost of the path, or -1 if no path was found.
+     */
+    public int getCost() {
+        return search.getCost();
+    }
+
+    /**
+     * Retrieves the number of nodes expanded by the last search.
+     *
+     * @return The number of expanded nodes.
+     */
+    public int getExpandedNodes() {
+        return search.getExpandedNodes();
+    }
+}
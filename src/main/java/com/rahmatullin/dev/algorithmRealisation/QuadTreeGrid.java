@@ -0,0 +1,235 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: QuadTreeGrid.java
+ * Description: Sparse region quadtree of the walls of a GridGraph for huge, mostly open maps
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.util.Arrays;
+
+/**
+ * Walls of a grid as a region quadtree over the smallest power-of-two square that holds the grid.
+ * A square that is all free or all blocked is one leaf, so memory grows with the length of the
+ * obstacle boundaries instead of the map area, and a lookup descends at most log2(size) levels.
+ * Cells of the square outside the grid are blocked. Every cell costs the same.
+ * Internal nodes are blocks of four child references in one int array; a reference is FREE, BLOCKED
+ * or the index of the child's block. The children of a block are ordered by (x bit) << 1 | (y bit).
+ */
+public class QuadTreeGrid implements WalkableGrid {
+    // Leaf references
+    private static final int FREE = -1;
+    private static final int BLOCKED = -2;
+
+    // Dimensions of the grid, as in Grid2D
+    private final int gridWidth;
+    private final int gridHeight;
+    // Side of the square covered by the root, a power of two
+    private final int size;
+    // Child references of the internal nodes, four per node
+    private int[] nodes = new int[64];
+    // Number of used ints of nodes, including released blocks
+    private int used;
+    // Released blocks, reused before nodes grows
+    private int[] freeBlocks = new int[16];
+    private int freeBlockCount;
+    // Reference to the root
+    private int root;
+
+    /**
+     * Constructor for a grid without walls.
+     *
+     * @param gridWidth The width of the grid.
+     * @param gridHeight The height of the grid.
+     */
+    public QuadTreeGrid(int gridWidth, int gridHeight) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.size = Integer.highestOneBit(Math.max(1, Math.max(gridWidth, gridHeight) - 1)) << 1;
+        this.root = build(null, 0, 0, size);
+    }
+
+    private QuadTreeGrid(WalkableGrid grid) {
+        this.gridWidth = grid.getGridWidth();
+        this.gridHeight = grid.getGridHeight();
+        this.size = Integer.highestOneBit(Math.max(1, Math.max(gridWidth, gridHeight) - 1)) << 1;
+        this.root = build(grid, 0, 0, size);
+    }
+
+    /**
+     * Builds the quadtree of the walls of another grid representation.
+     *
+     * @param grid The grid to copy, e.g. a Grid2D or a BitGrid.
+     * @return A quadtree with the same walls.
+     */
+    public static QuadTreeGrid of(WalkableGrid grid) {
+        return new QuadTreeGrid(grid);
+    }
+
+    @Override
+    public boolean isBlocked(int x, int y) {
+        int ref = root;
+        for (int half = size >>> 1; ref >= 0; half >>>= 1) {
+            ref = nodes[ref + quadrant(x, y, half)];
+        }
+        return ref == BLOCKED;
+    }
+
+    /**
+     * Retrieves the side of the uniform square, free or blocked, that contains a cell.
+     * The square starts at (x & -side, y & -side).
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The side of the leaf that holds the cell.
+     */
+    public int getLeafSize(int x, int y) {
+        int ref = root;
+        int side = size;
+        for (int half = size >>> 1; ref >= 0; half >>>= 1) {
+            ref = nodes[ref + quadrant(x, y, half)];
+            side = half;
+        }
+        return side;
+    }
+
+    /**
+     * Sets or clears the wall of a cell. The leaf that holds the cell is split down to the cell,
+     * and squares that become uniform are merged again on the way back up.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @param blocked True to make the cell a wall, false to make it free.
+     * @throws IndexOutOfBoundsException If the cell is outside the grid.
+     */
+    public void setBlocked(int x, int y, boolean blocked) {
+        if (!contains(x, y)) {
+            throw new IndexOutOfBoundsException("Cell (" + x + ", " + y + ") is outside the grid");
+        }
+        int leaf = blocked ? BLOCKED : FREE;
+        int levels = Integer.numberOfTrailingZeros(size);
+        int[] path = new int[levels]; // index of the reference taken on every level
+        if (root < 0) {
+            if (root == leaf) return;
+            root = split(root);
+        }
+        int ref = root;
+        int depth = 0;
+        for (int half = size >>> 1; ; half >>>= 1) {
+            int slot = ref + quadrant(x, y, half);
+            path[depth++] = slot;
+            if (half == 1) {
+                nodes[slot] = leaf;
+                break;
+            }
+            if (nodes[slot] < 0) {
+                if (nodes[slot] == leaf) return; // the cell already has the value
+                int child = split(nodes[slot]); // may reallocate nodes
+                nodes[slot] = child;
+            }
+            ref = nodes[slot];
+        }
+        // merge uniform blocks from the bottom up
+        for (int level = depth - 1; level >= 0; level--) {
+            int block = path[level] - (path[level] & 3);
+            int first = nodes[block];
+            if (first >= 0 || nodes[block + 1] != first || nodes[block + 2] != first || nodes[block + 3] != first) {
+                break;
+            }
+            release(block);
+            if (level == 0) {
+                root = first;
+            } else {
+                nodes[path[level - 1]] = first;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of internal nodes, a measure of the memory in use.
+     *
+     * @return The number of internal nodes.
+     */
+    public int getNodeCount() {
+        return used / 4 - freeBlockCount;
+    }
+
+    @Override
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    @Override
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    /**
+     * Builds the subtree of a square, collapsing uniform squares into leaves.
+     *
+     * @param grid The grid to copy, or null for a grid without walls.
+     * @param x0 The x-coordinate of the corner of the square.
+     * @param y0 The y-coordinate of the corner of the square.
+     * @param side The side of the square.
+     * @return The reference to the subtree.
+     */
+    private int build(WalkableGrid grid, int x0, int y0, int side) {
+        if (x0 >= gridWidth || y0 >= gridHeight) {
+            return BLOCKED;
+        }
+        if (grid == null && x0 + side <= gridWidth && y0 + side <= gridHeight) {
+            return FREE;
+        }
+        if (side == 1) {
+            return grid != null && grid.isBlocked(x0, y0) ? BLOCKED : FREE;
+        }
+        int half = side >>> 1;
+        int c0 = build(grid, x0, y0, half);
+        int c1 = build(grid, x0, y0 + half, half);
+        int c2 = build(grid, x0 + half, y0, half);
+        int c3 = build(grid, x0 + half, y0 + half, half);
+        if (c0 < 0 && c0 == c1 && c0 == c2 && c0 == c3) {
+            return c0;
+        }
+        int block = allocate();
+        nodes[block] = c0;
+        nodes[block + 1] = c1;
+        nodes[block + 2] = c2;
+        nodes[block + 3] = c3;
+        return block;
+    }
+
+    /**
+     * Replaces a leaf by a node whose four children are the same leaf.
+     */
+    private int split(int leaf) {
+        int block = allocate();
+        Arrays.fill(nodes, block, block + 4, leaf);
+        return block;
+    }
+
+    private int allocate() {
+        if (freeBlockCount > 0) {
+            return freeBlocks[--freeBlockCount];
+        }
+        if (used == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+        }
+        used += 4;
+        return used - 4;
+    }
+
+    private void release(int block) {
+        if (freeBlockCount == freeBlocks.length) {
+            freeBlocks = Arrays.copyOf(freeBlocks, freeBlockCount * 2);
+        }
+        freeBlocks[freeBlockCount++] = block;
+    }
+
+    private static int quadrant(int x, int y, int half) {
+        return ((x & half) != 0 ? 2 : 0) | ((y & half) != 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,165 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: RectangleAStar.java
+ * Description: A* that crosses empty rectangles in one step, shared by the quadtree and RSR searches
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import com.rahmatullin.dev.priorityQueue.BinaryIntHeap;
+
+import java.util.Arrays;
+
+/**
+ * A* search that skips the inside of empty rectangles.
+ * Inside a rectangle of free cells with terrain cost 1 the cheapest way between two cells is the straight
+ * octile move (diagonal steps, then straight steps), which never leaves the rectangle. So a cell that enters
+ * a rectangle from outside, or the start, jumps straight to every cell on the border of its rectangle and to
+ * the end if the end lies in it; moves to adjacent cells are only made out of the rectangle. A cell reached
+ * by a jump does not jump again, its rectangle was already crossed. Only border cells are expanded, and the
+ * paths are as short as those of the cell-by-cell search.
+ * The state holds only the touched cells, so it stays small on huge maps.
+ */
+final class RectangleAStar {
+
+    private final WalkableGrid grid;
+    private final FreeRectangles rectangles;
+    // Bounds of the rectangle of the expanded cell
+    private final int[] bounds = new int[4];
+    // Cost of the path and number of expanded nodes of the last search
+    private int cost;
+    private int expandedNodes;
+
+    RectangleAStar(WalkableGrid grid, FreeRectangles rectangles) {
+        this.grid = grid;
+        this.rectangles = rectangles;
+    }
+
+    /**
+     * Finds the cheapest path between two cells with the step costs of AStar.
+     *
+     * @return The path cell by cell, or null if no path is found.
+     */
+    CompactPath search(int startX, int startY, int endX, int endY) {
+        int gridHeight = grid.getGridHeight();
+        NodeTable nodes = new NodeTable();
+        BinaryIntHeap openSet = new BinaryIntHeap(1024);
+        cost = -1;
+        expandedNodes = 0;
+        int endCell = endX * gridHeight + endY;
+
+        int startCell = startX * gridHeight + startY;
+        nodes.improve(startCell, -1, 0);
+        openSet.add(startCell, octile(startX, startY, endX, endY));
+
+        while (!openSet.isEmpty()) {
+            int cell = openSet.extract(); // Select the node with the lowest total cost
+            int slot = nodes.find(cell);
+            if (nodes.closed[slot]) continue; // Skip outdated entries
+            nodes.closed[slot] = true;
+            expandedNodes++;
+            if (cell == endCell) {
+                cost = nodes.gCost[slot];
+                return path(nodes, cell);
+            }
+            int x = cell / gridHeight;
+            int y = cell % gridHeight;
+            int g = nodes.gCost[slot];
+            int from = nodes.parent[slot];
+
+            boolean inRectangle = rectangles.find(x, y, bounds);
+            if (inRectangle && (from == -1 || !contains(bounds, from / gridHeight, from % gridHeight))) {
+                if (contains(bounds, endX, endY)) {
+                    jump(nodes, openSet, cell, g, x, y, endX, endY, endX, endY);
+                }
+                int x0 = bounds[0], y0 = bounds[1], x1 = bounds[2], y1 = bounds[3];
+                for (int by = y0; by <= y1; by++) {
+                    jump(nodes, openSet, cell, g, x, y, x0, by, endX, endY);
+                    if (x1 != x0) jump(nodes, openSet, cell, g, x, y, x1, by, endX, endY);
+                }
+                for (int bx = x0 + 1; bx < x1; bx++) {
+                    jump(nodes, openSet, cell, g, x, y, bx, y0, endX, endY);
+                    if (y1 != y0) jump(nodes, openSet, cell, g, x, y, bx, y1, endX, endY);
+                }
+            }
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    int nx = x + dx;
+                    int ny = y + dy;
+                    if ((dx == 0 && dy == 0) || !grid.contains(nx, ny) || grid.isBlocked(nx, ny)) continue;
+                    if (inRectangle && contains(bounds, nx, ny)) continue; // covered by the jumps
+                    int neighbor = nx * gridHeight + ny;
+                    int tentativeGCost = g + ((dx != 0 && dy != 0) ? 14 : 10) * grid.getTerrainCost(nx, ny);
+                    if (nodes.improve(neighbor, cell, tentativeGCost)) {
+                        openSet.add(neighbor, tentativeGCost + octile(nx, ny, endX, endY));
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    int getCost() {
+        return cost;
+    }
+
+    int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Opens a cell of the current rectangle, reached by a straight octile move over cells of cost 1.
+     */
+    private void jump(NodeTable nodes, BinaryIntHeap openSet, int cell, int g, int x, int y,
+                      int nx, int ny, int endX, int endY) {
+        if (nx == x && ny == y) return;
+        int neighbor = nx * grid.getGridHeight() + ny;
+        int tentativeGCost = g + octile(x, y, nx, ny);
+        if (nodes.improve(neighbor, cell, tentativeGCost)) {
+            openSet.add(neighbor, tentativeGCost + octile(nx, ny, endX, endY));
+        }
+    }
+
+    /**
+     * Expands the jumps of the path into adjacent cells, from the end back to the start.
+     */
+    private CompactPath path(NodeTable nodes, int endCell) {
+        int gridHeight = grid.getGridHeight();
+        int[] cells = new int[64];
+        int count = 0;
+        for (int cell = endCell; cell != -1; ) {
+            int from = nodes.parent[nodes.find(cell)];
+            int x = cell / gridHeight;
+            int y = cell % gridHeight;
+            // walk towards the parent: diagonal steps first, then straight steps
+            int toX = from == -1 ? x : from / gridHeight;
+            int toY = from == -1 ? y : from % gridHeight;
+            do {
+                if (count == cells.length) cells = Arrays.copyOf(cells, count * 2);
+                cells[count++] = x * gridHeight + y;
+                x += Integer.signum(toX - x);
+                y += Integer.signum(toY - y);
+            } while (x != toX || y != toY);
+            cell = from;
+        }
+        return CompactPath.fromReversedCells(cells, count, gridHeight);
+    }
+
+    /**
+     * Calculates the cost of the cheapest 8-connected move sequence between two cells without walls.
+     * Unlike the Euclidean heuristic of AStar it is consistent and tight on open ground.
+     */
+    private static int octile(int x1, int y1, int x2, int y2) {
+        int dx = Math.abs(x2 - x1);
+        int dy = Math.abs(y2 - y1);
+        return 10 * Math.max(dx, dy) + 4 * Math.min(dx, dy);
+    }
+
+    private static boolean contains(int[] bounds, int x, int y) {
+        return x >= bounds[0] && x <= bounds[2] && y >= bounds[1] && y <= bounds[3];
+    }
+}
@@ -0,0 +1,132 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: RectangleDecomposition.java
+ * Description: Rectangular symmetry reduction preprocessing: the free space of a grid as disjoint empty rectangles
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.util.Arrays;
+
+/**
+ * Covers the free cells of terrain cost 1 with disjoint rectangles, greedily in cell order: from the first
+ * uncovered cell a square is grown as far as it stays free and uncovered, then extended along y and along x.
+ * Cells with another terrain cost belong to no rectangle and are searched cell by cell.
+ * The decomposition is a snapshot; it must be rebuilt when the walls or terrain of the grid change.
+ */
+public final class RectangleDecomposition implements FreeRectangles {
+    // Rectangle of a cell outside every rectangle
+    public static final int NONE = -1;
+
+    private final int gridWidth;
+    private final int gridHeight;
+    // Rectangle of every cell (x * gridHeight + y), or NONE
+    private final int[] rectangleOf;
+    // First x, first y, last x and last y of every rectangle
+    private int[] rectangles = new int[64];
+    private int rectangleCount;
+
+    /**
+     * Constructor that decomposes a grid.
+     *
+     * @param grid The grid.
+     */
+    public RectangleDecomposition(WalkableGrid grid) {
+        this.gridWidth = grid.getGridWidth();
+        this.gridHeight = grid.getGridHeight();
+        this.rectangleOf = new int[gridWidth * gridHeight];
+        Arrays.fill(rectangleOf, NONE);
+
+        for (int x = 0; x < gridWidth; x++) {
+            for (int y = 0; y < gridHeight; y++) {
+                if (!isFree(grid, x, y)) continue;
+                int width = 1, height = 1;
+                while (canAddColumn(grid, x + width, y, height + 1) && canAddRow(grid, x, y + height, width + 1)) {
+                    width++;
+                    height++;
+                }
+                while (canAddRow(grid, x, y + height, width)) height++;
+                while (canAddColumn(grid, x + width, y, height)) width++;
+                add(x, y, width, height);
+            }
+        }
+        rectangles = Arrays.copyOf(rectangles, rectangleCount * 4);
+    }
+
+    /**
+     * Checks whether a cell may still join a rectangle.
+     */
+    private boolean isFree(WalkableGrid grid, int x, int y) {
+        return !grid.isBlocked(x, y) && grid.getTerrainCost(x, y) == 1 && rectangleOf[x * gridHeight + y] == NONE;
+    }
+
+    private boolean canAddColumn(WalkableGrid grid, int x, int y0, int height) {
+        if (x >= gridWidth || y0 + height > gridHeight) return false;
+        for (int y = y0; y < y0 + height; y++) {
+            if (!isFree(grid, x, y)) return false;
+        }
+        return true;
+    }
+
+    private boolean canAddRow(WalkableGrid grid, int x0, int y, int width) {
+        if (y >= gridHeight || x0 + width > gridWidth) return false;
+        for (int x = x0; x < x0 + width; x++) {
+            if (!isFree(grid, x, y)) return false;
+        }
+        return true;
+    }
+
+    private void add(int x0, int y0, int width, int height) {
+        if (rectangleCount * 4 == rectangles.length) rectangles = Arrays.copyOf(rectangles, rectangles.length * 2);
+        int id = rectangleCount++;
+        rectangles[id * 4] = x0;
+        rectangles[id * 4 + 1] = y0;
+        rectangles[id * 4 + 2] = x0 + width - 1;
+        rectangles[id * 4 + 3] = y0 + height - 1;
+        for (int x = x0; x < x0 + width; x++) {
+            Arrays.fill(rectangleOf, x * gridHeight + y0, x * gridHeight + y0 + height, id);
+        }
+    }
+
+    @Override
+    public boolean find(int x, int y, int[] bounds) {
+        int id = rectangleOf[x * gridHeight + y];
+        if (id == NONE) return false;
+        System.arraycopy(rectangles, id * 4, bounds, 0, 4);
+        return bounds[0] != bounds[2] || bounds[1] != bounds[3];
+    }
+
+    /**
+     * Retrieves the rectangle holding a cell.
+     *
+     * @return The number of the rectangle, or NONE for walls and cells of another terrain cost.
+     */
+    public int getRectangle(int x, int y) {
+        return rectangleOf[x * gridHeight + y];
+    }
+
+    /**
+     * Retrieves the bounds of a rectangle.
+     *
+     * @param rectangle The number of the rectangle.
+     * @return The first x, first y, last x and last y, inclusive.
+     */
+    public int[] getBounds(int rectangle) {
+        return Arrays.copyOfRange(rectangles, rectangle * 4, rectangle * 4 + 4);
+    }
+
+    public int getRectangleCount() {
+        return rectangleCount;
+    }
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    public int getGridHeight() {
+        return gridHeight;
+    }
+}
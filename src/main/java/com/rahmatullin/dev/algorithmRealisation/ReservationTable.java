@@ -0,0 +1,186 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: ReservationTable.java
+ * Description: Concurrent space-time reservation table of (cell, tick) entries for cooperative pathfinding
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ReservationTable {
+
+    // Owner agent id of every reserved (cell, tick) entry
+    private final ConcurrentHashMap<Long, Integer> owners;
+    // Height of the grid, used to turn coordinates into a cell index
+    private final int gridHeight;
+
+    /**
+     * Constructor for creating an empty reservation table for the grid.
+     *
+     * @param grid2D The grid whose cells are reserved.
+     */
+    public ReservationTable(Grid2D grid2D) {
+        this.gridHeight = grid2D.getGridHeight();
+        this.owners = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Retrieves the agent that reserved the cell at the tick.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @param tick The time step.
+     * @return The id of the owner agent, or null if the entry is free.
+     */
+    public Integer getOwner(int x, int y, int tick) {
+        return owners.get(key(x, y, tick));
+    }
+
+    /**
+     * Checks whether the cell is reserved at the tick by an agent other than the given one.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @param tick The time step.
+     * @param agentId The agent asking.
+     * @return True if another agent holds the entry, false otherwise.
+     */
+    public boolean isReservedByOther(int x, int y, int tick, int agentId) {
+        Integer owner = owners.get(key(x, y, tick));
+        return owner != null && owner != agentId;
+    }
+
+    /**
+     * Checks whether moving between two adjacent cells from tick to tick + 1 would swap places
+     * with another agent making the opposite move.
+     *
+     * @param fromX The x-coordinate of the cell the move starts in.
+     * @param fromY The y-coordinate of the cell the move starts in.
+     * @param toX The x-coordinate of the cell the move ends in.
+     * @param toY The y-coordinate of the cell the move ends in.
+     * @param tick The time step the move starts at.
+     * @param agentId The agent asking.
+     * @return True if the move collides with an opposite move of another agent.
+     */
+    public boolean isSwapConflict(int fromX, int fromY, int toX, int toY, int tick, int agentId) {
+        if (fromX == toX && fromY == toY) {
+            return false;
+        }
+        Integer owner = owners.get(key(toX, toY, tick));
+        return owner != null && owner != agentId && owner.equals(owners.get(key(fromX, fromY, tick + 1)));
+    }
+
+    /**
+     * Checks whether the cell stays free of other agents from the tick up to the horizon,
+     * so an agent can wait in it once it has arrived.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @param fromTick The first time step to check.
+     * @param horizon The last time step to check.
+     * @param agentId The agent asking.
+     * @return True if no other agent holds the cell in the interval.
+     */
+    public boolean isFreeFrom(int x, int y, int fromTick, int horizon, int agentId) {
+        for (int tick = fromTick; tick <= horizon; tick++) {
+            if (isReservedByOther(x, y, tick, agentId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Atomically reserves a timed path: the cell of step t at tick t,
+     * and the last cell for all remaining ticks up to the horizon.
+     * If any entry is already taken or a swap with another agent is detected,
+     * the entries reserved so far are released and nothing is kept.
+     *
+     * @param path The cells of the path, one per tick starting at tick 0.
+     * @param horizon The last tick to hold the final cell for.
+     * @param agentId The agent reserving the path.
+     * @return True if the whole path was reserved, false otherwise.
+     */
+    public boolean tryReservePath(List<Point> path, int horizon, int agentId) {
+        ArrayList<Long> reserved = new ArrayList<>(horizon + 1);
+        Point last = path.get(path.size() - 1);
+        for (int tick = 0; tick <= Math.max(horizon, path.size() - 1); tick++) {
+            Point cell = tick < path.size() ? path.get(tick) : last;
+            long key = key(cell.x, cell.y, tick);
+            Integer owner = owners.putIfAbsent(key, agentId);
+            if (owner != null && owner != agentId) {
+                release(reserved, agentId);
+                return false;
+            }
+            if (owner == null) {
+                reserved.add(key);
+            }
+        }
+        // Swaps can only be detected once both agents' entries are in the table
+        for (int tick = 0; tick + 1 < path.size(); tick++) {
+            Point from = path.get(tick);
+            Point to = path.get(tick + 1);
+            if (isSwapConflict(from.x, from.y, to.x, to.y, tick, agentId)) {
+                release(reserved, agentId);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes all entries of ticks before the given one, so the table can be reused
+     * across simulation ticks without growing.
+     *
+     * @param tick The first tick to keep.
+     */
+    public void releaseBefore(int tick) {
+        owners.keySet().removeIf(key -> (int) (key >>> 32) < tick);
+    }
+
+    /**
+     * Removes all reservations.
+     */
+    public void clear() {
+        owners.clear();
+    }
+
+    /**
+     * Retrieves the number of reserved entries.
+     *
+     * @return The number of (cell, tick) entries in the table.
+     */
+    public int size() {
+        return owners.size();
+    }
+
+    /**
+     * Releases the given entries if they are still held by the agent.
+     *
+     * @param keys The entry keys.
+     * @param agentId The agent that holds them.
+     */
+    private void release(List<Long> keys, int agentId) {
+        for (Long key : keys) {
+            owners.remove(key, agentId);
+        }
+    }
+
+    /**
+     * Packs a cell and a tick into a single key: the tick in the high half, the cell index in the low half.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @param tick The time step.
+     * @return The key of the entry.
+     */
+    private long key(int x, int y, int tick) {
+        return ((long) tick << 32) | (x * gridHeight + y);
+    }
+}
@@ -0,0 +1,173 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: ResumableSearch.java
+ * Description: A* search that advances a given number of expansions per call and can be suspended in between
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import com.rahmatullin.dev.priorityQueue.IntPriorityQueue;
+
+import java.util.Arrays;
+
+/**
+ * A* search whose state survives between calls, for loops that give pathfinding a fixed budget per tick.
+ * The state only holds the cells the search has touched, in a hash table, so many searches can be
+ * suspended at once on a large shared grid. Nothing is written into the grid. The grid is read
+ * at every step; searches on a grid that changes between ticks should run on a pinned GridSnapshot.
+ */
+public class ResumableSearch {
+
+    // Grid the search runs on
+    private final WalkableGrid grid;
+    // Start and end cells
+    private final int startX, startY, endX, endY;
+    // Open set of cell indices keyed by the total cost
+    private final IntPriorityQueue openSet;
+    // Cost, parent and closed flag of every touched cell
+    private final NodeTable nodes = new NodeTable();
+
+    private SearchStatus status = SearchStatus.IN_PROGRESS;
+    // Expanded cell with the lowest heuristic cost, the end of the partial path
+    private int closestCell;
+    private int closestHCost;
+    private int expandedNodes;
+
+    /**
+     * Constructor for a search with a binary heap as the open set.
+     *
+     * @param grid The grid on which the path is to be found.
+     * @param startX The x-coordinate of the start.
+     * @param startY The y-coordinate of the start.
+     * @param endX The x-coordinate of the end.
+     * @param endY The y-coordinate of the end.
+     */
+    public ResumableSearch(WalkableGrid grid, int startX, int startY, int endX, int endY) {
+        this(grid, startX, startY, endX, endY, AStar.OpenSetType.BINARY_HEAP);
+    }
+
+    /**
+     * Constructor for a search with the given open set implementation.
+     *
+     * @param grid The grid on which the path is to be found.
+     * @param startX The x-coordinate of the start.
+     * @param startY The y-coordinate of the start.
+     * @param endX The x-coordinate of the end.
+     * @param endY The y-coordinate of the end.
+     * @param openSetType The data structure used for the open set.
+     */
+    public ResumableSearch(WalkableGrid grid, int startX, int startY, int endX, int endY,
+                           AStar.OpenSetType openSetType) {
+        this.grid = grid;
+        this.startX = startX;
+        this.startY = startY;
+        this.endX = endX;
+        this.endY = endY;
+        this.openSet = openSetType.createIndexed(grid);
+        int startCell = startX * grid.getGridHeight() + startY;
+        nodes.improve(startCell, -1, 0);
+        openSet.add(startCell, AStar.heuristic(startX, startY, endX, endY));
+        closestCell = startCell;
+        closestHCost = AStar.heuristic(startX, startY, endX, endY);
+    }
+
+    /**
+     * Advances the search.
+     *
+     * @param maxExpansions The largest number of nodes to expand in this call.
+     * @return IN_PROGRESS if the budget ran out first, otherwise FOUND, NO_PATH or CANCELLED.
+     */
+    public SearchStatus step(int maxExpansions) {
+        int gridHeight = grid.getGridHeight();
+        int budget = maxExpansions;
+        while (status == SearchStatus.IN_PROGRESS && budget > 0) {
+            if (openSet.isEmpty()) {
+                status = SearchStatus.NO_PATH;
+                break;
+            }
+            int cell = openSet.extract(); // Select the node with the lowest total cost
+            int slot = nodes.find(cell);
+            if (nodes.closed[slot]) continue; // Skip outdated entries
+            nodes.closed[slot] = true;
+            expandedNodes++;
+            budget--;
+            int x = cell / gridHeight;
+            int y = cell % gridHeight;
+
+            if (x == endX && y == endY) {
+                closestCell = cell;
+                status = SearchStatus.FOUND;
+                break;
+            }
+            int hCost = AStar.heuristic(x, y, endX, endY);
+            if (hCost < closestHCost) {
+                closestCell = cell;
+                closestHCost = hCost;
+            }
+
+            int g = nodes.gCost[slot];
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    int nx = x + dx;
+                    int ny = y + dy;
+                    if ((dx == 0 && dy == 0) || !grid.contains(nx, ny) || grid.isBlocked(nx, ny)) continue;
+                    int neighbor = nx * gridHeight + ny;
+                    int tentativeGCost = g + ((dx != 0 && dy != 0) ? 14 : 10) * grid.getTerrainCost(nx, ny);
+                    if (nodes.improve(neighbor, cell, tentativeGCost)) {
+                        openSet.add(neighbor, tentativeGCost + AStar.heuristic(nx, ny, endX, endY));
+                    }
+                }
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Stops the search for good; the partial path stays available.
+     */
+    public void cancel() {
+        if (status == SearchStatus.IN_PROGRESS) {
+            status = SearchStatus.CANCELLED;
+        }
+    }
+
+    /**
+     * Retrieves the path found so far: the whole path once the status is FOUND, otherwise the path
+     * to the expanded cell closest to the end, which an agent may start to follow.
+     *
+     * @return The path, or null if the status is NO_PATH.
+     */
+    public CompactPath getPath() {
+        if (status == SearchStatus.NO_PATH) {
+            return null;
+        }
+        int gridHeight = grid.getGridHeight();
+        int[] cells = new int[16];
+        int count = 0;
+        for (int cell = closestCell; cell != -1; cell = nodes.parent[nodes.find(cell)]) {
+            if (count == cells.length) cells = Arrays.copyOf(cells, count * 2);
+            cells[count++] = cell;
+        }
+        return CompactPath.fromReversedCells(cells, count, gridHeight);
+    }
+
+    /**
+     * Retrieves the cost of the path returned by {@link #getPath()}.
+     *
+     * @return The cost of the path, or -1 if the status is NO_PATH.
+     */
+    public int getCost() {
+        return status == SearchStatus.NO_PATH ? -1 : nodes.gCost[nodes.find(closestCell)];
+    }
+
+    public SearchStatus getStatus() {
+        return status;
+    }
+
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+}
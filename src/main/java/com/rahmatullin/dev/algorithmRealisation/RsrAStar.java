@@ -0,0 +1,83 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: RsrAStar.java
+ * Description: A* with rectangular symmetry reduction, expanding only the perimeters of empty rectangles
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+/**
+ * A* search over a RectangleDecomposition of a grid. Many equally short paths cross an empty rectangle;
+ * instead of expanding its inside cell by cell, a cell entering a rectangle jumps straight to the cells of its
+ * perimeter (and to the end, if the end lies inside), so only perimeter cells are expanded. The jumps are
+ * octile moves inside the rectangle, which makes the paths as short as those of IndexedAStar.
+ * The grid must not change while the instance is in use; the decomposition is built once.
+ */
+public class RsrAStar {
+
+    private final RectangleDecomposition decomposition;
+    private final RectangleAStar search;
+
+    /**
+     * Constructor that decomposes a grid.
+     *
+     * @param grid The grid on which paths are to be found.
+     */
+    public RsrAStar(WalkableGrid grid) {
+        this(grid, new RectangleDecomposition(grid));
+    }
+
+    /**
+     * Constructor for a grid that is already decomposed.
+     *
+     * @param grid The grid on which paths are to be found.
+     * @param decomposition The decomposition of the grid.
+     * @throws IllegalArgumentException If the decomposition has another size than the grid.
+     */
+    public RsrAStar(WalkableGrid grid, RectangleDecomposition decomposition) {
+        if (decomposition.getGridWidth() != grid.getGridWidth() || decomposition.getGridHeight() != grid.getGridHeight()) {
+            throw new IllegalArgumentException("Decomposition of a " + decomposition.getGridWidth() + "x"
+                    + decomposition.getGridHeight() + " grid used on a " + grid.getGridWidth() + "x" + grid.getGridHeight() + " grid");
+        }
+        this.decomposition = decomposition;
+        this.search = new RectangleAStar(grid, decomposition);
+    }
+
+    /**
+     * Finds the cheapest path between two cells with the step costs of AStar.
+     *
+     * @param startX The x-coordinate of the start.
+     * @param startY The y-coordinate of the start.
+     * @param endX The x-coordinate of the end.
+     * @param endY The y-coordinate of the end.
+     * @return The path cell by cell, or null if no path is found.
+     */
+    public CompactPath search(int startX, int startY, int endX, int endY) {
+        return search.search(startX, startY, endX, endY);
+    }
+
+    /**
+     * Retrieves the cost of the path found by the last search.
+     *
+     * @return The cost of the path, or -1 if no path was found.
+     */
+    public int getCost() {
+        return search.getCost();
+    }
+
+    /**
+     * Retrieves the number of nodes expanded by the last search.
+     *
+     * @return The number of expanded nodes.
+     */
+    public int getExpandedNodes() {
+        return search.getExpandedNodes();
+    }
+
+    public RectangleDecomposition getDecomposition() {
+        return decomposition;
+    }
+}
@@ -0,0 +1,80 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: SearchControl.java
+ * Description: Deadline and cancellation token a search checks every few expansions
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.time.Duration;
+
+/**
+ * Limits of a search. The search checks them every checkInterval expansions only,
+ * so reading the clock and the token costs next to nothing per node.
+ */
+public final class SearchControl {
+    // Limits that never stop a search
+    public static final SearchControl UNLIMITED = new SearchControl(Long.MAX_VALUE, null, Integer.MAX_VALUE);
+    // Default number of expansions between two checks
+    public static final int DEFAULT_CHECK_INTERVAL = 256;
+
+    private final long deadlineNanos;            // System.nanoTime() when the search must stop, MAX_VALUE for none
+    private final CancellationToken token;        // null for none
+    private final int checkInterval;             // number of expansions between two checks
+
+    /**
+     * Constructor for limits with a deadline and a token.
+     *
+     * @param deadlineNanos The value of System.nanoTime() at which the search must stop, Long.MAX_VALUE for none.
+     * @param token The token that cancels the search, or null.
+     * @param checkInterval The number of expansions between two checks.
+     */
+    public SearchControl(long deadlineNanos, CancellationToken token, int checkInterval) {
+        this.deadlineNanos = deadlineNanos;
+        this.token = token;
+        this.checkInterval = Math.max(1, checkInterval);
+    }
+
+    /**
+     * Creates limits that stop a search after the given time from now.
+     *
+     * @param timeout The time the search may take.
+     * @param token The token that cancels the search, or null.
+     * @return The limits.
+     */
+    public static SearchControl timeout(Duration timeout, CancellationToken token) {
+        return new SearchControl(System.nanoTime() + timeout.toNanos(), token, DEFAULT_CHECK_INTERVAL);
+    }
+
+    /**
+     * Creates limits that only stop a search when the token fires.
+     *
+     * @param token The token that cancels the search.
+     * @return The limits.
+     */
+    public static SearchControl cancellable(CancellationToken token) {
+        return new SearchControl(Long.MAX_VALUE, token, DEFAULT_CHECK_INTERVAL);
+    }
+
+    /**
+     * Checks whether the search must stop.
+     *
+     * @return CANCELLED or DEADLINE_EXCEEDED if the search must stop, null if it may go on.
+     */
+    public SearchStatus check() {
+        if (token != null && token.isCancelled()) {
+            return SearchStatus.CANCELLED;
+        }
+        if (deadlineNanos != Long.MAX_VALUE && System.nanoTime() - deadlineNanos >= 0) {
+            return SearchStatus.DEADLINE_EXCEEDED;
+        }
+        return null;
+    }
+
+    public int getCheckInterval() {
+        return checkInterval;
+    }
+}
@@ -0,0 +1,24 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: SearchResult.java
+ * Description: Path and status of a search that may be stopped before it completes
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+/**
+ * Result of a search with limits.
+ * When the search was stopped, the path leads to the expanded node with the lowest heuristic cost,
+ * the best guess of how to start moving towards the end.
+ *
+ * @param status How the search ended.
+ * @param path The path to the end, the partial path if the search was stopped, or null if there is no path.
+ * @param cost The cost of the path, or -1 if there is none.
+ * @param expandedNodes The number of nodes expanded.
+ * @param <P> The type of the path, e.g. an ArrayList of Points or a CompactPath.
+ */
+public record SearchResult<P>(SearchStatus status, P path, int cost, int expandedNodes) {
+}
@@ -0,0 +1,121 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: SearchScheduler.java
+ * Description: Shares a fixed per-tick expansion budget fairly across the pending searches of many agents
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs the path queries of many agents on one grid within a fixed number of expansions per tick.
+ * Every tick the budget is split into equal quanta over the pending searches in round-robin order;
+ * what a finished search leaves over goes to the others in the same tick. The round starts where the
+ * previous tick stopped, so when there are more searches than expansions every agent still gets its turn.
+ * Not thread-safe: submit and tick from the loop thread.
+ */
+public class SearchScheduler {
+    // Grid the searches run on
+    private final WalkableGrid grid;
+    // Number of expansions shared by all searches per tick
+    private final int expansionsPerTick;
+    // Pending searches in round-robin order, with the agent that waits for each
+    private final ArrayList<ResumableSearch> searches = new ArrayList<>();
+    private final ArrayList<Integer> agents = new ArrayList<>();
+    // Index of the search that gets the first quantum of the next tick
+    private int cursor;
+
+    /**
+     * Constructor for a scheduler on a grid.
+     *
+     * @param grid The grid the searches run on, e.g. a shared Grid2D.
+     * @param expansionsPerTick The number of expansions all searches together may do per tick.
+     */
+    public SearchScheduler(WalkableGrid grid, int expansionsPerTick) {
+        this.grid = grid;
+        this.expansionsPerTick = Math.max(1, expansionsPerTick);
+    }
+
+    /**
+     * Starts a query for an agent. A pending query of the same agent is cancelled and replaced.
+     *
+     * @param agentId The agent that waits for the path.
+     * @param startX The x-coordinate of the start.
+     * @param startY The y-coordinate of the start.
+     * @param endX The x-coordinate of the end.
+     * @param endY The y-coordinate of the end.
+     * @return The new search, whose partial path can be read while it is pending.
+     */
+    public ResumableSearch submit(int agentId, int startX, int startY, int endX, int endY) {
+        cancel(agentId);
+        ResumableSearch search = new ResumableSearch(grid, startX, startY, endX, endY);
+        searches.add(search);
+        agents.add(agentId);
+        return search;
+    }
+
+    /**
+     * Cancels the pending query of an agent.
+     *
+     * @param agentId The agent.
+     * @return True if the agent had a pending query.
+     */
+    public boolean cancel(int agentId) {
+        int index = agents.indexOf(agentId);
+        if (index < 0) {
+            return false;
+        }
+        searches.get(index).cancel();
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Spends the budget of one tick on the pending searches.
+     *
+     * @return The searches that finished in this tick by agent, in the order they finished.
+     */
+    public Map<Integer, ResumableSearch> tick() {
+        Map<Integer, ResumableSearch> finished = new LinkedHashMap<>();
+        int budget = expansionsPerTick;
+        while (budget > 0 && !searches.isEmpty()) {
+            int quantum = Math.max(1, budget / searches.size());
+            // one round over the searches pending at its start
+            for (int turns = searches.size(); turns > 0 && budget > 0 && !searches.isEmpty(); turns--) {
+                if (cursor >= searches.size()) cursor = 0;
+                ResumableSearch search = searches.get(cursor);
+                int before = search.getExpandedNodes();
+                SearchStatus status = search.step(Math.min(quantum, budget));
+                budget -= search.getExpandedNodes() - before;
+                if (status == SearchStatus.IN_PROGRESS) {
+                    cursor++;
+                } else {
+                    finished.put(agents.get(cursor), search);
+                    remove(cursor); // the next search moves to the cursor
+                }
+            }
+        }
+        return finished;
+    }
+
+    /**
+     * Retrieves the number of searches that are not finished yet.
+     *
+     * @return The number of pending searches.
+     */
+    public int getPendingCount() {
+        return searches.size();
+    }
+
+    private void remove(int index) {
+        searches.remove(index);
+        agents.remove(index);
+        if (index < cursor) cursor--;
+    }
+}
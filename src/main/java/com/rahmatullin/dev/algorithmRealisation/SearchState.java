@@ -0,0 +1,92 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: SearchState.java
+ * Description: Per-cell cost, parent and closed marks of an index-based search
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+/**
+ * Dense per-cell state of an IndexedAStar search, addressed by cell index (x * gridHeight + y).
+ * The state is reused by every search of its owner: starting a search invalidates the marks of the previous one
+ * without clearing the storage. Where the storage lives is up to the implementation.
+ */
+public interface SearchState extends AutoCloseable {
+
+    /**
+     * Creates a state for a search over the given number of cells.
+     *
+     * @param cellCount The number of cells.
+     * @param offHeap Whether to keep the state outside the Java heap.
+     * @return The state.
+     * @throws UnsupportedOperationException If off-heap state is requested but not available in this JVM.
+     */
+    static SearchState create(int cellCount, boolean offHeap) {
+        if (!offHeap) return new HeapSearchState(cellCount);
+        if (!isOffHeapAvailable()) {
+            throw new UnsupportedOperationException("Off-heap search state needs Java 21 with --enable-preview");
+        }
+        try {
+            // loaded by name, so only OffHeapSearchState is built as a preview class file
+            return (SearchState) offHeapClass().getConstructor(int.class).newInstance(cellCount);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the off-heap search state", e);
+        }
+    }
+
+    /**
+     * Checks whether off-heap state can be used, i.e. whether the foreign memory API may be loaded.
+     * OffHeapSearchState is compiled with the preview features of Java 21, so it loads only on Java 21
+     * started with --enable-preview.
+     *
+     * @return True if OffHeapSearchState can be created.
+     */
+    static boolean isOffHeapAvailable() {
+        try {
+            offHeapClass();
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) { // the class file needs preview features
+            return false;
+        }
+    }
+
+    private static Class<?> offHeapClass() throws ClassNotFoundException {
+        return Class.forName(SearchState.class.getPackageName() + ".OffHeapSearchState", false,
+                SearchState.class.getClassLoader());
+    }
+
+    /**
+     * Starts a new search, invalidating the marks of the previous one.
+     */
+    void reset();
+
+    /**
+     * Records a cost and a parent for a cell and marks it visited.
+     *
+     * @param cell The cell.
+     * @param parent The cell it is reached from, or -1 for the start.
+     * @param gCost The cost of reaching it.
+     */
+    void visit(int cell, int parent, int gCost);
+
+    boolean isVisited(int cell);
+
+    int getGCost(int cell);
+
+    int getParent(int cell);
+
+    void markClosed(int cell);
+
+    boolean isClosed(int cell);
+
+    int getCellCount();
+
+    /**
+     * Releases the storage. The state must not be used afterwards.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,27 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: SearchStatus.java
+ * Description: Outcome of a search that may be stopped before it completes
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+public enum SearchStatus {
+    IN_PROGRESS, // A resumable search was suspended and can go on
+    FOUND, // The path to the end was found
+    NO_PATH, // The open set ran empty, the end is unreachable
+    DEADLINE_EXCEEDED, // The deadline passed, the path is partial
+    CANCELLED; // The cancellation token fired, the path is partial
+
+    /**
+     * Checks whether the search was stopped before it completed.
+     *
+     * @return True if the result holds a partial path.
+     */
+    public boolean isStopped() {
+        return this == DEADLINE_EXCEEDED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,152 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: ThetaStar.java
+ * Description: Any-angle Theta* search that returns only the turning points of the path
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import com.rahmatullin.dev.priorityQueue.BinaryIntHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class ThetaStar {
+
+    // Start and end nodes
+    private final Point start, end;
+    // Reference to the grid
+    private final Grid2D grid2D;
+    // Grid matrix
+    private final Point[][] matrix;
+    // Packed walls used for the line-of-sight checks
+    private final BitGrid bitGrid;
+    // Number of expanded nodes during the last search
+    private int expandedNodes;
+
+    /**
+     * Constructor for initializing the Theta* algorithm.
+     * Packs the walls of the grid for the line-of-sight checks.
+     *
+     * @param start The starting point of the path.
+     * @param end The ending point of the path.
+     * @param grid2D The grid on which the path is to be found.
+     */
+    public ThetaStar(Point start, Point end, Grid2D grid2D) {
+        this(start, end, grid2D, BitGrid.of(grid2D));
+    }
+
+    /**
+     * Constructor for initializing the Theta* algorithm with already packed walls,
+     * so many queries on the same grid share them.
+     *
+     * @param start The starting point of the path.
+     * @param end The ending point of the path.
+     * @param grid2D The grid on which the path is to be found.
+     * @param bitGrid The packed walls of the grid.
+     */
+    public ThetaStar(Point start, Point end, Grid2D grid2D, BitGrid bitGrid) {
+        this.grid2D = grid2D;
+        this.matrix = grid2D.getGrid();
+        this.start = matrix[start.x][start.y];
+        this.end = matrix[end.x][end.y];
+        this.bitGrid = bitGrid;
+    }
+
+    /**
+     * Main method for any-angle pathfinding.
+     * Works like A*, but when a neighbor is generated and the parent of the current node can see it,
+     * the neighbor is connected straight to that parent. Costs are Euclidean distances (times 10) and
+     * every free cell costs the same. The end's gCost holds the length of the path afterwards.
+     *
+     * @return An ArrayList of the turning points from the start to the end, or null if no path is found.
+     */
+    public ArrayList<Point> search() {
+        int gridHeight = grid2D.getGridHeight();
+        int[] gCost = new int[grid2D.getGridWidth() * gridHeight];
+        int[] parent = new int[gCost.length];
+        boolean[] closed = new boolean[gCost.length];
+        Arrays.fill(gCost, Integer.MAX_VALUE);
+        BinaryIntHeap openSet = new BinaryIntHeap(1024);
+        expandedNodes = 0;
+
+        int startCell = start.x * gridHeight + start.y;
+        gCost[startCell] = 0;
+        parent[startCell] = startCell;
+        openSet.add(startCell, AStar.heuristic(start.x, start.y, end.x, end.y));
+
+        while (!openSet.isEmpty()) {
+            int cell = openSet.extract(); // Select the node with the lowest total cost
+            if (closed[cell]) continue; // Skip outdated entries
+            closed[cell] = true;
+            expandedNodes++;
+            int x = cell / gridHeight;
+            int y = cell % gridHeight;
+
+            if (x == end.x && y == end.y) {
+                return turningPoints(parent, gCost, startCell, cell);
+            }
+
+            int from = parent[cell];
+            int fromX = from / gridHeight;
+            int fromY = from % gridHeight;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    int nx = x + dx;
+                    int ny = y + dy;
+                    if ((dx == 0 && dy == 0) || !grid2D.contains(nx, ny) || bitGrid.isBlocked(nx, ny)) continue;
+                    int neighbor = nx * gridHeight + ny;
+                    if (closed[neighbor]) continue;
+
+                    int tentativeParent = cell;
+                    int tentativeGCost = gCost[cell] + AStar.heuristic(x, y, nx, ny);
+                    // Path 2: go straight from the parent if it can see the neighbor
+                    if (from != cell) {
+                        int straightGCost = gCost[from] + AStar.heuristic(fromX, fromY, nx, ny);
+                        // Rounding can make the straight segment cost more than the two pieces
+                        if (straightGCost <= tentativeGCost && bitGrid.hasLineOfSight(fromX, fromY, nx, ny)) {
+                            tentativeParent = from;
+                            tentativeGCost = straightGCost;
+                        }
+                    }
+                    if (tentativeGCost < gCost[neighbor]) {
+                        gCost[neighbor] = tentativeGCost;
+                        parent[neighbor] = tentativeParent;
+                        openSet.add(neighbor, tentativeGCost + AStar.heuristic(nx, ny, end.x, end.y));
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Retrieves the number of nodes expanded by the last search.
+     *
+     * @return The number of expanded nodes.
+     */
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Links the turning points through their Point parents and reconstructs them in order.
+     *
+     * @return An ArrayList of the turning points from the start to the end.
+     */
+    private ArrayList<Point> turningPoints(int[] parent, int[] gCost, int startCell, int endCell) {
+        int gridHeight = grid2D.getGridHeight();
+        for (int cell = endCell; cell != startCell; cell = parent[cell]) {
+            Point point = matrix[cell / gridHeight][cell % gridHeight];
+            point.gCost = gCost[cell];
+            point.parent = matrix[parent[cell] / gridHeight][parent[cell] % gridHeight];
+        }
+        start.parent = null;
+        start.gCost = 0;
+        return PathSeacrh.reconstructPath(end);
+    }
+}
@@ -0,0 +1,53 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: VectorRowKernel.java
+ * Description: jdk.incubator.vector kernel of the bit-parallel BFS row update
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Only loaded when the JVM runs with --add-modules jdk.incubator.vector,
+ * BitParallelBFS falls back to its scalar loop otherwise.
+ */
+final class VectorRowKernel {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    private VectorRowKernel() {
+    }
+
+    /**
+     * Computes next = (up | mid | down) &amp; ~(walls | visited) for the full vectors of a row.
+     *
+     * @param dilated The horizontally dilated frontier rows.
+     * @param up The offset of the row above in the dilated rows.
+     * @param mid The offset of the row itself in the dilated rows.
+     * @param down The offset of the row below in the dilated rows.
+     * @param walls The wall bits.
+     * @param visited The bits of the visited cells.
+     * @param next The bits of the new frontier.
+     * @param offset The offset of the row in walls, visited and next.
+     * @param words The number of words per row.
+     * @return The number of words done; the caller finishes the rest.
+     */
+    static int combine(long[] dilated, int up, int mid, int down,
+                       long[] walls, long[] visited, long[] next, int offset, int words) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(words); i < bound; i += SPECIES.length()) {
+            LongVector reached = LongVector.fromArray(SPECIES, dilated, up + i)
+                    .or(LongVector.fromArray(SPECIES, dilated, mid + i))
+                    .or(LongVector.fromArray(SPECIES, dilated, down + i));
+            LongVector taken = LongVector.fromArray(SPECIES, walls, offset + i)
+                    .or(LongVector.fromArray(SPECIES, visited, offset + i));
+            reached.lanewise(VectorOperators.AND_NOT, taken).intoArray(next, offset + i);
+        }
+        return i;
+    }
+}
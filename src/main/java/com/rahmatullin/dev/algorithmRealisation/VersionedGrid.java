@@ -0,0 +1,82 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: VersionedGrid.java
+ * Description: Publishes copy-on-write versions of a grid to readers that never take a lock
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+import java.util.function.Consumer;
+
+/**
+ * Holder of the current version of a grid that changes while queries run.
+ * Readers pin the current snapshot with one volatile read and search it for as long as they need.
+ * Writers are serialized among themselves, build the next version from the current one
+ * and publish it at once, so a reader sees either all changes of an edit or none.
+ * Only the current version is referenced here: an old version and the tiles only it uses
+ * are reclaimed by the garbage collector when the last search holding it drops it.
+ */
+public class VersionedGrid {
+    // Current version, replaced as a whole by writers
+    private volatile GridSnapshot current;
+
+    /**
+     * Constructor for a versioned copy of a grid.
+     *
+     * @param grid2D The grid whose walls and terrain costs form the first version.
+     */
+    public VersionedGrid(Grid2D grid2D) {
+        this.current = GridSnapshot.of(grid2D);
+    }
+
+    /**
+     * Pins the current version for a search. Never blocks.
+     *
+     * @return The current snapshot; it does not change when new versions are published.
+     */
+    public GridSnapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * Applies an edit and publishes the result as the next version.
+     * Nothing is published if the edit changes no cell.
+     *
+     * @param changes Code that sets walls and terrain costs on the editor.
+     * @return The current snapshot after the edit.
+     */
+    public synchronized GridSnapshot update(Consumer<GridSnapshot.Editor> changes) {
+        GridSnapshot.Editor editor = current.edit();
+        changes.accept(editor);
+        if (editor.isChanged()) {
+            current = editor.build();
+        }
+        return current;
+    }
+
+    /**
+     * Applies a batch of wall events as one edit, e.g. the same batch that was applied to the Grid2D.
+     *
+     * @param changes The events to apply, in order.
+     * @return The current snapshot after the edit.
+     */
+    public GridSnapshot update(ObstacleChangeSet changes) {
+        return update(editor -> {
+            for (int i = 0; i < changes.size(); i++) {
+                editor.setBlocked(changes.getX(i), changes.getY(i), changes.isBlocking(i));
+            }
+        });
+    }
+
+    /**
+     * Retrieves the number of the current version.
+     *
+     * @return The version of the current snapshot.
+     */
+    public long getVersion() {
+        return current.getVersion();
+    }
+}
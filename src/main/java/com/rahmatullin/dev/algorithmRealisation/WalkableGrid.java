@@ -0,0 +1,71 @@
+package com.rahmatullin.dev.algorithmRealisation;
+
+/*
+ * File: WalkableGrid.java
+ * Description: Read-only view of the walls and terrain costs of a GridGraph
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+/**
+ * Read-only view of the walkability of a grid, for searches that work on cell indices
+ * (x * gridHeight + y) instead of the grid's Points.
+ */
+public interface WalkableGrid {
+
+    /**
+     * Retrieves the width of the grid.
+     *
+     * @return The number of x-coordinates.
+     */
+    int getGridWidth();
+
+    /**
+     * Retrieves the height of the grid.
+     *
+     * @return The number of y-coordinates.
+     */
+    int getGridHeight();
+
+    /**
+     * Checks whether the cell is an obstacle.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return True if the cell is blocked, false otherwise.
+     */
+    boolean isBlocked(int x, int y);
+
+    /**
+     * Retrieves the movement cost multiplier of a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The cost multiplier of the cell, 1 by default.
+     */
+    default int getTerrainCost(int x, int y) {
+        return 1;
+    }
+
+    /**
+     * Retrieves the largest movement cost multiplier of any cell.
+     *
+     * @return The largest cost multiplier, 1 by default.
+     */
+    default int getMaxTerrainCost() {
+        return 1;
+    }
+
+    /**
+     * Checks whether the coordinates lie inside the grid.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return True if the cell is inside the grid bounds, false otherwise.
+     */
+    default boolean contains(int x, int y) {
+        return x >= 0 && x < getGridWidth() && y >= 0 && y < getGridHeight();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * File: BucketReport.java
+ * Description: Statistics of the queries of one scenario bucket
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.benchmark;
+
+/**
+ * Results of one bucket of a benchmark run.
+ *
+ * @param bucket The bucket.
+ * @param queries The number of queries.
+ * @param matched The queries whose length is within the tolerance of the optimal length.
+ * @param longer The queries whose path is longer than the tolerance allows.
+ * @param shorter The queries whose path is shorter, which happens where the reference forbids cutting corners.
+ * @param unsolved The queries without a path.
+ * @param meanMicros The mean search time in microseconds.
+ * @param p99Micros The 99th percentile of the search time in microseconds.
+ * @param maxMicros The longest search time in microseconds.
+ * @param meanExpansions The mean number of expanded nodes.
+ * @param maxExpansions The largest number of expanded nodes.
+ * @param maxRelativeError The largest relative difference between a found and the optimal length.
+ */
+public record BucketReport(int bucket, int queries, int matched, int longer, int shorter, int unsolved,
+                           double meanMicros, double p99Micros, double maxMicros,
+                           double meanExpansions, int maxExpansions, double maxRelativeError) {
+
+    /**
+     * Checks whether every query found a path of the optimal length.
+     *
+     * @return True if all queries matched.
+     */
+    public boolean isAllMatched() {
+        return matched == queries;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("bucket %3d: %5d queries, %5d matched, %3d longer, %3d shorter, %3d unsolved, "
+                        + "time mean %.1f p99 %.1f max %.1f us, expansions mean %.0f max %d, max error %.4f%%",
+                bucket, queries, matched, longer, shorter, unsolved, meanMicros, p99Micros, maxMicros,
+                meanExpansions, maxExpansions, 100 * maxRelativeError);
+    }
+}
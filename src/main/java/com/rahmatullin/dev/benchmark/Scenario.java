@@ -0,0 +1,27 @@
+/*
+ * File: Scenario.java
+ * Description: One query of a MovingAI scenario file
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.benchmark;
+
+/**
+ * A benchmark query with its published optimal length.
+ *
+ * @param bucket The bucket of the query; queries of a bucket have similar lengths.
+ * @param map The map file the query runs on.
+ * @param mapWidth The width of the map.
+ * @param mapHeight The height of the map.
+ * @param startX The x-coordinate (column) of the start.
+ * @param startY The y-coordinate (line) of the start.
+ * @param goalX The x-coordinate of the goal.
+ * @param goalY The y-coordinate of the goal.
+ * @param optimalLength The optimal octile length, diagonal moves counting sqrt(2).
+ */
+public record Scenario(int bucket, String map, int mapWidth, int mapHeight,
+                       int startX, int startY, int goalX, int goalY, double optimalLength) {
+}
@@ -0,0 +1,129 @@
+/*
+ * File: ScenarioRunner.java
+ * Description: Runs MovingAI scenario buckets and checks the paths against the published optimal lengths
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.benchmark;
+
+import com.rahmatullin.dev.algorithmRealisation.AStar;
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import com.rahmatullin.dev.algorithmRealisation.WalkableGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs every query of a scenario file on one map with IndexedAStar and reports each bucket.
+ * The searches cost 10 for a straight and 14 for a diagonal move, which makes a diagonal up to about 1%
+ * cheaper than sqrt(2), and they may cut corners, which the MovingAI reference lengths forbid.
+ * A path therefore counts as matched when its octile length is within a relative tolerance of the
+ * optimal length, and paths shortened by cutting corners are counted apart from suboptimal ones.
+ */
+public class ScenarioRunner {
+    // Largest relative excess of an optimal 10/14 path over the sqrt(2) optimum, with some headroom
+    public static final double DEFAULT_TOLERANCE = 0.011;
+
+    private final WalkableGrid grid;
+    private final IndexedAStar search;
+    private final double tolerance;
+
+    /**
+     * Constructor for a runner with a binary heap and the default tolerance.
+     *
+     * @param grid The map the scenarios run on.
+     */
+    public ScenarioRunner(WalkableGrid grid) {
+        this(grid, AStar.OpenSetType.BINARY_HEAP, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * Constructor for a runner.
+     *
+     * @param grid The map the scenarios run on.
+     * @param openSetType The open set of the searches.
+     * @param tolerance The relative difference from the optimal length still counted as matched.
+     */
+    public ScenarioRunner(WalkableGrid grid, AStar.OpenSetType openSetType, double tolerance) {
+        this.grid = grid;
+        this.search = new IndexedAStar(grid, openSetType);
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Runs the scenarios bucket by bucket.
+     *
+     * @param scenarios The scenarios, all on the map of the runner.
+     * @return One report per bucket, in bucket order.
+     * @throws IllegalArgumentException If a start or goal lies outside the map.
+     */
+    public List<BucketReport> run(List<Scenario> scenarios) {
+        Map<Integer, List<Scenario>> buckets = new TreeMap<>();
+        for (Scenario scenario : scenarios) {
+            if (!grid.contains(scenario.startX(), scenario.startY()) || !grid.contains(scenario.goalX(), scenario.goalY())) {
+                throw new IllegalArgumentException("Scenario outside the map: " + scenario);
+            }
+            buckets.computeIfAbsent(scenario.bucket(), bucket -> new ArrayList<>()).add(scenario);
+        }
+
+        List<BucketReport> reports = new ArrayList<>(buckets.size());
+        for (Map.Entry<Integer, List<Scenario>> bucket : buckets.entrySet()) {
+            reports.add(runBucket(bucket.getKey(), bucket.getValue()));
+        }
+        return reports;
+    }
+
+    private BucketReport runBucket(int bucket, List<Scenario> scenarios) {
+        long[] nanos = new long[scenarios.size()];
+        long totalExpansions = 0;
+        int maxExpansions = 0;
+        int matched = 0, longer = 0, shorter = 0, unsolved = 0;
+        double maxRelativeError = 0;
+
+        for (int i = 0; i < scenarios.size(); i++) {
+            Scenario scenario = scenarios.get(i);
+            long begin = System.nanoTime();
+            CompactPath path = search.search(scenario.startX(), scenario.startY(), scenario.goalX(), scenario.goalY());
+            nanos[i] = System.nanoTime() - begin;
+            totalExpansions += search.getExpandedNodes();
+            maxExpansions = Math.max(maxExpansions, search.getExpandedNodes());
+
+            if (path == null) {
+                unsolved++;
+                continue;
+            }
+            double error = (octileLength(path) - scenario.optimalLength()) / Math.max(1, scenario.optimalLength());
+            maxRelativeError = Math.max(maxRelativeError, Math.abs(error));
+            if (error > tolerance) longer++;
+            else if (error < -tolerance) shorter++;
+            else matched++;
+        }
+
+        Arrays.sort(nanos);
+        long total = 0;
+        for (long time : nanos) total += time;
+        int count = nanos.length;
+        return new BucketReport(bucket, count, matched, longer, shorter, unsolved,
+                total / 1e3 / count, nanos[Math.min(count - 1, (int) Math.ceil(count * 0.99) - 1)] / 1e3,
+                nanos[count - 1] / 1e3, (double) totalExpansions / count, maxExpansions, maxRelativeError);
+    }
+
+    /**
+     * Measures a path the way the MovingAI lengths do: 1 per straight move, sqrt(2) per diagonal move.
+     *
+     * @param path The path.
+     * @return The octile length of the path.
+     */
+    public static double octileLength(CompactPath path) {
+        int moves = path.getCellCount() - 1;
+        int diagonals = (path.getCost() - 10 * moves) / 4; // a diagonal costs 14 instead of 10
+        return (moves - diagonals) + diagonals * Math.sqrt(2);
+    }
+}
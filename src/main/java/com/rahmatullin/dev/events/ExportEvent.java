@@ -0,0 +1,58 @@
+/*
+ * File: ExportEvent.java
+ * Description: Flight Recorder event for writing an export file
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.File;
+
+/**
+ * Recorded around writing a PPM image or a CSV table.
+ */
+@Name("com.rahmatullin.dev.Export")
+@Label("Export")
+@Category({"Pathfinding", "Export"})
+@Description("Writing of a PPM image or a CSV table")
+@StackTrace(false)
+public class ExportEvent extends Event {
+    @Label("Format")
+    String format;
+    @Label("File")
+    String fileName;
+    @Label("Rows")
+    int rows;
+    @Label("Columns")
+    int columns;
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Sets what was written. Reads the size of the file, so it is only called when the event is committed.
+     *
+     * @param format The file format.
+     * @param fileName The path of the written file.
+     * @param rows The number of rows written.
+     * @param columns The number of columns written.
+     */
+    public void setFile(String format, String fileName, int rows, int columns) {
+        this.format = format;
+        this.fileName = fileName;
+        this.rows = rows;
+        this.columns = columns;
+        this.bytes = new File(fileName).length();
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * File: GridBuildEvent.java
+ * Description: Flight Recorder event for building a grid
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded around the allocation of the cells of a grid.
+ */
+@Name("com.rahmatullin.dev.GridBuild")
+@Label("Grid Build")
+@Category({"Pathfinding", "Grid"})
+@Description("Allocation of the cells of a grid")
+@StackTrace(false)
+public class GridBuildEvent extends Event {
+    @Label("Grid Width")
+    int gridWidth;
+    @Label("Grid Height")
+    int gridHeight;
+
+    public void setSize(int gridWidth, int gridHeight) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+    }
+}
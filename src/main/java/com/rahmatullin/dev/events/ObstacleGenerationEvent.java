@@ -0,0 +1,40 @@
+/*
+ * File: ObstacleGenerationEvent.java
+ * Description: Flight Recorder event for placing random obstacles
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded around the generation of random obstacles in a grid.
+ */
+@Name("com.rahmatullin.dev.ObstacleGeneration")
+@Label("Obstacle Generation")
+@Category({"Pathfinding", "Grid"})
+@Description("Generation and placement of random obstacles")
+@StackTrace(false)
+public class ObstacleGenerationEvent extends Event {
+    @Label("Grid Width")
+    int gridWidth;
+    @Label("Grid Height")
+    int gridHeight;
+    @Label("Obstacles")
+    int obstacles;
+
+    public void setObstacles(int gridWidth, int gridHeight, int obstacles) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.obstacles = obstacles;
+    }
+}
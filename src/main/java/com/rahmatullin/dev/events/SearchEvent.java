@@ -0,0 +1,89 @@
+/*
+ * File: SearchEvent.java
+ * Description: Flight Recorder event for one path search
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded around a search, so latency spikes can be matched with the query that caused them.
+ * Searches call begin() before the work and fill in the fields only if shouldCommit() is true,
+ * so a disabled event costs no more than the check.
+ */
+@Name("com.rahmatullin.dev.Search")
+@Label("Path Search")
+@Category({"Pathfinding", "Search"})
+@Description("A single path query with its grid size, expanded nodes and outcome")
+@StackTrace(false)
+public class SearchEvent extends Event {
+    @Label("Engine")
+    String engine;
+    @Label("Grid Width")
+    int gridWidth;
+    @Label("Grid Height")
+    int gridHeight;
+    @Label("Start X")
+    int startX;
+    @Label("Start Y")
+    int startY;
+    @Label("End X")
+    int endX;
+    @Label("End Y")
+    int endY;
+    @Label("Expanded Nodes")
+    int expandedNodes;
+    @Label("Path Length")
+    @Description("Number of cells in the path or partial path, 0 if there is none")
+    int pathLength;
+    @Label("Cost")
+    int cost;
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Sets the query of the search.
+     *
+     * @param engine The class running the search.
+     * @param gridWidth The width of the grid.
+     * @param gridHeight The height of the grid.
+     * @param startX The x-coordinate of the start.
+     * @param startY The y-coordinate of the start.
+     * @param endX The x-coordinate of the end.
+     * @param endY The y-coordinate of the end.
+     */
+    public void setQuery(String engine, int gridWidth, int gridHeight, int startX, int startY, int endX, int endY) {
+        this.engine = engine;
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.startX = startX;
+        this.startY = startY;
+        this.endX = endX;
+        this.endY = endY;
+    }
+
+    /**
+     * Sets what the search found.
+     *
+     * @param outcome The status of the search.
+     * @param expandedNodes The number of expanded nodes.
+     * @param pathLength The number of cells in the returned path.
+     * @param cost The cost of the returned path, -1 if there is none.
+     */
+    public void setOutcome(String outcome, int expandedNodes, int pathLength, int cost) {
+        this.outcome = outcome;
+        this.expandedNodes = expandedNodes;
+        this.pathLength = pathLength;
+        this.cost = cost;
+    }
+}
@@ -11,6 +11,8 @@
 
 package com.rahmatullin.dev.io;
 
+import com.rahmatullin.dev.events.ExportEvent;
+
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -27,6 +29,8 @@ public class CSVExporter {
     public static <T> void writeFile(
             T[][] tableData, String fileName,
             String delimiter, String[] header) throws IOException {
+        ExportEvent event = new ExportEvent();
+        event.begin();
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
             // Write the header if provided
             if (header != null) {
@@ -40,6 +44,11 @@ public class CSVExporter {
                 writer.newLine();
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setFile("CSV", fileName, tableData.length, tableData.length == 0 ? 0 : tableData[0].length);
+            event.commit();
+        }
     }
 
     /**
@@ -0,0 +1,148 @@
+/*
+ * File: ConsoleRenderer.java
+ * Description: Streams a window of the grid to the console, optionally downsampled.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.io;
+
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the grid in the layout of Grid2D.toString (one line per x, one symbol per y),
+ * but line by line as UTF-8 bytes into a buffered stream instead of one string for the whole grid.
+ * Only a viewport around a given cell is drawn, and each symbol may stand for a square block of cells.
+ */
+public class ConsoleRenderer {
+    // UTF-8 bytes of each status symbol followed by a space, by ordinal
+    private static final byte[][] SYMBOLS = new byte[Point.Status.values().length][];
+    // Which status a downsampled block shows when it holds several, by ordinal: the highest wins
+    private static final int[] PRIORITY = new int[SYMBOLS.length];
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static int maxSymbolLength;
+
+    static {
+        for (Point.Status status : Point.Status.values()) {
+            SYMBOLS[status.ordinal()] = (status.getTitle() + " ").getBytes(StandardCharsets.UTF_8);
+            maxSymbolLength = Math.max(maxSymbolLength, SYMBOLS[status.ordinal()].length);
+        }
+        PRIORITY[Point.Status.CLOSED.ordinal()] = 0;
+        PRIORITY[Point.Status.BLOCK.ordinal()] = 1;
+        PRIORITY[Point.Status.OPENED.ordinal()] = 2;
+        PRIORITY[Point.Status.PATH.ordinal()] = 3;
+    }
+
+    private final OutputStream out;
+    // Size of the viewport in symbols, 0 for the whole grid
+    private final int viewportWidth;
+    private final int viewportHeight;
+    // Side of the square block of cells drawn as one symbol
+    private final int scale;
+    // Bytes of the line being drawn
+    private byte[] line = new byte[0];
+
+    /**
+     * Constructor for a renderer that draws the whole grid, one symbol per cell.
+     *
+     * @param out The stream to write to.
+     */
+    public ConsoleRenderer(OutputStream out) {
+        this(out, 0, 0, 1);
+    }
+
+    /**
+     * Constructor for a renderer that draws a window of the grid.
+     *
+     * @param out The stream to write to.
+     * @param viewportWidth The number of lines (x-direction) to draw, 0 for the whole grid.
+     * @param viewportHeight The number of symbols per line (y-direction) to draw, 0 for the whole grid.
+     * @param scale The side of the square block of cells shown by one symbol.
+     * @throws IllegalArgumentException If the viewport is negative or the scale is not positive.
+     */
+    public ConsoleRenderer(OutputStream out, int viewportWidth, int viewportHeight, int scale) {
+        if (viewportWidth < 0 || viewportHeight < 0 || scale < 1) {
+            throw new IllegalArgumentException("Invalid viewport " + viewportWidth + "x" + viewportHeight + " at scale " + scale);
+        }
+        this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out, 1 << 16);
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+        this.scale = scale;
+    }
+
+    /**
+     * Draws the viewport centred on the middle of the grid.
+     *
+     * @param grid The grid to draw.
+     * @throws IOException If the stream fails.
+     */
+    public void render(Grid2D grid) throws IOException {
+        render(grid, grid.getGridWidth() / 2, grid.getGridHeight() / 2);
+    }
+
+    /**
+     * Draws the viewport centred on a cell, e.g. the start, the goal or the node being expanded.
+     * The window is moved inside the grid where the centre is near an edge. A block of cells drawn as one
+     * symbol shows the path if it holds a path cell, else an open cell, else a wall.
+     *
+     * @param grid The grid to draw.
+     * @param centerX The x-coordinate of the cell to centre on.
+     * @param centerY The y-coordinate of the cell to centre on.
+     * @throws IOException If the stream fails.
+     */
+    public void render(Grid2D grid, int centerX, int centerY) throws IOException {
+        Point[][] cells = grid.getGrid();
+        int gridWidth = grid.getGridWidth();
+        int gridHeight = grid.getGridHeight();
+        int spanX = viewportWidth == 0 ? gridWidth : (int) Math.min(gridWidth, (long) viewportWidth * scale);
+        int spanY = viewportHeight == 0 ? gridHeight : (int) Math.min(gridHeight, (long) viewportHeight * scale);
+        int x0 = Math.max(0, Math.min(centerX - spanX / 2, gridWidth - spanX));
+        int y0 = Math.max(0, Math.min(centerY - spanY / 2, gridHeight - spanY));
+        int x1 = x0 + spanX;
+        int y1 = y0 + spanY;
+
+        int symbols = (spanY + scale - 1) / scale;
+        int capacity = symbols * maxSymbolLength + LINE_SEPARATOR.length;
+        if (line.length < capacity) {
+            line = new byte[capacity];
+        }
+        for (int x = x0; x < x1; x += scale) {
+            int length = 0;
+            for (int y = y0; y < y1; y += scale) {
+                byte[] symbol = SYMBOLS[blockStatus(cells, x, Math.min(x + scale, x1), y, Math.min(y + scale, y1))];
+                System.arraycopy(symbol, 0, line, length, symbol.length);
+                length += symbol.length;
+            }
+            System.arraycopy(LINE_SEPARATOR, 0, line, length, LINE_SEPARATOR.length);
+            out.write(line, 0, length + LINE_SEPARATOR.length);
+        }
+        out.flush();
+    }
+
+    /**
+     * Picks the status shown for a block of cells.
+     *
+     * @return The ordinal of the status with the highest priority in the block.
+     */
+    private static int blockStatus(Point[][] cells, int x0, int x1, int y0, int y1) {
+        int best = cells[x0][y0].status.ordinal();
+        for (int x = x0; x < x1; x++) {
+            for (int y = y0; y < y1; y++) {
+                int status = cells[x][y].status.ordinal();
+                if (PRIORITY[status] > PRIORITY[best]) {
+                    best = status;
+                    if (best == Point.Status.PATH.ordinal()) return best; // nothing outranks the path
+                }
+            }
+        }
+        return best;
+    }
+}
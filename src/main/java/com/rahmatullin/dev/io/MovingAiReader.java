@@ -0,0 +1,157 @@
+/*
+ * File: MovingAiReader.java
+ * Description: Reads grid maps (.map) and scenarios (.scen) of the MovingAI benchmark sets.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.io;
+
+import com.rahmatullin.dev.algorithmRealisation.BitGrid;
+import com.rahmatullin.dev.benchmark.Scenario;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parser of the MovingAI formats. A map is streamed byte by byte straight into the wall bits of a BitGrid,
+ * without a string per line. MovingAI x is the column and y the line of the map;
+ * the BitGrid keeps them as its x and y, so the grid is width x height and scenario coordinates apply unchanged.
+ */
+public class MovingAiReader {
+
+    /**
+     * Reads a .map file.
+     *
+     * @param file The map file.
+     * @return The walls of the map; '.', 'G' and 'S' are free, every other terrain is a wall.
+     * @throws IOException If the file cannot be read or is not a map.
+     */
+    public static BitGrid readMap(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return readMap(in);
+        }
+    }
+
+    /**
+     * Reads a map from a stream.
+     *
+     * @param stream The stream, positioned at the header.
+     * @return The walls of the map.
+     * @throws IOException If the stream cannot be read or is not a map.
+     */
+    public static BitGrid readMap(InputStream stream) throws IOException {
+        InputStream in = stream instanceof BufferedInputStream ? stream : new BufferedInputStream(stream, 1 << 16);
+        int width = -1;
+        int height = -1;
+        String line;
+        while (!(line = readHeaderLine(in)).equals("map")) {
+            String[] parts = line.split("\\s+");
+            if (parts.length == 2 && parts[0].equals("height")) height = parseSize(parts[1]);
+            else if (parts.length == 2 && parts[0].equals("width")) width = parseSize(parts[1]);
+            else if (!(parts.length == 2 && parts[0].equals("type")) && !line.isEmpty()) {
+                throw new IOException("Unexpected map header line: " + line);
+            }
+        }
+        if (width < 1 || height < 1) {
+            throw new IOException("Map header has no width or height");
+        }
+
+        BitGrid grid = new BitGrid(width, height);
+        for (int y = 0; y < height; y++) {
+            int x = 0;
+            while (x < width) {
+                int b = in.read();
+                if (b == -1) throw new IOException("Map ends in line " + y + " of " + height);
+                if (b == '\n' || b == '\r') {
+                    if (x == 0) continue; // line break of the previous line
+                    throw new IOException("Map line " + y + " has " + x + " cells instead of " + width);
+                }
+                if (b != '.' && b != 'G' && b != 'S') {
+                    grid.setBlocked(x, y, true);
+                }
+                x++;
+            }
+            int b = in.read();
+            if (b != '\n' && b != '\r' && b != -1) {
+                throw new IOException("Map line " + y + " has more than " + width + " cells");
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Reads a .scen file: an optional "version" line, then one scenario per line with the bucket, map,
+     * map width and height, start, goal and optimal length separated by tabs.
+     *
+     * @param file The scenario file.
+     * @return The scenarios in file order.
+     * @throws IOException If the file cannot be read or a line is malformed.
+     */
+    public static List<Scenario> readScenarios(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return readScenarios(in);
+        }
+    }
+
+    /**
+     * Reads scenarios from a stream.
+     *
+     * @param in The stream.
+     * @return The scenarios in stream order.
+     * @throws IOException If the stream cannot be read or a line is malformed.
+     */
+    public static List<Scenario> readScenarios(InputStream in) throws IOException {
+        List<Scenario> scenarios = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII), 1 << 16);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("version")) continue;
+            String[] parts = line.trim().split(line.indexOf('\t') >= 0 ? "\t" : "\\s+");
+            if (parts.length != 9) {
+                throw new IOException("Scenario line " + lineNumber + " has " + parts.length + " fields instead of 9");
+            }
+            try {
+                scenarios.add(new Scenario(Integer.parseInt(parts[0]), parts[1],
+                        Integer.parseInt(parts[2]), Integer.parseInt(parts[3]),
+                        Integer.parseInt(parts[4]), Integer.parseInt(parts[5]),
+                        Integer.parseInt(parts[6]), Integer.parseInt(parts[7]),
+                        Double.parseDouble(parts[8])));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid number in scenario line " + lineNumber, e);
+            }
+        }
+        return scenarios;
+    }
+
+    private static String readHeaderLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b == -1) throw new IOException("Map header ends before the \"map\" line");
+            if (b != '\r') line.write(b);
+        }
+        return line.toString(StandardCharsets.US_ASCII).trim();
+    }
+
+    private static int parseSize(String value) throws IOException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid map size: " + value, e);
+        }
+    }
+}
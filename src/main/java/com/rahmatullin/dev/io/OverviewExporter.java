@@ -0,0 +1,276 @@
+/*
+ * File: OverviewExporter.java
+ * Description: Downsampled overview images and tiled mipmap pyramids of large grids.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.io;
+
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.algorithmRealisation.WalkableGrid;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Pyramid of downsampled images of a grid, for previewing maps far too large for PPMExporter.
+ * Level 0 draws each square block of cells as one pixel; every further level halves both sides, down to 1x1.
+ * A pixel holds the share of walls in its block from 0 to WALL, or PATH if the block holds a path cell,
+ * so a path stays visible at every level. The levels are built in parallel across stripes of rows,
+ * and each level can be written as one binary PGM image or as tiles.
+ * Rows are x and columns are y, like in PPMExporter.
+ */
+public class OverviewExporter {
+    // Pixel value of a block holding a path cell
+    public static final int PATH = 255;
+    // Pixel value of a block made only of walls
+    public static final int WALL = 254;
+    // Rows built by one task
+    private static final int STRIPE = 16;
+
+    private final int blockSize;
+    private final List<byte[]> levels = new ArrayList<>();
+    private final List<int[]> sizes = new ArrayList<>(); // rows and columns of every level
+
+    private OverviewExporter(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Builds the pyramid of a grid, marking the cells whose status is PATH.
+     *
+     * @param grid The grid.
+     * @param blockSize The side of the square block of cells drawn as one pixel of level 0.
+     * @return The pyramid.
+     */
+    public static OverviewExporter build(Grid2D grid, int blockSize) {
+        Point[][] cells = grid.getGrid();
+        OverviewExporter exporter = new OverviewExporter(blockSize);
+        exporter.buildBase(grid, (x, y) -> cells[x][y].status == Point.Status.PATH);
+        exporter.buildLevels();
+        return exporter;
+    }
+
+    /**
+     * Builds the pyramid of any grid, marking the cells of a path.
+     *
+     * @param grid The grid.
+     * @param blockSize The side of the square block of cells drawn as one pixel of level 0.
+     * @param path The path to mark, or null.
+     * @return The pyramid.
+     */
+    public static OverviewExporter build(WalkableGrid grid, int blockSize, CompactPath path) {
+        OverviewExporter exporter = new OverviewExporter(blockSize);
+        exporter.buildBase(grid, null);
+        if (path != null) {
+            byte[] base = exporter.levels.get(0);
+            int columns = exporter.sizes.get(0)[1];
+            CompactPath.Cursor cursor = path.cursor();
+            while (cursor.next()) {
+                base[cursor.getX() / blockSize * columns + cursor.getY() / blockSize] = (byte) PATH;
+            }
+        }
+        exporter.buildLevels();
+        return exporter;
+    }
+
+    /**
+     * Tells whether a cell is on the path.
+     */
+    private interface PathCells {
+        boolean contains(int x, int y);
+    }
+
+    /**
+     * Builds level 0 from the cells, one stripe of rows per task.
+     */
+    private void buildBase(WalkableGrid grid, PathCells pathCells) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        int gridWidth = grid.getGridWidth();
+        int gridHeight = grid.getGridHeight();
+        int rows = (gridWidth + blockSize - 1) / blockSize;
+        int columns = (gridHeight + blockSize - 1) / blockSize;
+        if ((long) rows * columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Block size " + blockSize + " is too small for the grid");
+        }
+        byte[] base = new byte[rows * columns];
+
+        IntStream.range(0, (rows + STRIPE - 1) / STRIPE).parallel().forEach(stripe -> {
+            for (int row = stripe * STRIPE; row < Math.min(rows, (stripe + 1) * STRIPE); row++) {
+                int x0 = row * blockSize;
+                int x1 = Math.min(gridWidth, x0 + blockSize);
+                for (int column = 0; column < columns; column++) {
+                    int y0 = column * blockSize;
+                    int y1 = Math.min(gridHeight, y0 + blockSize);
+                    base[row * columns + column] = (byte) blockValue(grid, pathCells, x0, x1, y0, y1);
+                }
+            }
+        });
+        levels.add(base);
+        sizes.add(new int[]{rows, columns});
+    }
+
+    private static int blockValue(WalkableGrid grid, PathCells pathCells, int x0, int x1, int y0, int y1) {
+        int walls = 0;
+        for (int x = x0; x < x1; x++) {
+            for (int y = y0; y < y1; y++) {
+                if (pathCells != null && pathCells.contains(x, y)) return PATH;
+                if (grid.isBlocked(x, y)) walls++;
+            }
+        }
+        int cells = (x1 - x0) * (y1 - y0);
+        return (walls * WALL + cells / 2) / cells;
+    }
+
+    /**
+     * Builds every level above level 0 by averaging blocks of 2x2 pixels, keeping path pixels.
+     */
+    private void buildLevels() {
+        while (sizes.get(sizes.size() - 1)[0] > 1 || sizes.get(sizes.size() - 1)[1] > 1) {
+            byte[] lower = levels.get(levels.size() - 1);
+            int lowerRows = sizes.get(sizes.size() - 1)[0];
+            int lowerColumns = sizes.get(sizes.size() - 1)[1];
+            int rows = (lowerRows + 1) / 2;
+            int columns = (lowerColumns + 1) / 2;
+            byte[] level = new byte[rows * columns];
+
+            IntStream.range(0, (rows + STRIPE - 1) / STRIPE).parallel().forEach(stripe -> {
+                for (int row = stripe * STRIPE; row < Math.min(rows, (stripe + 1) * STRIPE); row++) {
+                    for (int column = 0; column < columns; column++) {
+                        int sum = 0;
+                        int count = 0;
+                        boolean path = false;
+                        for (int r = 2 * row; r < Math.min(lowerRows, 2 * row + 2); r++) {
+                            for (int c = 2 * column; c < Math.min(lowerColumns, 2 * column + 2); c++) {
+                                int value = lower[r * lowerColumns + c] & 0xFF;
+                                path |= value == PATH;
+                                sum += value;
+                                count++;
+                            }
+                        }
+                        level[row * columns + column] = (byte) (path ? PATH : (sum + count / 2) / count);
+                    }
+                }
+            });
+            levels.add(level);
+            sizes.add(new int[]{rows, columns});
+        }
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public int getLevelCount() {
+        return levels.size();
+    }
+
+    /**
+     * Retrieves the number of pixel rows (x-direction) of a level.
+     */
+    public int getRows(int level) {
+        return sizes.get(level)[0];
+    }
+
+    /**
+     * Retrieves the number of pixel columns (y-direction) of a level.
+     */
+    public int getColumns(int level) {
+        return sizes.get(level)[1];
+    }
+
+    /**
+     * Retrieves a pixel of a level.
+     *
+     * @return The share of walls from 0 to WALL, or PATH.
+     */
+    public int getPixel(int level, int row, int column) {
+        return levels.get(level)[row * getColumns(level) + column] & 0xFF;
+    }
+
+    /**
+     * Writes a whole level as a binary PGM (P5) image.
+     *
+     * @param level The level, 0 for the most detailed one.
+     * @param file The image file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeLevel(int level, Path file) throws IOException {
+        writeImage(level, 0, getRows(level), 0, getColumns(level), file);
+    }
+
+    /**
+     * Writes every level cut into square tiles named tile_L_R_C.pgm for level L, tile row R and tile column C,
+     * in parallel.
+     *
+     * @param directory The directory to write the tiles to.
+     * @param tileSize The side of a tile in pixels.
+     * @return The number of tiles written.
+     * @throws IOException If a tile cannot be written.
+     */
+    public int writeTiles(Path directory, int tileSize) throws IOException {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("Tile size must be positive: " + tileSize);
+        }
+        Files.createDirectories(directory);
+        List<int[]> tiles = new ArrayList<>(); // level, tile row and tile column
+        for (int level = 0; level < getLevelCount(); level++) {
+            for (int row = 0; row * tileSize < getRows(level); row++) {
+                for (int column = 0; column * tileSize < getColumns(level); column++) {
+                    tiles.add(new int[]{level, row, column});
+                }
+            }
+        }
+        try {
+            tiles.parallelStream().forEach(tile -> {
+                int level = tile[0];
+                int row0 = tile[1] * tileSize;
+                int column0 = tile[2] * tileSize;
+                Path file = directory.resolve("tile_" + level + "_" + tile[1] + "_" + tile[2] + ".pgm");
+                try {
+                    writeImage(level, row0, Math.min(getRows(level), row0 + tileSize),
+                            column0, Math.min(getColumns(level), column0 + tileSize), file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return tiles.size();
+    }
+
+    /**
+     * Writes a window of a level, drawing free blocks black, walls up to the gray of PPMExporter and the path white.
+     */
+    private void writeImage(int level, int row0, int row1, int column0, int column1, Path file) throws IOException {
+        byte[] pixels = levels.get(level);
+        int columns = getColumns(level);
+        byte[] line = new byte[column1 - column0];
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            out.write(("P5\n" + line.length + " " + (row1 - row0) + "\n255\n").getBytes(StandardCharsets.US_ASCII));
+            for (int row = row0; row < row1; row++) {
+                for (int column = column0; column < column1; column++) {
+                    int value = pixels[row * columns + column] & 0xFF;
+                    line[column - column0] = (byte) (value == PATH ? 255 : value * 170 / WALL);
+                }
+                out.write(line);
+            }
+        }
+    }
+}
@@ -10,6 +10,7 @@
 package com.rahmatullin.dev.io;
 
 import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.events.ExportEvent;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
@@ -37,6 +38,8 @@ public class PPMExporter {
         int upscaledRows = rows * upScaleFactor;
         int upscaledCols = cols * upScaleFactor;
 
+        ExportEvent event = new ExportEvent();
+        event.begin();
         // create a FileWriter to write to the PPM file
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
             int maxColorValue = 255;
@@ -65,5 +68,10 @@ public class PPMExporter {
                 writer.write("\n"); // add a new line after each row
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setFile("PPM", fileName, upscaledRows, upscaledCols);
+            event.commit();
+        }
     }
 }
@@ -0,0 +1,198 @@
+/*
+ * File: ReplayRenderer.java
+ * Description: Renders the frames of a recorded search as PPM images, in parallel.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.io;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Replays a log written by SearchRecorder. Loading turns the log into the number of the event at which
+ * every cell was first opened, expanded and put on the path, so any frame can be drawn on its own
+ * without replaying the events before it, and the frames are drawn in parallel.
+ */
+public class ReplayRenderer {
+    // Colors of the cells, as in the console symbols
+    private static final byte[] FREE = {(byte) 121, (byte) 85, (byte) 72};
+    private static final byte[] WALL = {(byte) 221, (byte) 46, (byte) 68};
+    private static final byte[] OPENED = {(byte) 244, (byte) 144, (byte) 12};
+    private static final byte[] EXPANDED = {(byte) 168, (byte) 96, (byte) 8};
+    private static final byte[] PATH = {(byte) 120, (byte) 177, (byte) 89};
+    // Marks a cell the event never happened to
+    private static final int NEVER = Integer.MAX_VALUE;
+
+    private final int gridWidth;
+    private final int gridHeight;
+    private final long[] walls;
+    private final int eventCount;
+    // Number of the first event of each kind for each cell, NEVER if there was none
+    private final int[] openedAt;
+    private final int[] expandedAt;
+    private final int[] pathAt;
+
+    private ReplayRenderer(int gridWidth, int gridHeight, long[] walls, int eventCount,
+                           int[] openedAt, int[] expandedAt, int[] pathAt) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.walls = walls;
+        this.eventCount = eventCount;
+        this.openedAt = openedAt;
+        this.expandedAt = expandedAt;
+        this.pathAt = pathAt;
+    }
+
+    /**
+     * Reads a replay log.
+     *
+     * @param file The log written by SearchRecorder.
+     * @return The renderer for the log.
+     * @throws IOException If the file cannot be read or is not a replay log.
+     */
+    public static ReplayRenderer load(Path file) throws IOException {
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (log.remaining() < 3 * Integer.BYTES || log.getInt() != SearchRecorder.MAGIC) {
+            throw new IOException("Not a replay log: " + file);
+        }
+        int gridWidth = log.getInt();
+        int gridHeight = log.getInt();
+        int cellCount = gridWidth * gridHeight;
+        long[] walls = new long[(cellCount + 63) / 64];
+        if (log.remaining() < walls.length * Long.BYTES) {
+            throw new IOException("Truncated replay log: " + file);
+        }
+        for (int i = 0; i < walls.length; i++) {
+            walls[i] = log.getLong();
+        }
+
+        int[] openedAt = new int[cellCount];
+        int[] expandedAt = new int[cellCount];
+        int[] pathAt = new int[cellCount];
+        Arrays.fill(openedAt, NEVER);
+        Arrays.fill(expandedAt, NEVER);
+        Arrays.fill(pathAt, NEVER);
+        int eventCount = log.remaining() / Integer.BYTES;
+        for (int i = 0; i < eventCount; i++) {
+            int event = log.getInt();
+            int cell = event >>> 2;
+            if (cell >= cellCount) throw new IOException("Event outside the grid in " + file);
+            int[] times = switch (event & 3) {
+                case SearchRecorder.EXPAND -> expandedAt;
+                case SearchRecorder.OPEN -> openedAt;
+                case SearchRecorder.PATH -> pathAt;
+                default -> throw new IOException("Unknown event type in " + file);
+            };
+            if (times[cell] == NEVER) times[cell] = i;
+        }
+        return new ReplayRenderer(gridWidth, gridHeight, walls, eventCount, openedAt, expandedAt, pathAt);
+    }
+
+    /**
+     * Writes the grid as it was after the given number of events as a binary PPM (P6) image,
+     * one row of pixels per x and one column per y like PPMExporter.
+     *
+     * @param file The image file to write.
+     * @param events The number of events replayed, at most getEventCount().
+     * @param upScaleFactor The side of the square of pixels drawn for one cell.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeFrame(Path file, int events, int upScaleFactor) throws IOException {
+        int columns = gridHeight * upScaleFactor;
+        byte[] row = new byte[columns * 3];
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            out.write(("P6\n" + columns + " " + gridWidth * upScaleFactor + "\n255\n").getBytes(StandardCharsets.US_ASCII));
+            for (int x = 0; x < gridWidth; x++) {
+                for (int y = 0; y < gridHeight; y++) {
+                    byte[] color = color(x * gridHeight + y, events);
+                    for (int i = 0; i < upScaleFactor; i++) {
+                        System.arraycopy(color, 0, row, (y * upScaleFactor + i) * 3, 3);
+                    }
+                }
+                for (int i = 0; i < upScaleFactor; i++) {
+                    out.write(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes one frame every few events, and a last frame with all of them, on several threads.
+     * The frames are named frame000000.ppm, frame000001.ppm and so on.
+     *
+     * @param directory The directory to write the frames to.
+     * @param eventsPerFrame The number of events between two frames.
+     * @param upScaleFactor The side of the square of pixels drawn for one cell.
+     * @param threads The number of threads drawing frames.
+     * @return The number of frames written.
+     * @throws IOException If a frame cannot be written.
+     * @throws InterruptedException If the thread is interrupted while waiting for the frames.
+     */
+    public int renderFrames(Path directory, int eventsPerFrame, int upScaleFactor, int threads)
+            throws IOException, InterruptedException {
+        if (eventsPerFrame < 1 || upScaleFactor < 1 || threads < 1) {
+            throw new IllegalArgumentException("Frame step, scale and thread count must be positive");
+        }
+        Files.createDirectories(directory);
+        int frames = Math.max(1, (eventCount + eventsPerFrame - 1) / eventsPerFrame);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(frames);
+            for (int frame = 0; frame < frames; frame++) {
+                Path file = directory.resolve(String.format("frame%06d.ppm", frame));
+                int events = (int) Math.min(eventCount, (long) (frame + 1) * eventsPerFrame);
+                futures.add(pool.submit(() -> {
+                    writeFrame(file, events, upScaleFactor);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IllegalStateException("Frame rendering failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return frames;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    /**
+     * Picks the color of a cell after the given number of events.
+     */
+    private byte[] color(int cell, int events) {
+        if (pathAt[cell] < events) return PATH;
+        if (expandedAt[cell] < events) return EXPANDED;
+        if (openedAt[cell] < events) return OPENED;
+        return (walls[cell >>> 6] >>> (cell & 63) & 1) != 0 ? WALL : FREE;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * File: SearchRecorder.java
+ * Description: Appends the steps of a search to a compact binary replay log.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.io;
+
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.algorithmRealisation.WalkableGrid;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes a replay log of one search: a header with the grid size and its walls, then one int per event
+ * holding the cell index (x * gridHeight + y) shifted left by two and the event type in the low bits.
+ * Events are collected in a buffer and written in large blocks, so recording costs a few stores per event;
+ * drawing the frames is left to ReplayRenderer.
+ */
+public class SearchRecorder implements AutoCloseable {
+    // "ASRL" in ASCII
+    public static final int MAGIC = 0x4153524C;
+    // Event types, kept in the two low bits of an event
+    public static final int EXPAND = 0;
+    public static final int OPEN = 1;
+    public static final int PATH = 2;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    private final int gridHeight;
+    private long eventCount;
+
+    /**
+     * Creates the log file and writes the header.
+     *
+     * @param file The file to write.
+     * @param grid The grid the search runs on; its walls are stored in the header.
+     * @throws IOException If the file cannot be written.
+     * @throws IllegalArgumentException If the grid has too many cells to pack an event into an int.
+     */
+    public SearchRecorder(Path file, WalkableGrid grid) throws IOException {
+        int gridWidth = grid.getGridWidth();
+        this.gridHeight = grid.getGridHeight();
+        if ((long) gridWidth * gridHeight > 1 << 30) {
+            throw new IllegalArgumentException("Grid " + gridWidth + "x" + gridHeight + " is too large to record");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC).putInt(gridWidth).putInt(gridHeight);
+        long word = 0;
+        int bit = 0;
+        for (int x = 0; x < gridWidth; x++) {
+            for (int y = 0; y < gridHeight; y++) {
+                if (grid.isBlocked(x, y)) word |= 1L << bit;
+                if (++bit == 64) {
+                    putLong(word);
+                    word = 0;
+                    bit = 0;
+                }
+            }
+        }
+        if (bit > 0) putLong(word);
+    }
+
+    /**
+     * Records that a node was taken from the open set and expanded.
+     */
+    public void expand(int x, int y) {
+        putInt((x * gridHeight + y) << 2 | EXPAND);
+    }
+
+    /**
+     * Records that a node was added to the open set.
+     */
+    public void open(int x, int y) {
+        putInt((x * gridHeight + y) << 2 | OPEN);
+    }
+
+    /**
+     * Records the nodes of the found path.
+     *
+     * @param path The path.
+     */
+    public void path(List<Point> path) {
+        for (Point point : path) {
+            putInt((point.x * gridHeight + point.y) << 2 | PATH);
+        }
+    }
+
+    /**
+     * Retrieves the number of events recorded so far.
+     *
+     * @return The number of events.
+     */
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Writes the buffered events and closes the file.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void putInt(int event) {
+        if (buffer.remaining() < Integer.BYTES) drain();
+        buffer.putInt(event);
+        eventCount++;
+    }
+
+    private void putLong(long word) {
+        if (buffer.remaining() < Long.BYTES) drain();
+        buffer.putLong(word);
+    }
+
+    /**
+     * Writes the buffer to the file. Events are recorded from inside a search, so failures are unchecked.
+     */
+    private void drain() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
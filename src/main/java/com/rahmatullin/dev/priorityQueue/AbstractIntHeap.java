@@ -0,0 +1,143 @@
+/*
+ * File: AbstractIntHeap.java
+ * Description: An abstract d-ary min-heap of int node ids with int keys.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+package com.rahmatullin.dev.priorityQueue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Abstract class representing an implicit d-ary min-heap.
+ * Keys and node ids are stored in two parallel int arrays, indexed from 0 to size - 1,
+ * so sifting compares and moves primitives only.
+ * Subclasses define the number of children of every node.
+ */
+public abstract class AbstractIntHeap implements IntPriorityQueue {
+    protected int[] keys;  // keys of the elements in heap order
+    protected int[] ids;   // node ids, parallel to keys
+    protected int size;    // number of elements currently in the heap
+
+    /**
+     * Number of children of every node of the heap
+     * @return the arity of the heap
+     */
+    protected abstract int getArity();
+
+    /**
+     * Initializes an empty heap with the specified initial capacity.
+     * @param capacity the initial capacity of this heap
+     */
+    public AbstractIntHeap(int capacity) {
+        keys = new int[Math.max(1, capacity)];
+        ids = new int[keys.length];
+        size = 0;
+    }
+
+    @Override
+    public void add(int id, int key) {
+        // double size of arrays if necessary
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * size);
+            ids = Arrays.copyOf(ids, 2 * size);
+        }
+        popup(size++, id, key);
+    }
+
+    @Override
+    public int extract() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ underflow");
+        }
+        int minimal = ids[0];
+        size--;
+        if (size > 0) {
+            sink(0, ids[size], keys[size]);
+        }
+        return minimal;
+    }
+
+    @Override
+    public int getMinKey() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ underflow");
+        }
+        return keys[0];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Moves a hole upwards until the element fits into it
+     * to restore the heap order property.
+     * @param i   the index of the hole
+     * @param id  the node id of the element
+     * @param key the key of the element
+     */
+    protected void popup(int i, int id, int key) {
+        final int arity = getArity();
+        while (i > 0) {
+            int parent = (i - 1) / arity;
+            if (keys[parent] <= key) {
+                break;
+            }
+            // move the parent down into the hole
+            keys[i] = keys[parent];
+            ids[i] = ids[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        ids[i] = id;
+    }
+
+    /**
+     * Moves a hole downwards until the element fits into it
+     * to restore the heap order property.
+     * @param i   the index of the hole
+     * @param id  the node id of the element
+     * @param key the key of the element
+     */
+    protected void sink(int i, int id, int key) {
+        final int arity = getArity();
+        while (true) {
+            int first = i * arity + 1; // index of the first child
+            if (first >= size) {
+                break;
+            }
+            // choose the smallest child
+            int smallest = first;
+            int last = Math.min(first + arity, size);
+            for (int child = first + 1; child < last; child++) {
+                if (keys[child] < keys[smallest]) {
+                    smallest = child;
+                }
+            }
+            // breaks if the heap order is satisfied
+            if (keys[smallest] >= key) {
+                break;
+            }
+            keys[i] = keys[smallest];
+            ids[i] = ids[smallest];
+            i = smallest;
+        }
+        keys[i] = key;
+        ids[i] = id;
+    }
+}
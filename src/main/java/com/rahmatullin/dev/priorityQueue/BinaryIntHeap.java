@@ -0,0 +1,28 @@
+/*
+ * File: BinaryIntHeap.java
+ * Description: Binary min-heap of int node ids with int keys.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+package com.rahmatullin.dev.priorityQueue;
+
+/**
+ * Implicit binary min-heap, the primitive counterpart of PriorityQueueMin.
+ */
+public class BinaryIntHeap extends AbstractIntHeap {
+
+    public BinaryIntHeap(int capacity) {
+        super(capacity);
+    }
+
+    public BinaryIntHeap() {
+        super(16);
+    }
+
+    @Override
+    protected int getArity() {
+        return 2;
+    }
+}
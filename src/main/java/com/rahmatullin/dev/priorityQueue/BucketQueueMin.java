@@ -0,0 +1,126 @@
+/*
+ * File: BucketQueueMin.java
+ * Description: Min-priority queue of int node ids with small integer keys,
+ * organized as a circular array of buckets (Dial's algorithm).
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+package com.rahmatullin.dev.priorityQueue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Bucket queue for integer keys that change little between extractions, like the f-costs of A*.
+ * Every key owns one bucket of a circular array, so adding an element and extracting the minimal one
+ * take amortized constant time as long as the spread between the smallest and the largest key stays small.
+ * Keys smaller than the current minimum are accepted as well, the array grows when the spread exceeds it.
+ * Elements with equal keys are extracted in LIFO order.
+ */
+public class BucketQueueMin implements IntPriorityQueue {
+    private int[][] buckets;    // node ids of every bucket
+    private int[] bucketSizes;  // number of ids in every bucket
+    private int mask;           // buckets.length - 1, the length is a power of two
+    private int minKey;         // lower bound of the keys in the queue
+    private int maxKey;         // upper bound of the keys in the queue
+    private int size;           // number of elements currently in the queue
+
+    /**
+     * Initializes an empty queue for the given spread of keys.
+     * @param keySpread the expected difference between the largest and the smallest key
+     */
+    public BucketQueueMin(int keySpread) {
+        int capacity = Integer.highestOneBit(Math.max(2, keySpread) * 2 - 1);
+        buckets = new int[capacity][];
+        bucketSizes = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    @Override
+    public void add(int id, int key) {
+        if (size == 0) {
+            minKey = key;
+            maxKey = key;
+        } else if (key < minKey || key > maxKey) {
+            int newMin = Math.min(minKey, key);
+            int newMax = Math.max(maxKey, key);
+            if (newMax - newMin > mask) {
+                grow(newMax - newMin + 1);
+            }
+            minKey = newMin;
+            maxKey = newMax;
+        }
+        int bucket = key & mask;
+        int[] ids = buckets[bucket];
+        if (ids == null) {
+            ids = buckets[bucket] = new int[4];
+        } else if (bucketSizes[bucket] == ids.length) {
+            ids = buckets[bucket] = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[bucketSizes[bucket]++] = id;
+        size++;
+    }
+
+    @Override
+    public int extract() {
+        int bucket = advanceToMin();
+        size--;
+        return buckets[bucket][--bucketSizes[bucket]];
+    }
+
+    @Override
+    public int getMinKey() {
+        advanceToMin();
+        return minKey;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(bucketSizes, 0);
+        size = 0;
+    }
+
+    /**
+     * Moves the lower bound of the keys up to the first non-empty bucket.
+     * @return the index of the bucket holding the smallest key
+     */
+    private int advanceToMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ underflow");
+        }
+        while (bucketSizes[minKey & mask] == 0) {
+            minKey++;
+        }
+        return minKey & mask;
+    }
+
+    /**
+     * Resizes the circular array so that it holds the given spread of keys,
+     * moving every bucket to the position of its key in the new array.
+     * @param keySpread the spread of keys the array must hold
+     */
+    private void grow(int keySpread) {
+        int capacity = Integer.highestOneBit(keySpread * 2 - 1);
+        int[][] newBuckets = new int[capacity][];
+        int[] newSizes = new int[capacity];
+        for (int key = minKey; key <= maxKey; key++) {
+            newBuckets[key & (capacity - 1)] = buckets[key & mask];
+            newSizes[key & (capacity - 1)] = bucketSizes[key & mask];
+        }
+        buckets = newBuckets;
+        bucketSizes = newSizes;
+        mask = capacity - 1;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * File: IntPriorityQueue.java
+ * Description: Common interface of min-priority queues of int node ids with int keys.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+package com.rahmatullin.dev.priorityQueue;
+
+/**
+ * Min-priority queue of primitive node ids ordered by primitive keys.
+ * Implementations never box and never call a comparator, so a comparison is a single int comparison.
+ * The same id may be added several times; searches skip the outdated copies when they are extracted.
+ */
+public interface IntPriorityQueue {
+    /**
+     * Add a node id with the given key
+     * @param id  the node id
+     * @param key the priority of the node, smaller is extracted first
+     */
+    void add(int id, int key);
+
+    /**
+     * Retrieve the node id with the smallest key and remove it from the queue
+     * @return the node id
+     */
+    int extract();
+
+    /**
+     * Retrieve the smallest key without removing its element
+     * @return the smallest key in the queue
+     */
+    int getMinKey();
+
+    /**
+     * Check whether the queue has elements
+     * @return Returns true if the queue is empty, false otherwise
+     */
+    boolean isEmpty();
+
+    /**
+     * Number of elements currently in the queue
+     * @return the size of the queue
+     */
+    int getSize();
+
+    /**
+     * Removes all elements, keeping the allocated memory for reuse.
+     */
+    void clear();
+}
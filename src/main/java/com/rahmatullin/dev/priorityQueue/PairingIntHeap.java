@@ -0,0 +1,170 @@
+/*
+ * File: PairingIntHeap.java
+ * Description: Pairing min-heap of int node ids with int keys.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+package com.rahmatullin.dev.priorityQueue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Pairing heap whose nodes live in a pool of parallel int arrays instead of objects:
+ * every slot holds a key, a node id, the first child and the next sibling.
+ * Adding is a constant time link with the root, extracting pairs up the root's children
+ * in two passes and takes amortized logarithmic time. Freed slots are reused.
+ */
+public class PairingIntHeap implements IntPriorityQueue {
+    private static final int NONE = -1;
+
+    private int[] keys;      // key of every slot
+    private int[] ids;       // node id of every slot
+    private int[] child;     // first child of every slot
+    private int[] sibling;   // next sibling of every slot, also links the free slots
+    private int[] pairs;     // scratch buffer of the roots being paired up
+    private int root;        // slot of the minimal element
+    private int freeSlot;    // head of the free slot list
+    private int used;        // number of slots ever taken from the pool
+    private int size;        // number of elements currently in the heap
+
+    /**
+     * Initializes an empty heap with the specified initial capacity.
+     * @param capacity the initial capacity of this heap
+     */
+    public PairingIntHeap(int capacity) {
+        capacity = Math.max(1, capacity);
+        keys = new int[capacity];
+        ids = new int[capacity];
+        child = new int[capacity];
+        sibling = new int[capacity];
+        pairs = new int[capacity];
+        clear();
+    }
+
+    public PairingIntHeap() {
+        this(16);
+    }
+
+    @Override
+    public void add(int id, int key) {
+        int slot = allocate();
+        keys[slot] = key;
+        ids[slot] = id;
+        child[slot] = NONE;
+        sibling[slot] = NONE;
+        root = (root == NONE) ? slot : link(root, slot);
+        size++;
+    }
+
+    @Override
+    public int extract() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ underflow");
+        }
+        int minimal = root;
+        root = mergePairs(child[minimal]);
+        // return the slot to the free list
+        sibling[minimal] = freeSlot;
+        freeSlot = minimal;
+        size--;
+        return ids[minimal];
+    }
+
+    @Override
+    public int getMinKey() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ underflow");
+        }
+        return keys[root];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        root = NONE;
+        freeSlot = NONE;
+        used = 0;
+        size = 0;
+    }
+
+    /**
+     * Takes a slot from the free list or from the end of the pool, growing the pool if necessary.
+     * @return the index of the slot
+     */
+    private int allocate() {
+        if (freeSlot != NONE) {
+            int slot = freeSlot;
+            freeSlot = sibling[slot];
+            return slot;
+        }
+        if (used == keys.length) {
+            int capacity = 2 * used;
+            keys = Arrays.copyOf(keys, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            child = Arrays.copyOf(child, capacity);
+            sibling = Arrays.copyOf(sibling, capacity);
+            pairs = new int[capacity];
+        }
+        return used++;
+    }
+
+    /**
+     * Makes the root with the larger key the first child of the other one.
+     * @param a the first root
+     * @param b the second root
+     * @return the root of the linked tree
+     */
+    private int link(int a, int b) {
+        if (keys[b] < keys[a]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        sibling[b] = child[a];
+        child[a] = b;
+        return a;
+    }
+
+    /**
+     * Two-pass pairing: links the siblings pairwise from left to right,
+     * then links the resulting trees from right to left.
+     * @param first the first of the siblings
+     * @return the root of the merged tree
+     */
+    private int mergePairs(int first) {
+        int count = 0;
+        while (first != NONE) {
+            int a = first;
+            int b = sibling[a];
+            if (b == NONE) {
+                sibling[a] = NONE;
+                pairs[count++] = a;
+                break;
+            }
+            first = sibling[b];
+            sibling[a] = NONE;
+            sibling[b] = NONE;
+            pairs[count++] = link(a, b);
+        }
+        if (count == 0) {
+            return NONE;
+        }
+        int merged = pairs[--count];
+        while (count > 0) {
+            merged = link(pairs[--count], merged);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * File: QuaternaryIntHeap.java
+ * Description: 4-ary min-heap of int node ids with int keys.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+package com.rahmatullin.dev.priorityQueue;
+
+/**
+ * Implicit 4-ary min-heap. The tree is half as deep as a binary one and the four children
+ * of a node are adjacent in memory, which suits searches that add far more often than they extract.
+ */
+public class QuaternaryIntHeap extends AbstractIntHeap {
+
+    public QuaternaryIntHeap(int capacity) {
+        super(capacity);
+    }
+
+    public QuaternaryIntHeap() {
+        super(16);
+    }
+
+    @Override
+    protected int getArity() {
+        return 4;
+    }
+}
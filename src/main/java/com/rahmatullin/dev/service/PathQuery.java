@@ -0,0 +1,21 @@
+/*
+ * File: PathQuery.java
+ * Description: Start and end cells of one path query sent to the query service
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.service;
+
+/**
+ * A path query. Equal queries are answered by one search while they are in flight.
+ *
+ * @param startX The x-coordinate of the start.
+ * @param startY The y-coordinate of the start.
+ * @param endX The x-coordinate of the end.
+ * @param endY The y-coordinate of the end.
+ */
+public record PathQuery(int startX, int startY, int endX, int endY) {
+}
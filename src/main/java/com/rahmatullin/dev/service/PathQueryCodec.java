@@ -0,0 +1,226 @@
+/*
+ * File: PathQueryCodec.java
+ * Description: Reads path queries and writes path results as JSON or as big-endian binary records
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.service;
+
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Wire formats of the query service.
+ * JSON: a query is an object {"startX":0,"startY":0,"endX":9,"endY":9}, a batch is an array of them.
+ * Binary: a query is four big-endian ints; a result is the int cost (-1 if unreachable), the int length
+ * of the serialized CompactPath and its bytes.
+ * Text lines: a query is "startX startY endX endY", a result is the cost followed by the cells "x,y".
+ */
+public final class PathQueryCodec {
+    // Flat JSON object without nested objects
+    private static final Pattern OBJECT = Pattern.compile("\\{([^{}]*)}");
+    // Integer member of a query object
+    private static final Pattern MEMBER = Pattern.compile("\"(startX|startY|endX|endY)\"\\s*:\\s*(-?\\d+)");
+    // What may remain of a valid body once the objects are removed
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s,\\[\\]]*");
+    // Separator of the numbers of a text query
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private PathQueryCodec() {
+    }
+
+    /**
+     * Parses one query object or an array of query objects.
+     *
+     * @param json The JSON text.
+     * @return The queries in the order they appear.
+     * @throws IllegalArgumentException If the text is not a query or an array of queries.
+     */
+    public static List<PathQuery> parseJson(String json) {
+        List<PathQuery> queries = new ArrayList<>();
+        Matcher object = OBJECT.matcher(json);
+        StringBuilder rest = new StringBuilder();
+        while (object.find()) {
+            object.appendReplacement(rest, "");
+            queries.add(parseObject(object.group(1)));
+        }
+        object.appendTail(rest);
+        if (queries.isEmpty() || !SEPARATORS.matcher(rest).matches()) {
+            throw new IllegalArgumentException("Expected a query object or an array of query objects");
+        }
+        return queries;
+    }
+
+    /**
+     * Writes a result as a JSON object; the path is listed cell by cell.
+     *
+     * @param result The result to write.
+     * @return The JSON text.
+     */
+    public static String toJson(PathResult result) {
+        PathQuery query = result.query();
+        StringBuilder sb = new StringBuilder()
+                .append("{\"startX\":").append(query.startX())
+                .append(",\"startY\":").append(query.startY())
+                .append(",\"endX\":").append(query.endX())
+                .append(",\"endY\":").append(query.endY())
+                .append(",\"version\":").append(result.version())
+                .append(",\"cost\":").append(result.cost())
+                .append(",\"path\":");
+        if (!result.isFound()) {
+            return sb.append("null}").toString();
+        }
+        sb.append('[');
+        CompactPath.Cursor cursor = result.path().cursor();
+        boolean first = true;
+        while (cursor.next()) {
+            if (!first) sb.append(',');
+            sb.append('[').append(cursor.getX()).append(',').append(cursor.getY()).append(']');
+            first = false;
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * Writes a list of results as a JSON array.
+     *
+     * @param results The results to write.
+     * @return The JSON text.
+     */
+    public static String toJson(List<PathResult> results) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(toJson(results.get(i)));
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Parses a text query line.
+     *
+     * @param line The line "startX startY endX endY".
+     * @return The query.
+     * @throws IllegalArgumentException If the line does not hold four integers.
+     */
+    public static PathQuery parseLine(String line) {
+        String[] numbers = WHITESPACE.split(line.strip());
+        if (numbers.length != 4) {
+            throw new IllegalArgumentException("Expected startX startY endX endY: " + line);
+        }
+        return new PathQuery(Integer.parseInt(numbers[0]), Integer.parseInt(numbers[1]),
+                Integer.parseInt(numbers[2]), Integer.parseInt(numbers[3]));
+    }
+
+    /**
+     * Writes a result as a text line without the line separator.
+     *
+     * @param result The result to write.
+     * @param out Where to append the line.
+     * @throws IOException If appending fails.
+     */
+    public static void appendLine(PathResult result, Appendable out) throws IOException {
+        out.append(Integer.toString(result.cost()));
+        if (!result.isFound()) {
+            return;
+        }
+        CompactPath.Cursor cursor = result.path().cursor();
+        while (cursor.next()) {
+            out.append(' ').append(Integer.toString(cursor.getX())).append(',').append(Integer.toString(cursor.getY()));
+        }
+    }
+
+    /**
+     * Reads the next binary query.
+     *
+     * @param in The stream to read from.
+     * @return The query, or null at the end of the stream.
+     * @throws IOException If the stream fails or ends inside a query.
+     */
+    public static PathQuery readBinary(DataInputStream in) throws IOException {
+        int startX;
+        try {
+            startX = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        return new PathQuery(startX, in.readInt(), in.readInt(), in.readInt());
+    }
+
+    /**
+     * Writes a binary query.
+     *
+     * @param out The stream to write to.
+     * @param query The query to write.
+     * @throws IOException If the stream fails.
+     */
+    public static void writeBinary(DataOutputStream out, PathQuery query) throws IOException {
+        out.writeInt(query.startX());
+        out.writeInt(query.startY());
+        out.writeInt(query.endX());
+        out.writeInt(query.endY());
+    }
+
+    /**
+     * Writes a binary result.
+     *
+     * @param out The stream to write to.
+     * @param result The result to write.
+     * @throws IOException If the stream fails.
+     */
+    public static void writeBinary(DataOutputStream out, PathResult result) throws IOException {
+        out.writeInt(result.cost());
+        if (!result.isFound()) {
+            out.writeInt(0);
+            return;
+        }
+        byte[] path = result.path().toByteArray();
+        out.writeInt(path.length);
+        out.write(path);
+    }
+
+    /**
+     * Reads a binary result written by {@link #writeBinary(DataOutputStream, PathResult)}.
+     *
+     * @param in The stream to read from.
+     * @return The path, or null if the end was unreachable.
+     * @throws IOException If the stream fails or ends inside a result.
+     */
+    public static CompactPath readBinaryPath(DataInputStream in) throws IOException {
+        in.readInt(); // cost, implied by the path
+        byte[] path = new byte[in.readInt()];
+        in.readFully(path);
+        return path.length == 0 ? null : CompactPath.fromByteArray(path);
+    }
+
+    private static PathQuery parseObject(String members) {
+        int[] values = new int[4];
+        int found = 0;
+        Matcher member = MEMBER.matcher(members);
+        while (member.find()) {
+            int index = switch (member.group(1)) {
+                case "startX" -> 0;
+                case "startY" -> 1;
+                case "endX" -> 2;
+                default -> 3;
+            };
+            values[index] = Integer.parseInt(member.group(2));
+            found |= 1 << index;
+        }
+        if (found != 15) {
+            throw new IllegalArgumentException("Query must have startX, startY, endX and endY: {" + members + "}");
+        }
+        return new PathQuery(values[0], values[1], values[2], values[3]);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * File: PathQueryExecutor.java
+ * Description: Coalesces concurrent path queries into batches and runs them on a worker pool
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.service;
+
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.GridSnapshot;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import com.rahmatullin.dev.algorithmRealisation.VersionedGrid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers path queries from many threads on a grid that is loaded once.
+ * Submitted queries wait in a queue; a dispatcher thread takes everything that arrived, up to a batch size,
+ * pins the current grid version for the whole batch and splits it across the workers. Every worker
+ * keeps its own search state, so a warm worker allocates nothing but the results. A query equal to one
+ * that is still in flight gets the same future instead of a second search.
+ */
+public class PathQueryExecutor implements AutoCloseable {
+    // Grid the queries run on
+    private final VersionedGrid grid;
+    // Number of worker threads and largest number of queries per batch
+    private final int workerCount;
+    private final int maxBatchSize;
+    // Worker threads
+    private final ExecutorService workers;
+    // Thread that forms the batches
+    private final Thread dispatcher;
+    // Queries waiting for the next batch
+    private final LinkedBlockingQueue<PathQuery> pending = new LinkedBlockingQueue<>();
+    // Futures of the queries that were submitted but not answered yet
+    private final ConcurrentHashMap<PathQuery, CompletableFuture<PathResult>> inFlight = new ConcurrentHashMap<>();
+    // Search state of every worker, replaced when the grid version changes
+    private final ThreadLocal<IndexedAStar> searches = new ThreadLocal<>();
+    // Statistics
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong executedQueries = new AtomicLong();
+    private final AtomicLong deduplicatedQueries = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Constructor that starts the dispatcher and the workers.
+     *
+     * @param grid The grid the queries run on.
+     * @param workerCount The number of worker threads.
+     * @param maxBatchSize The largest number of queries dispatched at once.
+     */
+    public PathQueryExecutor(VersionedGrid grid, int workerCount, int maxBatchSize) {
+        this.grid = grid;
+        this.workerCount = Math.max(1, workerCount);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.workers = Executors.newFixedThreadPool(this.workerCount);
+        this.dispatcher = new Thread(this::dispatch, "path-query-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Submits a query.
+     *
+     * @param query The query to answer.
+     * @return A future completed with the result, shared with equal queries in flight.
+     * @throws IllegalArgumentException If a cell of the query is outside the grid.
+     * @throws IllegalStateException If the executor is closed.
+     */
+    public CompletableFuture<PathResult> submit(PathQuery query) {
+        GridSnapshot snapshot = grid.snapshot();
+        if (!snapshot.contains(query.startX(), query.startY()) || !snapshot.contains(query.endX(), query.endY())) {
+            throw new IllegalArgumentException("Query is outside the grid: " + query);
+        }
+        if (closed) {
+            throw new IllegalStateException("Executor is closed");
+        }
+        CompletableFuture<PathResult> created = new CompletableFuture<>();
+        CompletableFuture<PathResult> future = inFlight.putIfAbsent(query, created);
+        if (future != null) {
+            deduplicatedQueries.incrementAndGet();
+            return future;
+        }
+        pending.add(query);
+        return created;
+    }
+
+    /**
+     * Submits a batch of queries.
+     *
+     * @param queries The queries to answer.
+     * @return The futures in the order of the queries.
+     */
+    public List<CompletableFuture<PathResult>> submitAll(List<PathQuery> queries) {
+        List<CompletableFuture<PathResult>> futures = new ArrayList<>(queries.size());
+        for (PathQuery query : queries) {
+            futures.add(submit(query));
+        }
+        return futures;
+    }
+
+    /**
+     * Retrieves the grid the queries run on.
+     *
+     * @return The versioned grid.
+     */
+    public VersionedGrid getGrid() {
+        return grid;
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getExecutedQueries() {
+        return executedQueries.get();
+    }
+
+    public long getDeduplicatedQueries() {
+        return deduplicatedQueries.get();
+    }
+
+    /**
+     * Stops the dispatcher and the workers. Queries that were not answered yet are cancelled.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        dispatcher.interrupt();
+        workers.shutdownNow();
+        for (PathQuery query : inFlight.keySet()) {
+            CompletableFuture<PathResult> future = inFlight.remove(query);
+            if (future != null) {
+                future.completeExceptionally(new CancellationException("Executor was closed"));
+            }
+        }
+    }
+
+    /**
+     * Main loop of the dispatcher: wait for a query, take whatever else has arrived meanwhile
+     * and hand the batch to the workers in equal chunks.
+     */
+    private void dispatch() {
+        List<PathQuery> batch = new ArrayList<>(maxBatchSize);
+        while (!closed) {
+            try {
+                PathQuery first = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                pending.drainTo(batch, maxBatchSize - 1);
+            } catch (InterruptedException e) {
+                return;
+            }
+            batches.incrementAndGet();
+            GridSnapshot snapshot = grid.snapshot(); // one version for the whole batch
+            int chunkSize = (batch.size() + workerCount - 1) / workerCount;
+            for (int from = 0; from < batch.size(); from += chunkSize) {
+                List<PathQuery> chunk = List.copyOf(batch.subList(from, Math.min(batch.size(), from + chunkSize)));
+                workers.execute(() -> run(snapshot, chunk));
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Answers a chunk of queries on a worker thread.
+     *
+     * @param snapshot The grid version of the batch.
+     * @param chunk The queries to answer.
+     */
+    private void run(GridSnapshot snapshot, List<PathQuery> chunk) {
+        IndexedAStar search = searches.get();
+        if (search == null || search.getGrid() != snapshot) {
+            search = new IndexedAStar(snapshot);
+            searches.set(search);
+        }
+        for (PathQuery query : chunk) {
+            CompletableFuture<PathResult> future = inFlight.get(query);
+            if (future == null) continue; // cancelled by close()
+            try {
+                CompactPath path = search.search(query.startX(), query.startY(), query.endX(), query.endY());
+                executedQueries.incrementAndGet();
+                future.complete(new PathResult(query, path, search.getCost(), snapshot.getVersion()));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+            inFlight.remove(query, future); // equal queries keep sharing the future until it is done
+        }
+    }
+}
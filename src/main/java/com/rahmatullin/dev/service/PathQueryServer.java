@@ -0,0 +1,145 @@
+/*
+ * File: PathQueryServer.java
+ * Description: Long-running HTTP service on the loopback interface that answers path queries
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP front end of a PathQueryExecutor, bound to the loopback interface only.
+ * POST /path takes a JSON query or array of queries, or with Content-Type application/octet-stream
+ * a sequence of binary queries, and answers in the same format (see PathQueryCodec).
+ * GET /health answers with the current grid version.
+ * Requests are handled on virtual threads that only wait for their futures, so concurrent requests
+ * end up in the same batches of the executor.
+ */
+public class PathQueryServer implements AutoCloseable {
+    private static final String BINARY = "application/octet-stream";
+
+    private final HttpServer server;
+    private final PathQueryExecutor executor;
+    private final ExecutorService handlers;
+
+    /**
+     * Constructor that binds the server; call {@link #start()} to accept requests.
+     *
+     * @param executor The executor that answers the queries.
+     * @param port The port to listen on, 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public PathQueryServer(PathQueryExecutor executor, int port) throws IOException {
+        this.executor = executor;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.handlers = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(handlers);
+        server.createContext("/path", this::handlePath);
+        server.createContext("/health", this::handleHealth);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Retrieves the port the server listens on.
+     *
+     * @return The bound port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and shuts the request handlers down. The executor is left running.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.close();
+    }
+
+    private void handlePath(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "text/plain", "Use POST".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            boolean binary = BINARY.equals(exchange.getRequestHeaders().getFirst("Content-Type"));
+            try {
+                if (binary) {
+                    List<PathQuery> queries = new ArrayList<>();
+                    DataInputStream in = new DataInputStream(exchange.getRequestBody());
+                    for (PathQuery query; (query = PathQueryCodec.readBinary(in)) != null; ) {
+                        queries.add(query);
+                    }
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    DataOutputStream out = new DataOutputStream(bytes);
+                    for (PathResult result : await(executor.submitAll(queries))) {
+                        PathQueryCodec.writeBinary(out, result);
+                    }
+                    send(exchange, 200, BINARY, bytes.toByteArray());
+                } else {
+                    String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                    List<PathQuery> queries = PathQueryCodec.parseJson(body);
+                    List<PathResult> results = await(executor.submitAll(queries));
+                    String json = body.stripLeading().startsWith("[")
+                            ? PathQueryCodec.toJson(results)
+                            : PathQueryCodec.toJson(results.get(0));
+                    send(exchange, 200, "application/json", json.getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (IllegalArgumentException | IOException e) {
+                send(exchange, 400, "text/plain", String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+            } catch (ExecutionException | IllegalStateException e) {
+                send(exchange, 503, "text/plain", String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String json = "{\"version\":" + executor.getGrid().getVersion() + "}";
+            send(exchange, 200, "application/json", json.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static List<PathResult> await(List<CompletableFuture<PathResult>> futures)
+            throws ExecutionException, InterruptedException {
+        List<PathResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<PathResult> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
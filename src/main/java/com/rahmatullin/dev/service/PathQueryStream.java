@@ -0,0 +1,184 @@
+/*
+ * File: PathQueryStream.java
+ * Description: Streams path queries from an input stream to a PathQueryExecutor and results back in input order
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Pipelined query protocol for a warm JVM, e.g. on stdin and stdout.
+ * A reader thread parses queries and submits them while the calling thread writes the results
+ * in the order the queries came in. Up to a window of queries is in flight, so the workers stay busy
+ * while the writer waits for the oldest one. Output is flushed only when the writer has to wait,
+ * which writes many results per flush under load and answers at once when queries come one by one.
+ * Text mode: one query per line (see PathQueryCodec), one result line per query, "error message"
+ * for a query that cannot be answered; blank lines are skipped.
+ * Binary mode: queries and results as in PathQueryCodec, cost -2 with an empty path for an error.
+ */
+public class PathQueryStream {
+    // Cost written for a query that cannot be answered in binary mode
+    public static final int ERROR_COST = -2;
+    // Marks the end of the input in the queue of pending results
+    private static final CompletableFuture<PathResult> END = new CompletableFuture<>();
+
+    private final PathQueryExecutor executor;
+    private final boolean binary;
+    private final int window;
+
+    /**
+     * Constructor for a stream on an executor.
+     *
+     * @param executor The executor that answers the queries.
+     * @param binary True for the binary protocol, false for text lines.
+     * @param window The largest number of queries in flight.
+     */
+    public PathQueryStream(PathQueryExecutor executor, boolean binary, int window) {
+        this.executor = executor;
+        this.binary = binary;
+        this.window = Math.max(1, window);
+    }
+
+    /**
+     * Answers every query of the input until it ends.
+     *
+     * @param in The stream of queries.
+     * @param out The stream the results are written to; it is flushed but not closed.
+     * @return The number of answered queries, errors included.
+     * @throws IOException If reading or writing fails.
+     * @throws InterruptedException If the calling thread is interrupted.
+     */
+    public long run(InputStream in, OutputStream out) throws IOException, InterruptedException {
+        BlockingQueue<CompletableFuture<PathResult>> results = new ArrayBlockingQueue<>(window + 1);
+        IOException[] readError = new IOException[1];
+        Thread reader = new Thread(() -> {
+            try {
+                if (binary) {
+                    readBinary(in, results);
+                } else {
+                    readText(in, results);
+                }
+            } catch (IOException e) {
+                readError[0] = e;
+            } catch (InterruptedException e) {
+                return; // the writer gave up
+            }
+            try {
+                results.put(END);
+            } catch (InterruptedException ignored) {
+                // the writer gave up
+            }
+        }, "path-query-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        long answered = 0;
+        try {
+            if (binary) {
+                DataOutputStream writer = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+                for (CompletableFuture<PathResult> future; (future = next(results, writer)) != END; answered++) {
+                    PathResult result = await(future);
+                    if (result == null) {
+                        writer.writeInt(ERROR_COST);
+                        writer.writeInt(0);
+                    } else {
+                        PathQueryCodec.writeBinary(writer, result);
+                    }
+                }
+                writer.flush();
+            } else {
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+                for (CompletableFuture<PathResult> future; (future = next(results, writer)) != END; answered++) {
+                    PathResult result = await(future);
+                    if (result == null) {
+                        writer.write("error " + future.exceptionNow().getMessage());
+                    } else {
+                        PathQueryCodec.appendLine(result, writer);
+                    }
+                    writer.newLine();
+                }
+                writer.flush();
+            }
+        } finally {
+            reader.interrupt();
+        }
+        reader.join();
+        if (readError[0] != null) {
+            throw readError[0];
+        }
+        return answered;
+    }
+
+    private void readText(InputStream in, BlockingQueue<CompletableFuture<PathResult>> results)
+            throws IOException, InterruptedException {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        for (String line; (line = lines.readLine()) != null; ) {
+            if (line.isBlank()) continue;
+            results.put(submit(line, null));
+        }
+    }
+
+    private void readBinary(InputStream in, BlockingQueue<CompletableFuture<PathResult>> results)
+            throws IOException, InterruptedException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        for (PathQuery query; (query = PathQueryCodec.readBinary(data)) != null; ) {
+            results.put(submit(null, query));
+        }
+    }
+
+    /**
+     * Submits a query, turning a query that cannot be submitted into a failed future,
+     * so its error is written in its place in the output.
+     */
+    private CompletableFuture<PathResult> submit(String line, PathQuery query) {
+        try {
+            return executor.submit(query != null ? query : PathQueryCodec.parseLine(line));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Takes the oldest pending result, flushing the output first if it would have to wait.
+     */
+    private static CompletableFuture<PathResult> next(BlockingQueue<CompletableFuture<PathResult>> results,
+                                                      Flushable writer) throws IOException, InterruptedException {
+        CompletableFuture<PathResult> future = results.peek();
+        if (future == null || (future != END && !future.isDone())) {
+            writer.flush();
+        }
+        return results.take();
+    }
+
+    /**
+     * Waits for a result; returns null if the query failed.
+     */
+    private static PathResult await(CompletableFuture<PathResult> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * File: PathResult.java
+ * Description: Answer of the query service to one path query
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.service;
+
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+
+/**
+ * The answer to a path query.
+ *
+ * @param query The query that was answered.
+ * @param path The path, or null if the end is unreachable.
+ * @param cost The cost of the path, or -1 if the end is unreachable.
+ * @param version The version of the grid the search ran on.
+ */
+public record PathResult(PathQuery query, CompactPath path, int cost, long version) {
+
+    /**
+     * Checks whether a path was found.
+     *
+     * @return True if the result holds a path.
+     */
+    public boolean isFound() {
+        return path != null;
+    }
+}
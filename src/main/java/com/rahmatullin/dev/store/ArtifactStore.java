@@ -0,0 +1,206 @@
+/*
+ * File: ArtifactStore.java
+ * Description: Content-addressed on-disk store of grid preprocessing artifacts
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.store;
+
+import com.rahmatullin.dev.algorithmRealisation.WalkableGrid;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Keeps preprocessing artifacts of grids in a directory, one file per artifact named after the SHA-256
+ * of the grid's size and walls, the artifact kind and its version. Any grid with the same walls finds the
+ * artifact again, whatever instance or JVM computed it, and a changed grid or layout version gets a new file.
+ *
+ * A file is a 64-byte header (magic, store layout, artifact version, grid hash, payload length)
+ * followed by the little-endian payload. Loading maps the file read-only and hands the payload to the
+ * artifact without copying it, so the OS reads pages only as the artifact touches them.
+ * Files are written to a temporary name and moved into place, so readers never see half a file.
+ */
+public class ArtifactStore {
+    // "GART" in ASCII
+    private static final int MAGIC = 0x47415254;
+    // Version of the header layout
+    private static final int LAYOUT_VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int HASH_SIZE = 32;
+
+    private final Path directory;
+    // Number of artifacts computed and loaded from disk, for monitoring
+    private int builds;
+    private int loads;
+
+    /**
+     * Constructor for a store in a directory, created if missing.
+     *
+     * @param directory The directory holding the artifacts.
+     * @throws IOException If the directory cannot be created.
+     */
+    public ArtifactStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Computes the content hash of a grid: SHA-256 of its size and its walls, 64 cells per word.
+     * Terrain costs are not part of the hash.
+     *
+     * @param grid The grid.
+     * @return The hash.
+     */
+    public static byte[] walkabilityHash(WalkableGrid grid) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        int gridWidth = grid.getGridWidth();
+        int gridHeight = grid.getGridHeight();
+        ByteBuffer words = ByteBuffer.allocate(8 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        words.putInt(gridWidth).putInt(gridHeight);
+        for (int x = 0; x < gridWidth; x++) {
+            for (int y0 = 0; y0 < gridHeight; y0 += 64) {
+                long word = 0;
+                for (int y = y0; y < Math.min(gridHeight, y0 + 64); y++) {
+                    if (grid.isBlocked(x, y)) word |= 1L << (y - y0);
+                }
+                if (words.remaining() < Long.BYTES) {
+                    digest.update(words.flip());
+                    words.clear();
+                }
+                words.putLong(word);
+            }
+        }
+        digest.update(words.flip());
+        return digest.digest();
+    }
+
+    /**
+     * Retrieves an artifact of a grid: maps the stored file if there is a valid one,
+     * else computes the artifact, stores it and maps the new file.
+     *
+     * @param grid The grid.
+     * @param type The kind of artifact.
+     * @param <T> The type of the artifact.
+     * @return The artifact.
+     * @throws IOException If the store cannot be read or written.
+     */
+    public <T> T get(WalkableGrid grid, ArtifactType<T> type) throws IOException {
+        byte[] hash = walkabilityHash(grid);
+        Path file = getPath(hash, type);
+        ByteBuffer payload = map(file, hash, type.getVersion());
+        if (payload != null) {
+            loads++;
+            return type.read(payload);
+        }
+        write(file, hash, type.getVersion(), type.build(grid));
+        builds++;
+        return type.read(map(file, hash, type.getVersion()));
+    }
+
+    /**
+     * Wraps get() so the grid is hashed and the artifact loaded or computed only on the first call.
+     *
+     * @param grid The grid.
+     * @param type The kind of artifact.
+     * @param <T> The type of the artifact.
+     * @return A supplier returning the same artifact on every call.
+     */
+    public <T> Supplier<T> lazy(WalkableGrid grid, ArtifactType<T> type) {
+        return new Supplier<>() {
+            private T artifact;
+
+            @Override
+            public synchronized T get() {
+                if (artifact == null) {
+                    try {
+                        artifact = ArtifactStore.this.get(grid, type);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return artifact;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the file an artifact of a grid is stored in.
+     *
+     * @param hash The walkability hash of the grid.
+     * @param type The kind of artifact.
+     * @return The path of the file, which may not exist yet.
+     */
+    public Path getPath(byte[] hash, ArtifactType<?> type) {
+        return directory.resolve(HexFormat.of().formatHex(hash) + "-" + type.getKind() + "-v" + type.getVersion() + ".bin");
+    }
+
+    public int getBuilds() {
+        return builds;
+    }
+
+    public int getLoads() {
+        return loads;
+    }
+
+    /**
+     * Maps the payload of a stored artifact.
+     *
+     * @return The payload, or null if the file is missing or does not belong to the grid and version.
+     */
+    private static ByteBuffer map(Path file, byte[] hash, int version) throws IOException {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) return null;
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size); // stays valid after close
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            byte[] storedHash = new byte[HASH_SIZE];
+            mapped.get(16, storedHash);
+            long length = mapped.getLong(16 + HASH_SIZE);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != LAYOUT_VERSION || mapped.getInt(8) != version
+                    || !Arrays.equals(hash, storedHash) || length != size - HEADER_SIZE) {
+                return null; // stale or foreign file, rebuilt by the caller
+            }
+            return mapped.slice(HEADER_SIZE, (int) length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private void write(Path file, byte[] hash, int version, ByteBuffer payload) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(LAYOUT_VERSION).putInt(version).putInt(0).put(hash).putLong(payload.remaining());
+        header.clear();
+
+        Path temporary = Files.createTempFile(directory, "artifact", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) channel.write(header);
+                while (payload.hasRemaining()) channel.write(payload);
+                channel.force(false);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
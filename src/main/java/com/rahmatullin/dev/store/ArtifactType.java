@@ -0,0 +1,50 @@
+/*
+ * File: ArtifactType.java
+ * Description: Kind of preprocessing artifact kept in the ArtifactStore
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+
+package com.rahmatullin.dev.store;
+
+import com.rahmatullin.dev.algorithmRealisation.WalkableGrid;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Describes how to compute an artifact of a grid and how to read it back from its binary payload.
+ * Payloads are little-endian. read() gets a read-only view of the mapped file, so an artifact that
+ * wraps the buffer instead of copying it costs nothing until its pages are touched.
+ *
+ * @param <T> The type of the artifact.
+ */
+public interface ArtifactType<T> {
+
+    /**
+     * Retrieves the name of the artifact kind, used in the file name; letters, digits and '-' only.
+     */
+    String getKind();
+
+    /**
+     * Retrieves the version of the payload layout. Bumping it makes stored artifacts of older versions stale.
+     */
+    int getVersion();
+
+    /**
+     * Computes the artifact of a grid and encodes it.
+     *
+     * @param grid The grid.
+     * @return The payload, positioned at its start and limited to its end.
+     */
+    ByteBuffer build(WalkableGrid grid);
+
+    /**
+     * Decodes an artifact.
+     *
+     * @param payload The payload, little-endian, positioned at its start.
+     * @return The artifact.
+     */
+    T read(ByteBuffer payload);
+}
@@ -73,4 +73,40 @@ class AStarTest {
         assertTrue(path.contains(start), "Path should contain the start point");
         assertTrue(path.contains(end), "Path should contain the end point");
     }
+
+    @Test
+    void testBucketQueueSearchAvoidsExpensiveTerrain() {
+        grid2D = new Grid2D(5, 5);
+        for (int i = 1; i < 4; i++) {
+            grid2D.setTerrainCost(i, i, 9); // Mud on the diagonal between start and end
+        }
+        start = grid2D.getGrid()[0][0];
+        end = grid2D.getGrid()[4][4];
+        aStar = new AStar(start, end, grid2D, AStar.OpenSetType.BUCKET_QUEUE);
+
+        ArrayList<Point> path = aStar.aStarSearch(false);
+        assertNotNull(path, "Path should not be null");
+        assertEquals(start, path.get(0), "Path should start at the start point");
+        assertEquals(end, path.get(path.size() - 1), "Path should end at the end point");
+        assertFalse(path.contains(new Point(2, 2)), "Path should go around the mud");
+        assertEquals(62, end.gCost, "Three diagonal and two straight moves should cost 62");
+    }
+
+    @Test
+    void testAllIndexedOpenSetsFindOptimalCost() {
+        for (AStar.OpenSetType type : AStar.OpenSetType.values()) {
+            if (type == AStar.OpenSetType.PRIORITY_QUEUE) continue;
+            grid2D = new Grid2D(8, 8);
+            for (int i = 0; i < 8; i++) {
+                grid2D.setTerrainCost(4, i, 5); // A river across the grid
+            }
+            start = grid2D.getGrid()[0][0];
+            end = grid2D.getGrid()[7][7];
+            aStar = new AStar(start, end, grid2D, type);
+
+            assertNotNull(aStar.aStarSearch(false), "Path should not be null with " + type);
+            // Six diagonal moves, one straight move and one straight move into the river
+            assertEquals(6 * 14 + 10 + 50, end.gCost, "Path cost should be optimal with " + type);
+        }
+    }
 }
@@ -0,0 +1,109 @@
+import com.rahmatullin.dev.algorithmRealisation.BitGrid;
+import com.rahmatullin.dev.algorithmRealisation.ComponentLabels;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.ObstacleChangeSet;
+import com.rahmatullin.dev.store.ArtifactStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArtifactStoreTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("artifacts");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Creates a grid split in two by a wall column, with a walled-in cell in each half.
+     */
+    private BitGrid splitGrid() {
+        BitGrid grid = new BitGrid(40, 30);
+        for (int y = 0; y < 30; y++) grid.setBlocked(20, y, true);
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx != 0 || dy != 0) grid.setBlocked(5 + dx, 5 + dy, true);
+            }
+        }
+        return grid;
+    }
+
+    @Test
+    void testArtifactIsStoredOnceAndMappedAfterwards() throws Exception {
+        BitGrid grid = splitGrid();
+        ArtifactStore store = new ArtifactStore(directory);
+        ComponentLabels built = store.get(grid, ComponentLabels.ARTIFACT);
+        assertEquals(1, store.getBuilds(), "First use should compute the artifact");
+        assertEquals(3, built.getComponentCount(), "Wall and walled-in cell should make three components");
+        assertTrue(built.isConnected(0, 0, 19, 29), "Cells of one half should be connected");
+        assertFalse(built.isConnected(0, 0, 39, 0), "Halves should not be connected");
+        assertFalse(built.isConnected(5, 5, 0, 0), "Walled-in cell should be alone");
+
+        ArtifactStore restarted = new ArtifactStore(directory);
+        BitGrid copy = splitGrid();
+        Grid2D empty = new Grid2D(40, 30);
+        assertArrayEquals(ArtifactStore.walkabilityHash(grid), ArtifactStore.walkabilityHash(copy), "Same walls should hash alike");
+        assertFalse(Arrays.equals(ArtifactStore.walkabilityHash(grid), ArtifactStore.walkabilityHash(empty)),
+                "Other walls should hash differently");
+
+        ComponentLabels loaded = restarted.get(copy, ComponentLabels.ARTIFACT);
+        assertEquals(0, restarted.getBuilds(), "Known map should not be preprocessed again");
+        assertEquals(1, restarted.getLoads(), "Known map should be loaded from disk");
+        for (int x = 0; x < 40; x++) {
+            for (int y = 0; y < 30; y++) {
+                assertEquals(built.getLabel(x, y), loaded.getLabel(x, y), "Labels should survive the round trip");
+            }
+        }
+
+        // another grid type with the same walls has the same hash and shares the file
+        Grid2D sameWalls = new Grid2D(40, 30);
+        ObstacleChangeSet walls = new ObstacleChangeSet();
+        for (int x = 0; x < 40; x++) {
+            for (int y = 0; y < 30; y++) {
+                if (grid.isBlocked(x, y)) walls.block(x, y);
+            }
+        }
+        sameWalls.applyChanges(walls);
+        assertArrayEquals(ArtifactStore.walkabilityHash(grid), ArtifactStore.walkabilityHash(sameWalls),
+                "Grid2D with the same walls should hash alike");
+        ComponentLabels shared = restarted.get(sameWalls, ComponentLabels.ARTIFACT);
+        assertEquals(0, restarted.getBuilds(), "Same walls in another grid type should not be preprocessed again");
+        assertEquals(2, restarted.getLoads(), "Same walls in another grid type should be loaded from disk");
+        assertEquals(3, shared.getComponentCount(), "Loaded labels should keep the components");
+    }
+
+    @Test
+    void testStaleFileIsRebuiltAndLazyLoadWaits() throws Exception {
+        BitGrid grid = splitGrid();
+        ArtifactStore store = new ArtifactStore(directory);
+        Path file = store.getPath(ArtifactStore.walkabilityHash(grid), ComponentLabels.ARTIFACT);
+        Files.write(file, new byte[100]); // truncated or foreign file
+
+        Supplier<ComponentLabels> labels = store.lazy(grid, ComponentLabels.ARTIFACT);
+        assertEquals(0, store.getBuilds() + store.getLoads(), "Nothing should happen before first use");
+        assertEquals(3, labels.get().getComponentCount(), "Stale file should be replaced");
+        assertSame(labels.get(), labels.get(), "Lazy artifact should be loaded once");
+        assertEquals(1, store.getBuilds(), "Stale file should be rebuilt");
+        assertEquals(64 + 12 + 40 * 30 * 4, Files.size(file), "File should hold the header and the payload");
+    }
+}
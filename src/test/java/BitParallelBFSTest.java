@@ -0,0 +1,83 @@
+import com.rahmatullin.dev.algorithmRealisation.BitGrid;
+import com.rahmatullin.dev.algorithmRealisation.BitParallelBFS;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.ObstacleChangeSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitParallelBFSTest {
+
+    @Test
+    void testMatchesNodeByNodeBFS() {
+        // Sizes around the 64-bit word boundary
+        int[][] sizes = {{7, 5}, {20, 63}, {20, 64}, {33, 130}, {400, 200}};
+        for (int[] size : sizes) {
+            Grid2D grid2D = new Grid2D(size[0], size[1]);
+            grid2D.createObstaclesInGrid(size[0] * size[1] / 4);
+            BitGrid bitGrid = BitGrid.of(grid2D);
+            int sx = size[0] / 2;
+            int sy = size[1] / 2;
+
+            int[] expected = referenceBFS(grid2D, sx, sy);
+            int[] actual = new BitParallelBFS(bitGrid).distances(sx, sy);
+            assertArrayEquals(expected, actual, "Distances should match for " + size[0] + "x" + size[1]);
+        }
+    }
+
+    @Test
+    void testParallelStripesMatchNodeByNodeBFS() {
+        // 64 words per row: the wavefronts pass the parallel threshold of 2^14 words once they span 256 rows
+        int width = 300;
+        int height = 4096;
+        Grid2D grid2D = new Grid2D(width, height);
+        Random random = new Random(31);
+        ObstacleChangeSet walls = new ObstacleChangeSet();
+        for (int i = 0; i < width * height / 4; i++) {
+            walls.block(random.nextInt(width), random.nextInt(height));
+        }
+        walls.unblock(width / 2, height / 2);
+        grid2D.applyChanges(walls);
+
+        int[] expected = referenceBFS(grid2D, width / 2, height / 2);
+        int[] actual = new BitParallelBFS(BitGrid.of(grid2D)).distances(width / 2, height / 2);
+        assertArrayEquals(expected, actual, "Distances should match when the layers run in parallel stripes");
+    }
+
+    @Test
+    void testEmptyGridLayers() {
+        BitParallelBFS bfs = new BitParallelBFS(new BitGrid(10, 100));
+        int[] distance = bfs.distances(0, 0);
+
+        assertEquals(0, distance[0], "Source should have distance 0");
+        assertEquals(99, distance[9 * 100 + 99], "Far corner should be 99 moves away");
+        assertEquals(99, bfs.getLayerCount(), "There should be 99 layers");
+    }
+
+    private int[] referenceBFS(Grid2D grid2D, int sx, int sy) {
+        int height = grid2D.getGridHeight();
+        int[] distance = new int[grid2D.getGridWidth() * height];
+        Arrays.fill(distance, -1);
+        if (grid2D.isBlocked(sx, sy)) return distance;
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        distance[sx * height + sy] = 0;
+        queue.add(new int[]{sx, sy});
+        while (!queue.isEmpty()) {
+            int[] cell = queue.poll();
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    int x = cell[0] + dx;
+                    int y = cell[1] + dy;
+                    if (!grid2D.contains(x, y) || grid2D.isBlocked(x, y) || distance[x * height + y] >= 0) continue;
+                    distance[x * height + y] = distance[cell[0] * height + cell[1]] + 1;
+                    queue.add(new int[]{x, y});
+                }
+            }
+        }
+        return distance;
+    }
+}
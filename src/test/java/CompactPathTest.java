@@ -0,0 +1,68 @@
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.PathSeacrh;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactPathTest {
+
+    private final List<Point> path = List.of(
+            new Point(0, 0), new Point(1, 0), new Point(2, 0), new Point(3, 0), // straight run
+            new Point(4, 1), new Point(5, 2),                                   // diagonal run
+            new Point(5, 3), new Point(4, 3));
+
+    @Test
+    void testCursorWalksAllCells() {
+        CompactPath compactPath = CompactPath.fromPoints(path);
+        assertEquals(path.size(), compactPath.getCellCount(), "Cell count should match");
+        assertEquals(4, compactPath.getRunCount(), "Straight segments should be merged into runs");
+
+        ArrayList<Point> decoded = new ArrayList<>();
+        CompactPath.Cursor cursor = compactPath.cursor();
+        while (cursor.next()) {
+            decoded.add(new Point(cursor.getX(), cursor.getY()));
+        }
+        assertEquals(path, decoded, "Decoded cells should match the original path");
+        assertEquals(5 * 10 + 2 * 14, compactPath.getCost(), "Cost should count straight and diagonal moves");
+    }
+
+    @Test
+    void testLongStraightPathIsTiny() {
+        ArrayList<Point> line = new ArrayList<>();
+        for (int y = 0; y < 1000; y++) {
+            line.add(new Point(7, y));
+        }
+        CompactPath compactPath = CompactPath.fromPoints(line);
+        assertEquals(1, compactPath.getRunCount(), "A straight line should be a single run");
+        assertTrue(compactPath.getEncodedSize() <= 2, "A single run should take at most two bytes");
+    }
+
+    @Test
+    void testSerializationRoundTrip() {
+        CompactPath compactPath = CompactPath.fromPoints(path);
+        CompactPath restored = CompactPath.fromByteArray(compactPath.toByteArray());
+        assertEquals(compactPath, restored, "Restored path should equal the original");
+        assertThrows(IllegalArgumentException.class, () -> CompactPath.fromByteArray(new byte[]{1, 0}),
+                "Truncated bytes should be rejected");
+    }
+
+    @Test
+    void testEncodeFromParentsDoesNotMarkGrid() {
+        Point start = new Point(0, 0);
+        Point middle = new Point(1, 1, start, 14, 0);
+        Point end = new Point(2, 1, middle, 24, 0);
+
+        CompactPath compactPath = PathSeacrh.encodePath(end);
+        assertEquals(CompactPath.fromPoints(List.of(start, middle, end)), compactPath,
+                "Encoding from parents should match encoding the list");
+        assertEquals(Point.Status.CLOSED, start.status, "Encoding should not change the status of the points");
+
+        Grid2D grid2D = new Grid2D(3, 3);
+        assertEquals(List.of(start, middle, end), compactPath.toPoints(grid2D), "Path should decode to grid points");
+    }
+}
@@ -0,0 +1,69 @@
+import com.rahmatullin.dev.algorithmRealisation.AStar;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.io.ConsoleRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsoleRendererTest {
+
+    private String render(Grid2D grid2D, int view, int scale, int centerX, int centerY) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ConsoleRenderer(out, view, view, scale).render(grid2D, centerX, centerY);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testWholeGridMatchesToString() throws Exception {
+        Grid2D grid2D = new Grid2D(17, 23);
+        grid2D.createObstaclesInGrid(60);
+        assertEquals(grid2D.toString(), render(grid2D, 0, 1, 0, 0), "Full view should draw what toString builds");
+    }
+
+    @Test
+    void testViewportIsClampedToGrid() throws Exception {
+        Grid2D grid2D = new Grid2D(40, 40);
+        grid2D.getGrid()[0][0].status = Point.Status.PATH;
+        grid2D.getGrid()[39][39].status = Point.Status.BLOCK;
+
+        String[] corner = render(grid2D, 5, 1, 1, 1).split(System.lineSeparator());
+        assertEquals(5, corner.length, "Viewport should have five lines");
+        assertTrue(corner[0].startsWith(Point.Status.PATH.getTitle()), "Window near the corner should start at the corner");
+
+        String[] farCorner = render(grid2D, 5, 1, 45, 45).split(System.lineSeparator());
+        assertTrue(farCorner[4].endsWith(Point.Status.BLOCK.getTitle() + " "), "Window past the edge should end at the edge");
+    }
+
+    @Test
+    void testDownsamplingKeepsPath() throws Exception {
+        Grid2D grid2D = new Grid2D(1000, 1000);
+        grid2D.getGrid()[998][3].status = Point.Status.BLOCK;
+        grid2D.getGrid()[999][2].status = Point.Status.PATH;
+
+        String[] lines = render(grid2D, 0, 100, 0, 0).split(System.lineSeparator());
+        assertEquals(10, lines.length, "Each line should stand for 100 rows of cells");
+        String expectedLast = Point.Status.PATH.getTitle() + " " + (Point.Status.CLOSED.getTitle() + " ").repeat(9);
+        assertEquals(expectedLast, lines[9], "A block holding a path cell should show the path");
+        assertFalse(lines[8].contains(Point.Status.PATH.getTitle()), "Other blocks should stay closed");
+    }
+
+    @Test
+    void testWindowAroundEndShowsPathEnd() throws Exception {
+        Grid2D grid2D = new Grid2D(30, 30);
+        grid2D.createObstaclesInGrid(0);
+        // AStar reads the points as (row, column), so the end cell is (4, 25), not (25, 4)
+        AStar aStar = new AStar(new Point(20, 2), new Point(25, 4), grid2D);
+        assertNotNull(aStar.aStarSearch(false), "Path should be found on an empty grid");
+        Point end = aStar.getEnd();
+        assertEquals(4, end.x, "End cell should be read transposed");
+        assertEquals(25, end.y, "End cell should be read transposed");
+
+        String[] lines = render(grid2D, 3, 1, end.x, end.y).split(System.lineSeparator());
+        assertEquals(3, lines.length, "Viewport should have three lines");
+        assertEquals(Point.Status.PATH.getTitle(), lines[1].split(" ")[1], "Centre of the window should be the end of the path");
+    }
+}
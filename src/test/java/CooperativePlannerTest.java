@@ -0,0 +1,114 @@
+import com.rahmatullin.dev.algorithmRealisation.CooperativePlanner;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.ObstacleChangeSet;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.algorithmRealisation.ReservationTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CooperativePlannerTest {
+
+    private static final int HORIZON = 30;
+
+    @Test
+    void testAgentsSwappingPlacesDoNotCollide() {
+        Grid2D grid2D = new Grid2D(5, 5);
+        CooperativePlanner planner = new CooperativePlanner(grid2D, new ReservationTable(grid2D), HORIZON, 2);
+        List<CooperativePlanner.Agent> agents = List.of(
+                new CooperativePlanner.Agent(0, new Point(0, 2), new Point(4, 2), 1),
+                new CooperativePlanner.Agent(1, new Point(4, 2), new Point(0, 2), 0));
+
+        Map<Integer, ArrayList<Point>> paths = planner.plan(agents, Long.MAX_VALUE / 2);
+
+        assertEquals(2, paths.size(), "Both agents should be planned");
+        assertTrue(planner.getUnplannedAgents().isEmpty(), "No agent should be left unplanned");
+        for (CooperativePlanner.Agent agent : agents) {
+            ArrayList<Point> path = paths.get(agent.id());
+            assertEquals(agent.start(), path.get(0), "Path should start at the agent's start");
+            assertEquals(agent.goal(), path.get(path.size() - 1), "Path should end at the agent's goal");
+        }
+        assertCollisionFree(paths);
+    }
+
+    @Test
+    void testManyAgentsInParallelGroupsDoNotCollide() {
+        Grid2D grid2D = new Grid2D(40, 40);
+        CooperativePlanner planner = new CooperativePlanner(grid2D, new ReservationTable(grid2D), HORIZON * 3, 1);
+        List<CooperativePlanner.Agent> agents = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            // Agents cross the grid in both directions, in rows that form several independent groups
+            Point left = new Point(0, i);
+            Point right = new Point(39, (i * 7) % 40);
+            agents.add(i % 2 == 0
+                    ? new CooperativePlanner.Agent(i, left, right, i)
+                    : new CooperativePlanner.Agent(i, right, left, i));
+        }
+
+        Map<Integer, ArrayList<Point>> paths = planner.plan(agents, Long.MAX_VALUE / 2);
+
+        assertEquals(agents.size(), paths.size() + planner.getUnplannedAgents().size(),
+                "Every agent should be either planned or reported unplanned");
+        assertTrue(paths.size() >= agents.size() * 3 / 4, "Most agents should be planned: " + paths.size());
+        for (CooperativePlanner.Agent agent : agents) {
+            ArrayList<Point> path = paths.get(agent.id());
+            if (path == null) continue;
+            assertEquals(agent.start(), path.get(0), "Path should start at the agent's start");
+            assertEquals(agent.goal(), path.get(path.size() - 1), "Path should end at the agent's goal");
+        }
+        assertCollisionFree(paths);
+    }
+
+    @Test
+    void testBudgetBoundsSingleSearch() {
+        // The goal is walled in, so without the budget the search would expand every cell at every tick
+        Grid2D grid2D = new Grid2D(200, 200);
+        ObstacleChangeSet walls = new ObstacleChangeSet();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx != 0 || dy != 0) walls.block(150 + dx, 150 + dy);
+            }
+        }
+        grid2D.applyChanges(walls);
+        CooperativePlanner planner = new CooperativePlanner(grid2D, new ReservationTable(grid2D), 10_000, 1);
+        CooperativePlanner.Agent agent = new CooperativePlanner.Agent(0, new Point(0, 0), new Point(150, 150), 0);
+
+        long begin = System.nanoTime();
+        Map<Integer, ArrayList<Point>> paths = planner.plan(List.of(agent), 20_000_000L);
+        long elapsedMillis = (System.nanoTime() - begin) / 1_000_000;
+
+        assertTrue(paths.isEmpty(), "Walled-in agent should not be planned");
+        assertEquals(List.of(agent), planner.getUnplannedAgents(), "Agent should be reported unplanned");
+        assertTrue(elapsedMillis < 2000, "Search should stop soon after the 20 ms budget: " + elapsedMillis + " ms");
+    }
+
+    /**
+     * Checks that no two agents share a cell at a tick (including agents waiting at their goal)
+     * and that no two agents swap cells between two ticks.
+     */
+    private void assertCollisionFree(Map<Integer, ArrayList<Point>> paths) {
+        int lastTick = paths.values().stream().mapToInt(List::size).max().orElse(0) + 1;
+        for (int tick = 0; tick < lastTick; tick++) {
+            HashMap<Point, Integer> occupied = new HashMap<>();
+            for (Map.Entry<Integer, ArrayList<Point>> entry : paths.entrySet()) {
+                Integer other = occupied.put(at(entry.getValue(), tick), entry.getKey());
+                assertNull(other, "Agents " + other + " and " + entry.getKey() + " collide at tick " + tick);
+            }
+            for (Map.Entry<Integer, ArrayList<Point>> first : paths.entrySet()) {
+                for (Map.Entry<Integer, ArrayList<Point>> second : paths.entrySet()) {
+                    if (first.getKey() >= second.getKey()) continue;
+                    boolean swap = at(first.getValue(), tick).equals(at(second.getValue(), tick + 1))
+                            && at(second.getValue(), tick).equals(at(first.getValue(), tick + 1))
+                            && !at(first.getValue(), tick).equals(at(first.getValue(), tick + 1));
+                    assertFalse(swap, "Agents " + first.getKey() + " and " + second.getKey() + " swap at tick " + tick);
+                }
+            }
+        }
+    }
+
+    private Point at(ArrayList<Point> path, int tick) {
+        return path.get(Math.min(tick, path.size() - 1));
+    }
+}
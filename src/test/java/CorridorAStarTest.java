@@ -0,0 +1,63 @@
+import com.rahmatullin.dev.algorithmRealisation.BitGrid;
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.CorridorAStar;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorridorAStarTest {
+
+    @Test
+    void testCorridorAvoidsDeadEnd() {
+        // a pocket with walls one block thick, opening away from the end: plain A* fills it before walking around
+        BitGrid grid = new BitGrid(400, 400);
+        for (int i = 96; i < 304; i++) {
+            for (int t = 0; t < 8; t++) {
+                grid.setBlocked(296 + t, i, true);
+                grid.setBlocked(i, 96 + t, true);
+                grid.setBlocked(i, 296 + t, true);
+            }
+        }
+        IndexedAStar reference = new IndexedAStar(grid);
+        reference.search(200, 200, 399, 200);
+
+        CorridorAStar search = new CorridorAStar(grid);
+        CompactPath path = search.search(200, 200, 399, 200);
+        assertFalse(search.isFallback(), "Corridor should hold a path");
+        assertEquals(reference.getCost(), search.getCost(), "Corridor path should be optimal here");
+        assertEquals(search.getCost(), path.getCost(), "Path should match its cost");
+        assertTrue(search.getExpandedNodes() + search.getCoarseExpandedNodes() < reference.getExpandedNodes() / 4,
+                "Corridor should expand far fewer nodes: " + search.getExpandedNodes() + " vs " + reference.getExpandedNodes());
+    }
+
+    @Test
+    void testFallsBackWhenCorridorIsTooNarrow() {
+        // a wall with a one-cell hole that cannot be entered, and a real gap far away
+        BitGrid grid = new BitGrid(40, 40);
+        for (int y = 0; y < 39; y++) {
+            for (int x = 19; x <= 21; x++) grid.setBlocked(x, y, true);
+        }
+        grid.setBlocked(20, 3, false);
+        assertFalse(grid.isBlocked(20, 39), "Gap should stay open");
+
+        IndexedAStar reference = new IndexedAStar(grid);
+        reference.search(0, 0, 39, 0);
+        CorridorAStar search = new CorridorAStar(grid);
+        assertNotNull(search.search(0, 0, 39, 0), "Path through the far gap should be found");
+        assertTrue(search.isFallback(), "Narrow corridor should fall back to the whole grid");
+        assertEquals(reference.getCost(), search.getCost(), "Fallback should be optimal");
+    }
+
+    @Test
+    void testUnreachableEnd() {
+        BitGrid grid = new BitGrid(64, 64);
+        for (int x = 32; x < 64; x++) {
+            for (int y = 0; y < 64; y++) grid.setBlocked(x, y, x < 40); // whole blocks of wall
+        }
+        CorridorAStar search = new CorridorAStar(grid);
+        assertNull(search.search(0, 0, 63, 63), "End behind solid blocks should be unreachable");
+        assertEquals(0, search.getExpandedNodes(), "Coarse search alone should prove it");
+        assertEquals(-1, search.getCost(), "There should be no cost");
+    }
+}
@@ -0,0 +1,88 @@
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.FirstMoveDatabase;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import com.rahmatullin.dev.algorithmRealisation.ObstacleChangeSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FirstMoveDatabaseTest {
+
+    @Test
+    void testPathsAreOptimal() {
+        Random random = new Random(17);
+        Grid2D grid2D = new Grid2D(30, 24);
+        ObstacleChangeSet walls = new ObstacleChangeSet();
+        for (int i = 0; i < 150; i++) {
+            walls.block(random.nextInt(30), random.nextInt(24));
+        }
+        grid2D.applyChanges(walls);
+        for (int i = 0; i < 40; i++) {
+            int x = random.nextInt(30), y = random.nextInt(24);
+            if (!grid2D.isBlocked(x, y)) grid2D.setTerrainCost(x, y, 1 + random.nextInt(4));
+        }
+        FirstMoveDatabase database = FirstMoveDatabase.build(grid2D);
+        IndexedAStar reference = new IndexedAStar(grid2D);
+
+        for (int query = 0; query < 300; query++) {
+            int startX = random.nextInt(30), startY = random.nextInt(24);
+            int endX = random.nextInt(30), endY = random.nextInt(24);
+            if (grid2D.isBlocked(startX, startY) || grid2D.isBlocked(endX, endY)) continue;
+
+            CompactPath path = database.path(startX, startY, endX, endY);
+            CompactPath expected = reference.search(startX, startY, endX, endY);
+            if (expected == null) {
+                assertNull(path, "No path should be read when the end is unreachable");
+                assertEquals(FirstMoveDatabase.NONE, database.getFirstMove(startX, startY, endX, endY),
+                        "Unreachable end should have no first move");
+                continue;
+            }
+            assertNotNull(path, "Path should be read when the end is reachable");
+
+            // cost with terrain, which CompactPath.getCost leaves out
+            int cost = 0;
+            int x = startX, y = startY;
+            CompactPath.Cursor cursor = path.cursor();
+            cursor.next();
+            while (cursor.next()) {
+                assertFalse(grid2D.isBlocked(cursor.getX(), cursor.getY()), "Path should not cross walls");
+                boolean diagonal = cursor.getX() != x && cursor.getY() != y;
+                cost += (diagonal ? 14 : 10) * grid2D.getTerrainCost(cursor.getX(), cursor.getY());
+                x = cursor.getX();
+                y = cursor.getY();
+            }
+            assertEquals(endX, x, "Path should end at the target");
+            assertEquals(endY, y, "Path should end at the target");
+            assertEquals(reference.getCost(), cost, "Cost should be optimal");
+        }
+    }
+
+    @Test
+    void testFirstMovesAreCompressed() {
+        // open room with one wall: most targets share the first move of their direction
+        Grid2D grid2D = new Grid2D(32, 32);
+        ObstacleChangeSet wall = new ObstacleChangeSet();
+        for (int y = 0; y < 28; y++) {
+            wall.block(16, y);
+        }
+        grid2D.applyChanges(wall);
+        FirstMoveDatabase database = FirstMoveDatabase.build(grid2D);
+
+        int move = database.getFirstMove(0, 0, 31, 0);
+        assertEquals(1, CompactPath.getDirectionY(move), "First move should head for the gap at the top of the wall");
+        assertEquals(FirstMoveDatabase.NONE, database.getFirstMove(3, 3, 3, 3), "Source itself should have no first move");
+        assertEquals(FirstMoveDatabase.NONE, database.getFirstMove(3, 3, 16, 3), "Wall should have no first move");
+        assertEquals(0, database.getRunCount(16, 3), "Wall should have no runs");
+
+        int freeCells = 32 * 32 - 28;
+        assertTrue(database.getRunCount() * 8 < freeCells * freeCells, "Runs should be far fewer than pairs: "
+                + database.getRunCount());
+        CompactPath path = database.path(0, 0, 31, 0);
+        IndexedAStar reference = new IndexedAStar(grid2D);
+        reference.search(0, 0, 31, 0);
+        assertEquals(reference.getCost(), path.getCost(), "Path around the wall should be optimal");
+    }
+}
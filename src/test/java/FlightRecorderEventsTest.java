@@ -0,0 +1,91 @@
+import com.rahmatullin.dev.algorithmRealisation.AStar;
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.algorithmRealisation.SearchControl;
+import com.rahmatullin.dev.algorithmRealisation.SearchResult;
+import com.rahmatullin.dev.io.CSVExporter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderEventsTest {
+
+    private List<RecordedEvent> events(Recording recording, String name) throws Exception {
+        Path file = Files.createTempFile("events", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(name))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testSearchAndGridEventsAreRecorded() throws Exception {
+        try (Recording recording = new Recording()) {
+            recording.enable("com.rahmatullin.dev.Search");
+            recording.enable("com.rahmatullin.dev.GridBuild");
+            recording.enable("com.rahmatullin.dev.ObstacleGeneration");
+            recording.start();
+
+            Grid2D grid2D = new Grid2D(40, 30);
+            grid2D.createObstaclesInGrid(10);
+            SearchResult<CompactPath> result = new IndexedAStar(grid2D)
+                    .search(0, 0, 0, 5, SearchControl.UNLIMITED); // random walls may block this query
+            Grid2D open = new Grid2D(20, 20);
+            open.createObstaclesInGrid(0);
+            new AStar(new Point(0, 0), new Point(0, 5), open).aStarSearch(false);
+            recording.stop();
+
+            List<RecordedEvent> searches = events(recording, "com.rahmatullin.dev.Search");
+            assertEquals(2, searches.size(), "Both searches should be recorded");
+            RecordedEvent indexed = searches.get(0);
+            assertEquals("IndexedAStar", indexed.getString("engine"), "Engine should be recorded");
+            assertEquals(40, indexed.getInt("gridWidth"), "Grid size should be recorded");
+            assertEquals(5, indexed.getInt("endY"), "Query should be recorded");
+            assertEquals(result.status().name(), indexed.getString("outcome"), "Outcome should be recorded");
+            assertEquals(result.expandedNodes(), indexed.getInt("expandedNodes"), "Expansions should be recorded");
+            assertEquals("AStar", searches.get(1).getString("engine"), "AStar searches should be recorded");
+            assertEquals(6, searches.get(1).getInt("pathLength"), "Straight path should have six cells");
+
+            assertEquals(2, events(recording, "com.rahmatullin.dev.GridBuild").size(), "Both grids should be recorded");
+            List<RecordedEvent> generations = events(recording, "com.rahmatullin.dev.ObstacleGeneration");
+            assertEquals(2, generations.size(), "Both obstacle generations should be recorded");
+            RecordedEvent obstacles = generations.get(0);
+            assertEquals(10, obstacles.getInt("obstacles"), "Obstacle count should be recorded");
+        }
+    }
+
+    @Test
+    void testDisabledEventIsNotRecorded() throws Exception {
+        Path csv = Files.createTempFile("table", ".csv");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.rahmatullin.dev.Export");
+            recording.disable("com.rahmatullin.dev.Search");
+            recording.start();
+
+            CSVExporter.writeFile(new Integer[][]{{1, 2, 3}, {4, 5, 6}}, csv.toString(), ",", null);
+            new IndexedAStar(new Grid2D(10, 10)).search(0, 0, 9, 9);
+            recording.stop();
+
+            assertTrue(events(recording, "com.rahmatullin.dev.Search").isEmpty(), "Disabled event should not be recorded");
+            RecordedEvent export = events(recording, "com.rahmatullin.dev.Export").get(0);
+            assertEquals("CSV", export.getString("format"), "Format should be recorded");
+            assertEquals(3, export.getInt("columns"), "Table size should be recorded");
+            assertEquals(Files.size(csv), export.getLong("bytes"), "File size should be recorded");
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+}
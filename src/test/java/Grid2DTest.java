@@ -39,6 +39,16 @@ import static org.junit.jupiter.api.Assertions.*;
             // Add more assertions to check the initialization of each cell
         }
 
+        @Test
+        void testMaxTerrainCostFollowsSetCosts() {
+            assertEquals(1, grid2D.getMaxTerrainCost(), "Grid without terrain should cost 1 everywhere");
+            grid2D.setTerrainCost(1, 2, 7);
+            grid2D.setTerrainCost(0, 0, 3);
+            assertEquals(7, grid2D.getMaxTerrainCost(), "Largest set cost should be the maximum");
+            grid2D.setTerrainCost(1, 2, 1);
+            assertTrue(grid2D.getMaxTerrainCost() >= 3, "Maximum should stay an upper bound of the costs");
+        }
+
         @Test
         void testToString() {
             String gridString = grid2D.toString();
@@ -0,0 +1,67 @@
+import com.rahmatullin.dev.priorityQueue.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntPriorityQueueTest {
+
+    private final List<Supplier<IntPriorityQueue>> queues = List.of(
+            BinaryIntHeap::new,
+            QuaternaryIntHeap::new,
+            PairingIntHeap::new,
+            () -> new BucketQueueMin(8));
+
+    @Test
+    void testExtractsInKeyOrder() {
+        Random rnd = new Random(42);
+        int[] keys = new int[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = rnd.nextInt(500);
+        }
+        int[] sorted = keys.clone();
+        Arrays.sort(sorted);
+
+        for (Supplier<IntPriorityQueue> supplier : queues) {
+            IntPriorityQueue queue = supplier.get();
+            for (int i = 0; i < keys.length; i++) {
+                queue.add(i, keys[i]); // the id remembers the index of its key
+            }
+            assertEquals(keys.length, queue.getSize(), "Queue should hold all elements");
+            for (int expected : sorted) {
+                assertEquals(expected, queue.getMinKey(), "Smallest key should come first");
+                assertEquals(expected, keys[queue.extract()], "Extracted id should belong to the smallest key");
+            }
+            assertTrue(queue.isEmpty(), "Queue should be empty");
+        }
+    }
+
+    @Test
+    void testInterleavedAddAndExtract() {
+        Random rnd = new Random(7);
+        for (Supplier<IntPriorityQueue> supplier : queues) {
+            IntPriorityQueue queue = supplier.get();
+            java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<>();
+            int base = 0;
+            for (int step = 0; step < 5000; step++) {
+                if (reference.isEmpty() || rnd.nextInt(3) > 0) {
+                    // keys grow slowly like the total costs of a search
+                    int key = base + rnd.nextInt(30);
+                    queue.add(key, key);
+                    reference.add(key);
+                } else {
+                    base = reference.peek();
+                    assertEquals((int) reference.poll(), queue.extract(), "Queue should agree with the reference");
+                }
+            }
+            queue.clear();
+            assertTrue(queue.isEmpty(), "Cleared queue should be empty");
+            assertThrows(NoSuchElementException.class, queue::extract, "Empty queue should underflow");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+import com.rahmatullin.dev.algorithmRealisation.BitGrid;
+import com.rahmatullin.dev.benchmark.BucketReport;
+import com.rahmatullin.dev.benchmark.Scenario;
+import com.rahmatullin.dev.benchmark.ScenarioRunner;
+import com.rahmatullin.dev.io.MovingAiReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovingAiBenchmarkTest {
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testReadsMapAndScenarios() throws Exception {
+        BitGrid map = MovingAiReader.readMap(stream(
+                "type octile\r\nheight 3\r\nwidth 5\r\nmap\r\n.@...\r\n..T.G\r\nS...W\r\n"));
+        assertEquals(5, map.getGridWidth(), "Map width should be the number of columns");
+        assertEquals(3, map.getGridHeight(), "Map height should be the number of lines");
+        assertTrue(map.isBlocked(1, 0), "'@' should be a wall");
+        assertTrue(map.isBlocked(2, 1), "Trees should be walls");
+        assertTrue(map.isBlocked(4, 2), "Water should be a wall");
+        assertFalse(map.isBlocked(4, 1), "'G' should be free");
+        assertFalse(map.isBlocked(0, 2), "'S' should be free");
+
+        List<Scenario> scenarios = MovingAiReader.readScenarios(stream(
+                "version 1\n0\tmaps/test.map\t5\t3\t0\t0\t3\t2\t3.41421356\n1\tmaps/test.map\t5\t3\t0\t2\t4\t0\t4.82842712\n"));
+        assertEquals(2, scenarios.size(), "Every scenario line should be read");
+        assertEquals(new Scenario(1, "maps/test.map", 5, 3, 0, 2, 4, 0, 4.82842712), scenarios.get(1), "Fields should be parsed");
+
+        assertThrows(IOException.class, () -> MovingAiReader.readMap(stream("type octile\nheight 2\nwidth 3\nmap\n...\n..\n")),
+                "Short line should be rejected");
+        IOException longLine = assertThrows(IOException.class,
+                () -> MovingAiReader.readMap(stream("type octile\nheight 2\nwidth 3\nmap\n..@...\n")),
+                "Long line should not spill into the next line");
+        assertEquals("Map line 0 has more than 3 cells", longLine.getMessage(), "Long line should be named");
+    }
+
+    @Test
+    void testRunnerChecksOptimalLengths() throws Exception {
+        BitGrid map = MovingAiReader.readMap(stream("type octile\nheight 6\nwidth 10\nmap\n"
+                + ".@........\n..........\n..........\n..........\n..........\n..........\n"));
+        List<Scenario> scenarios = List.of(
+                new Scenario(0, "test.map", 10, 6, 0, 1, 9, 5, 5 + 4 * Math.sqrt(2)),
+                new Scenario(0, "test.map", 10, 6, 0, 0, 0, 5, 5),
+                new Scenario(1, "test.map", 10, 6, 0, 0, 2, 1, 3), // the reference may not cut the corner of the wall
+                new Scenario(2, "test.map", 10, 6, 0, 0, 9, 0, 8)); // a wrong reference
+
+        List<BucketReport> reports = new ScenarioRunner(map).run(scenarios);
+        assertEquals(3, reports.size(), "There should be one report per bucket");
+        assertTrue(reports.get(0).isAllMatched(), "Optimal paths should match: " + reports.get(0));
+        assertEquals(2, reports.get(0).queries(), "Bucket should hold its queries");
+        assertEquals(1, reports.get(1).shorter(), "Cut corner should be reported as shorter");
+        assertEquals(1, reports.get(2).longer(), "Path longer than the reference should be reported");
+        assertTrue(reports.get(0).meanExpansions() > 0, "Expansions should be reported");
+    }
+}
@@ -0,0 +1,93 @@
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.MultiGoalSearch;
+import com.rahmatullin.dev.algorithmRealisation.ObstacleChangeSet;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiGoalSearchTest {
+
+    private Grid2D grid2D;
+    private List<Point> goals;
+
+    @BeforeEach
+    void setUp() {
+        // An empty 10x10 grid, so the costs are known in closed form
+        grid2D = new Grid2D(10, 10);
+        goals = List.of(new Point(9, 9), new Point(3, 0), new Point(0, 5));
+    }
+
+    @Test
+    void testAllGoalsReachedNearestFirst() {
+        MultiGoalSearch search = new MultiGoalSearch(new Point(0, 0), goals, grid2D);
+        LinkedHashMap<Point, Integer> costs = search.search();
+
+        assertEquals(3, costs.size(), "All goals should be reached");
+        assertEquals(List.of(new Point(3, 0), new Point(0, 5), new Point(9, 9)), new ArrayList<>(costs.keySet()),
+                "Goals should be reached nearest first");
+        assertEquals(30, (int) costs.get(new Point(3, 0)), "Three straight moves should cost 30");
+        assertEquals(50, (int) costs.get(new Point(0, 5)), "Five straight moves should cost 50");
+        assertEquals(126, (int) costs.get(new Point(9, 9)), "Nine diagonal moves should cost 126");
+    }
+
+    @Test
+    void testPathsToEveryGoal() {
+        MultiGoalSearch search = new MultiGoalSearch(new Point(0, 0), goals, grid2D);
+        search.search();
+
+        for (Point goal : goals) {
+            ArrayList<Point> path = search.getPath(goal);
+            assertNotNull(path, "Path should not be null");
+            assertEquals(new Point(0, 0), path.get(0), "Path should start at the start point");
+            assertEquals(goal, path.get(path.size() - 1), "Path should end at the goal");
+        }
+    }
+
+    @Test
+    void testStopsAfterFirstGoals() {
+        MultiGoalSearch search = new MultiGoalSearch(new Point(0, 0), goals, grid2D);
+        LinkedHashMap<Point, Integer> costs = search.search(1);
+
+        assertEquals(1, costs.size(), "Search should stop after the first goal");
+        assertTrue(costs.containsKey(new Point(3, 0)), "The nearest goal should be reached first");
+        assertEquals(2, search.getPendingGoals().size(), "Other goals should stay pending");
+        assertNull(search.getPath(new Point(9, 9)), "There should be no path to an unreached goal");
+    }
+
+    @Test
+    void testBlockedStartHasNoPaths() {
+        grid2D.applyChanges(new ObstacleChangeSet().block(0, 0));
+        MultiGoalSearch search = new MultiGoalSearch(new Point(0, 0), goals, grid2D);
+
+        assertTrue(search.search().isEmpty(), "No goal should be reached from a blocked start");
+        assertEquals(3, search.getPendingGoals().size(), "All goals should stay pending");
+        assertEquals(Point.Status.BLOCK, grid2D.getGrid()[0][0].status, "Blocked start should stay blocked");
+    }
+
+    @Test
+    void testRepeatedSearchStartsOver() {
+        MultiGoalSearch search = new MultiGoalSearch(new Point(0, 0), goals, grid2D);
+        search.search(1);
+        LinkedHashMap<Point, Integer> costs = search.search();
+
+        assertEquals(3, costs.size(), "Second search should reach all goals again");
+        assertEquals(126, (int) costs.get(new Point(9, 9)), "Second search should find the same costs");
+        assertEquals(10, search.getPath(new Point(9, 9)).size(), "Path should only hold points of the second search");
+
+        search.reset();
+        for (Point[] column : grid2D.getGrid()) {
+            for (Point point : column) {
+                assertNull(point.parent, "Reset should clear the parents");
+                assertEquals(0, point.gCost, "Reset should clear the costs");
+                assertEquals(Point.Status.CLOSED, point.status, "Reset should restore the status");
+            }
+        }
+        assertEquals(3, search.getPendingGoals().size(), "Reset should forget the reached goals");
+    }
+}
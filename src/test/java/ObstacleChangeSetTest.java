@@ -0,0 +1,72 @@
+import com.rahmatullin.dev.algorithmRealisation.DirtyRegion;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.ObstacleChangeSet;
+import com.rahmatullin.dev.algorithmRealisation.VersionedGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObstacleChangeSetTest {
+
+    @Test
+    void testBatchIsAppliedAndPublishedOnce() {
+        Grid2D grid2D = new Grid2D(200, 200);
+        List<DirtyRegion> received = new ArrayList<>();
+        grid2D.addChangeListener(received::add);
+
+        ObstacleChangeSet changes = new ObstacleChangeSet()
+                .block(3, 4)
+                .block(70, 150)
+                .block(5, 5).unblock(5, 5) // last event of a cell wins
+                .block(3, 4);              // already a wall after the first event
+        DirtyRegion region = grid2D.applyChanges(changes);
+
+        assertTrue(grid2D.isBlocked(3, 4), "Cell should be blocked");
+        assertTrue(grid2D.isBlocked(70, 150), "Cell should be blocked");
+        assertFalse(grid2D.isBlocked(5, 5), "Cell should be free again");
+        assertEquals(1, grid2D.getVersion(), "Version should be bumped once per batch");
+        assertEquals(List.of(region), received, "Listener should receive the region once");
+        assertEquals(2, region.getBlockedCells(), "Two cells should become walls");
+        assertEquals(3, region.getMinX(), "Bounding box should start at the first change");
+        assertEquals(150, region.getMaxY(), "Bounding box should end at the last change");
+        assertEquals(2, region.getDirtyTileCount(), "Only the tiles of the net changes should be dirty");
+        assertTrue(region.intersects(60, 140, 80, 160), "Rectangle around a change should be dirty");
+        assertFalse(region.intersects(0, 70, 40, 120), "Rectangle inside the bounding box but in clean tiles should be clean");
+        assertEquals(2, grid2D.getGridObstacles().size(), "Obstacle list should follow the batch");
+    }
+
+    @Test
+    void testNoOpBatchPublishesNothing() {
+        Grid2D grid2D = new Grid2D(10, 10);
+        List<DirtyRegion> received = new ArrayList<>();
+        grid2D.addChangeListener(received::add);
+
+        assertNull(grid2D.applyChanges(new ObstacleChangeSet().unblock(1, 1)), "Nothing should change");
+        assertEquals(0, grid2D.getVersion(), "Version should not change");
+        assertTrue(received.isEmpty(), "Listener should not be called");
+    }
+
+    @Test
+    void testInvalidBatchChangesNothing() {
+        Grid2D grid2D = new Grid2D(10, 10);
+        ObstacleChangeSet changes = new ObstacleChangeSet().block(1, 1).block(10, 0);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> grid2D.applyChanges(changes));
+        assertFalse(grid2D.isBlocked(1, 1), "Valid events of a rejected batch should not be applied");
+    }
+
+    @Test
+    void testVersionedGridFollowsBatches() {
+        Grid2D grid2D = new Grid2D(50, 50);
+        VersionedGrid versionedGrid = new VersionedGrid(grid2D);
+        ObstacleChangeSet changes = new ObstacleChangeSet().block(10, 10).block(11, 10);
+        grid2D.applyChanges(changes);
+        versionedGrid.update(changes);
+
+        assertTrue(versionedGrid.snapshot().isBlocked(11, 10), "Snapshot should see the batch");
+        assertEquals(1, versionedGrid.getVersion(), "Snapshot version should be bumped once");
+    }
+}
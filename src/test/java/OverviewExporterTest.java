@@ -0,0 +1,83 @@
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import com.rahmatullin.dev.algorithmRealisation.ObstacleChangeSet;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.io.OverviewExporter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverviewExporterTest {
+
+    @Test
+    void testBlocksAggregateWallDensity() {
+        Grid2D grid2D = new Grid2D(100, 60);
+        ObstacleChangeSet walls = new ObstacleChangeSet();
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) walls.block(x, y); // one full block
+        }
+        for (int y = 10; y < 15; y++) walls.block(0, y); // 5 of 100 cells
+        grid2D.applyChanges(walls);
+        grid2D.getGrid()[95][55].status = Point.Status.PATH;
+
+        OverviewExporter overview = OverviewExporter.build(grid2D, 10);
+        assertEquals(10, overview.getRows(0), "Level 0 should have one row per ten x");
+        assertEquals(6, overview.getColumns(0), "Level 0 should have one column per ten y");
+        assertEquals(OverviewExporter.WALL, overview.getPixel(0, 0, 0), "Full block should be a wall");
+        assertEquals((5 * OverviewExporter.WALL + 50) / 100, overview.getPixel(0, 0, 1), "Density should be the share of walls");
+        assertEquals(0, overview.getPixel(0, 5, 2), "Free block should be empty");
+        assertEquals(OverviewExporter.PATH, overview.getPixel(0, 9, 5), "Path should win over density");
+
+        int top = overview.getLevelCount() - 1;
+        assertEquals(1, overview.getRows(top), "Pyramid should end in one pixel");
+        assertEquals(1, overview.getColumns(top), "Pyramid should end in one pixel");
+        assertEquals(OverviewExporter.PATH, overview.getPixel(top, 0, 0), "Path should be kept at every level");
+    }
+
+    @Test
+    void testPathOnAnyGridAndTiles() throws Exception {
+        Grid2D grid2D = new Grid2D(300, 200);
+        ObstacleChangeSet walls = new ObstacleChangeSet();
+        for (int x = 30; x < 300; x += 30) {
+            // wall columns with a gap at the bottom and the top in turn, so the path winds through them
+            int gapY = x % 60 == 0 ? 190 : 0;
+            for (int y = 0; y < 200; y++) {
+                if (y < gapY || y >= gapY + 10) walls.block(x, y);
+            }
+        }
+        grid2D.applyChanges(walls);
+        CompactPath path = new IndexedAStar(grid2D).search(0, 0, 299, 199);
+        assertNotNull(path, "Path should wind through the gaps");
+        OverviewExporter overview = OverviewExporter.build(grid2D, 4, path);
+        assertEquals(OverviewExporter.PATH, overview.getPixel(0, 0, 0), "Start block should be on the path");
+        assertEquals(OverviewExporter.PATH, overview.getPixel(0, 74, 49), "End block should be on the path");
+
+        Path directory = Files.createTempDirectory("overview");
+        try {
+            int tiles = overview.writeTiles(directory, 32);
+            int expected = 0;
+            for (int level = 0; level < overview.getLevelCount(); level++) {
+                expected += ((overview.getRows(level) + 31) / 32) * ((overview.getColumns(level) + 31) / 32);
+            }
+            assertEquals(expected, tiles, "Every level should be cut into tiles");
+            byte[] corner = Files.readAllBytes(directory.resolve("tile_0_2_1.pgm"));
+            String header = "P5\n18 11\n255\n";
+            assertEquals(header, new String(corner, 0, header.length(), StandardCharsets.US_ASCII), "Edge tile should be cropped");
+            assertEquals(header.length() + 18 * 11, corner.length, "Tile should hold one byte per pixel");
+
+            overview.writeLevel(0, directory.resolve("level0.pgm"));
+            assertEquals((long) "P5\n50 75\n255\n".length() + 75 * 50, Files.size(directory.resolve("level0.pgm")), "Level should be one image");
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+            }
+        }
+    }
+}
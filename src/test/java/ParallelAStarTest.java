@@ -0,0 +1,66 @@
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.MultiGoalSearch;
+import com.rahmatullin.dev.algorithmRealisation.ObstacleChangeSet;
+import com.rahmatullin.dev.algorithmRealisation.ParallelAStar;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelAStarTest {
+
+    @Test
+    void testFindsOptimalCost() throws InterruptedException {
+        Random random = new Random(11);
+        int found = 0;
+        for (int run = 0; run < 10; run++) {
+            Grid2D grid2D = new Grid2D(60, 60);
+            grid2D.createObstaclesInGrid(0);
+            ObstacleChangeSet walls = new ObstacleChangeSet();
+            for (int i = 0; i < 900; i++) {
+                walls.block(random.nextInt(60), random.nextInt(60)); // About a quarter of the cells are walls
+            }
+            walls.unblock(0, 0);
+            walls.unblock(59, 59);
+            grid2D.applyChanges(walls);
+            Point start = grid2D.getGrid()[0][0];
+            Point end = grid2D.getGrid()[59][59];
+
+            ArrayList<Point> parallelPath = new ParallelAStar(start, end, grid2D, 4).search();
+            int parallelCost = end.gCost;
+            // Uniform-cost search is exact, so it serves as the reference
+            Integer optimalCost = new MultiGoalSearch(start, List.of(end), grid2D).search().get(end);
+
+            if (optimalCost == null) {
+                assertNull(parallelPath, "Parallel search should not find a path either");
+                continue;
+            }
+            assertNotNull(parallelPath, "Parallel search should find a path");
+            found++;
+            assertEquals((int) optimalCost, parallelCost, "Parallel search should find an optimal path");
+            assertEquals(start, parallelPath.get(0), "Path should start at the start point");
+            assertEquals(end, parallelPath.get(parallelPath.size() - 1), "Path should end at the end point");
+            for (int i = 1; i < parallelPath.size(); i++) {
+                Point a = parallelPath.get(i - 1);
+                Point b = parallelPath.get(i);
+                assertTrue(Math.abs(a.x - b.x) <= 1 && Math.abs(a.y - b.y) <= 1, "Path steps should be adjacent");
+                assertNotEquals(Point.Status.BLOCK, b.status, "Path should not cross walls");
+            }
+        }
+        assertTrue(found > 0, "Some of the seeded maps should have a path");
+    }
+
+    @Test
+    void testStartEqualsEnd() throws InterruptedException {
+        Grid2D grid2D = new Grid2D(10, 10);
+        Point point = grid2D.getGrid()[3][3];
+
+        ArrayList<Point> path = new ParallelAStar(point, point, grid2D, 3).search();
+        assertNotNull(path, "Path should not be null");
+        assertEquals(1, path.size(), "Path should contain only the start/end point");
+    }
+}
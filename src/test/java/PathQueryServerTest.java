@@ -0,0 +1,85 @@
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import com.rahmatullin.dev.algorithmRealisation.VersionedGrid;
+import com.rahmatullin.dev.service.PathQuery;
+import com.rahmatullin.dev.service.PathQueryCodec;
+import com.rahmatullin.dev.service.PathQueryExecutor;
+import com.rahmatullin.dev.service.PathQueryServer;
+import com.rahmatullin.dev.service.PathResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathQueryServerTest {
+
+    @Test
+    void testExecutorDeduplicatesEqualQueries() throws Exception {
+        Grid2D grid2D = new Grid2D(60, 60);
+        try (PathQueryExecutor executor = new PathQueryExecutor(new VersionedGrid(grid2D), 2, 64)) {
+            List<CompletableFuture<PathResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(executor.submit(new PathQuery(0, 0, 59, 59)));
+            }
+            for (CompletableFuture<PathResult> future : futures) {
+                assertEquals(59 * 14, future.get().cost(), "Every query should get the diagonal path");
+            }
+            assertEquals(100, executor.getExecutedQueries() + executor.getDeduplicatedQueries(),
+                    "Every query should be either searched or deduplicated");
+            assertThrows(IllegalArgumentException.class, () -> executor.submit(new PathQuery(0, 0, 60, 0)));
+        }
+    }
+
+    @Test
+    void testJsonAndBinaryQueries() throws Exception {
+        Grid2D grid2D = new Grid2D(40, 40);
+        grid2D.createObstaclesInGrid(300);
+        VersionedGrid versionedGrid = new VersionedGrid(grid2D);
+        IndexedAStar reference = new IndexedAStar(versionedGrid.snapshot());
+
+        try (PathQueryExecutor executor = new PathQueryExecutor(versionedGrid, 2, 64);
+             PathQueryServer server = new PathQueryServer(executor, 0)) {
+            server.start();
+            HttpClient client = HttpClient.newHttpClient();
+            URI uri = URI.create("http://127.0.0.1:" + server.getPort() + "/path");
+
+            String single = client.send(HttpRequest.newBuilder(uri)
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"startX\":0,\"startY\":0,\"endX\":39,\"endY\":39}"))
+                    .build(), HttpResponse.BodyHandlers.ofString()).body();
+            CompactPath expected = reference.search(0, 0, 39, 39);
+            assertTrue(single.contains("\"cost\":" + reference.getCost()), "Single query should return the cost: " + single);
+
+            String batch = client.send(HttpRequest.newBuilder(uri)
+                    .POST(HttpRequest.BodyPublishers.ofString("[{\"startX\":0,\"startY\":0,\"endX\":39,\"endY\":39},"
+                            + "{\"startX\":5,\"startY\":5,\"endX\":5,\"endY\":5}]"))
+                    .build(), HttpResponse.BodyHandlers.ofString()).body();
+            assertTrue(batch.startsWith("[") && batch.contains("\"path\":[[5,5]]"), "Batch should return an array: " + batch);
+
+            int status = client.send(HttpRequest.newBuilder(uri)
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"startX\":0}"))
+                    .build(), HttpResponse.BodyHandlers.ofString()).statusCode();
+            assertEquals(400, status, "Incomplete query should be rejected");
+
+            ByteArrayOutputStream request = new ByteArrayOutputStream();
+            PathQueryCodec.writeBinary(new DataOutputStream(request), new PathQuery(0, 0, 39, 39));
+            byte[] response = client.send(HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/octet-stream")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(request.toByteArray()))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray()).body();
+            CompactPath path = PathQueryCodec.readBinaryPath(new DataInputStream(new ByteArrayInputStream(response)));
+            assertEquals(expected, path, "Binary query should return the same path");
+        }
+    }
+}
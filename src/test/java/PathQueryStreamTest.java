@@ -0,0 +1,75 @@
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import com.rahmatullin.dev.algorithmRealisation.VersionedGrid;
+import com.rahmatullin.dev.service.PathQuery;
+import com.rahmatullin.dev.service.PathQueryCodec;
+import com.rahmatullin.dev.service.PathQueryExecutor;
+import com.rahmatullin.dev.service.PathQueryStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathQueryStreamTest {
+
+    @Test
+    void testTextResultsKeepInputOrder() throws Exception {
+        Grid2D grid2D = new Grid2D(30, 30);
+        grid2D.createObstaclesInGrid(150);
+        VersionedGrid versionedGrid = new VersionedGrid(grid2D);
+        IndexedAStar reference = new IndexedAStar(versionedGrid.snapshot());
+
+        Random random = new Random(7);
+        StringBuilder input = new StringBuilder();
+        int[] expectedCosts = new int[500];
+        for (int i = 0; i < expectedCosts.length; i++) {
+            int sx = random.nextInt(30), sy = random.nextInt(30), ex = random.nextInt(30), ey = random.nextInt(30);
+            input.append(sx).append(' ').append(sy).append(' ').append(ex).append(' ').append(ey).append('\n');
+            reference.search(sx, sy, ex, ey);
+            expectedCosts[i] = reference.getCost();
+        }
+        input.append('\n').append("1 2 3\n"); // a blank line is skipped, a broken query gets an error line
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PathQueryExecutor executor = new PathQueryExecutor(versionedGrid, 4, 64)) {
+            long answered = new PathQueryStream(executor, false, 32)
+                    .run(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), output);
+            assertEquals(501, answered, "Every query line should be answered");
+        }
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(501, lines.length, "There should be one result line per query");
+        for (int i = 0; i < expectedCosts.length; i++) {
+            assertEquals(expectedCosts[i], Integer.parseInt(lines[i].split(" ")[0]), "Result " + i + " should be in input order");
+        }
+        assertTrue(lines[500].startsWith("error"), "Broken query should get an error line");
+    }
+
+    @Test
+    void testBinaryProtocol() throws Exception {
+        Grid2D grid2D = new Grid2D(20, 20);
+        VersionedGrid versionedGrid = new VersionedGrid(grid2D);
+        ByteArrayOutputStream input = new ByteArrayOutputStream();
+        DataOutputStream queries = new DataOutputStream(input);
+        PathQueryCodec.writeBinary(queries, new PathQuery(0, 0, 19, 0));
+        PathQueryCodec.writeBinary(queries, new PathQuery(0, 0, 25, 0)); // outside the grid
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PathQueryExecutor executor = new PathQueryExecutor(versionedGrid, 2, 16)) {
+            new PathQueryStream(executor, true, 16).run(new ByteArrayInputStream(input.toByteArray()), output);
+        }
+
+        DataInputStream results = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+        CompactPath path = PathQueryCodec.readBinaryPath(results);
+        assertEquals(20, path.getCellCount(), "Straight path should have 20 cells");
+        assertEquals(PathQueryStream.ERROR_COST, results.readInt(), "Invalid query should get the error cost");
+        assertEquals(0, results.readInt(), "Invalid query should get an empty path");
+    }
+}
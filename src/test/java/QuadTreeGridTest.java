@@ -0,0 +1,100 @@
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.MultiGoalSearch;
+import com.rahmatullin.dev.algorithmRealisation.ObstacleChangeSet;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.algorithmRealisation.QuadTreeAStar;
+import com.rahmatullin.dev.algorithmRealisation.QuadTreeGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadTreeGridTest {
+
+    @Test
+    void testLookupMatchesGrid() {
+        Grid2D grid2D = new Grid2D(37, 90);
+        grid2D.createObstaclesInGrid(400);
+        QuadTreeGrid quadTree = QuadTreeGrid.of(grid2D);
+
+        for (int x = 0; x < 37; x++) {
+            for (int y = 0; y < 90; y++) {
+                assertEquals(grid2D.isBlocked(x, y), quadTree.isBlocked(x, y), "Cell (" + x + ", " + y + ") should match");
+            }
+        }
+    }
+
+    @Test
+    void testUniformSquaresCollapse() {
+        QuadTreeGrid quadTree = new QuadTreeGrid(1024, 1024);
+        assertEquals(0, quadTree.getNodeCount(), "Empty square map should be a single leaf");
+        assertEquals(1024, quadTree.getLeafSize(500, 500), "Single leaf should cover the map");
+
+        quadTree.setBlocked(700, 300, true);
+        assertTrue(quadTree.isBlocked(700, 300), "Cell should be blocked");
+        assertEquals(10, quadTree.getNodeCount(), "One wall should split one node per level");
+        assertEquals(512, quadTree.getLeafSize(100, 100), "Far quadrant should stay one leaf");
+
+        quadTree.setBlocked(700, 300, false);
+        assertEquals(0, quadTree.getNodeCount(), "Clearing the wall should merge the tree back");
+
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 64; y++) {
+                quadTree.setBlocked(x, y, true);
+            }
+        }
+        assertEquals(64, quadTree.getLeafSize(10, 10), "Blocked square should collapse into one leaf");
+    }
+
+    @Test
+    void testSearchIsOptimal() {
+        Random random = new Random(3);
+        for (int run = 0; run < 10; run++) {
+            // clustered obstacles: a few random wall blocks on open ground
+            Grid2D grid2D = new Grid2D(64, 80);
+            ObstacleChangeSet walls = new ObstacleChangeSet();
+            for (int block = 0; block < 12; block++) {
+                int bx = random.nextInt(56), by = random.nextInt(72);
+                for (int i = 0; i < 8; i++) {
+                    walls.block(bx + i, by + random.nextInt(8));
+                    walls.block(bx + random.nextInt(8), by + i);
+                }
+            }
+            grid2D.applyChanges(walls);
+            Point start = grid2D.getGrid()[0][0];
+            Point end = grid2D.getGrid()[63][79];
+            if (start.status == Point.Status.BLOCK || end.status == Point.Status.BLOCK) continue;
+
+            QuadTreeAStar search = new QuadTreeAStar(QuadTreeGrid.of(grid2D));
+            CompactPath path = search.search(0, 0, 63, 79);
+            Integer expected = new MultiGoalSearch(start, List.of(end), grid2D).search().get(end);
+
+            if (expected == null) {
+                assertNull(path, "No path should be found when the end is unreachable");
+                continue;
+            }
+            assertEquals((int) expected, search.getCost(), "Cost should be optimal");
+            assertEquals(search.getCost(), path.getCost(), "Path should be expanded into adjacent cells");
+            CompactPath.Cursor cursor = path.cursor();
+            while (cursor.next()) {
+                assertFalse(grid2D.isBlocked(cursor.getX(), cursor.getY()), "Path should not cross walls");
+            }
+        }
+    }
+
+    @Test
+    void testSearchSkipsEmptyQuadrants() {
+        QuadTreeGrid quadTree = new QuadTreeGrid(4096, 4096);
+        quadTree.setBlocked(2000, 2000, true);
+        QuadTreeAStar search = new QuadTreeAStar(quadTree);
+        CompactPath path = search.search(0, 0, 4095, 4095);
+
+        assertEquals(4094 * 14 + 2 * 10, search.getCost(), "Path should be the diagonal with one detour around the wall");
+        assertEquals(search.getCost(), path.getCost(), "Jumps should be expanded into adjacent cells");
+        assertTrue(search.getExpandedNodes() < 1000, "Empty quadrants should be crossed in few expansions: "
+                + search.getExpandedNodes());
+    }
+}
@@ -0,0 +1,82 @@
+import com.rahmatullin.dev.algorithmRealisation.AStar;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.ObstacleChangeSet;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.algorithmRealisation.SearchControl;
+import com.rahmatullin.dev.algorithmRealisation.SearchResult;
+import com.rahmatullin.dev.io.ReplayRenderer;
+import com.rahmatullin.dev.io.SearchRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayRendererTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("replay");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void testRecordedSearchIsReplayed() throws Exception {
+        Grid2D grid2D = new Grid2D(30, 30);
+        grid2D.createObstaclesInGrid(0);
+        grid2D.applyChanges(new ObstacleChangeSet().block(5, 5));
+        Path log = directory.resolve("search.asr");
+
+        SearchResult<ArrayList<Point>> result;
+        long events;
+        try (SearchRecorder recorder = new SearchRecorder(log, grid2D)) {
+            AStar aStar = new AStar(new Point(0, 0), new Point(29, 29), grid2D);
+            aStar.setRecorder(recorder);
+            result = aStar.search(SearchControl.UNLIMITED);
+            events = recorder.getEventCount();
+        }
+
+        ReplayRenderer renderer = ReplayRenderer.load(log);
+        assertEquals(events, renderer.getEventCount(), "Every event should be read back");
+        assertTrue(events > result.expandedNodes() + result.path().size(), "Expansions, openings and the path should be logged");
+        assertEquals(30, renderer.getGridWidth(), "Grid size should be read back");
+
+        int frames = renderer.renderFrames(directory.resolve("frames"), 50, 2, 4);
+        assertEquals((renderer.getEventCount() + 49) / 50, frames, "There should be one frame per 50 events");
+        byte[] last = Files.readAllBytes(directory.resolve("frames").resolve(String.format("frame%06d.ppm", frames - 1)));
+        String header = "P6\n60 60\n255\n";
+        assertEquals(header, new String(last, 0, header.length(), StandardCharsets.US_ASCII), "Frame should be a scaled P6 image");
+        assertEquals(header.length() + 60 * 60 * 3, last.length, "Frame should hold every pixel");
+
+        int wall = header.length() + (5 * 2 * 60 + 5 * 2) * 3; // pixel of cell (5, 5)
+        assertEquals(221, last[wall] & 0xFF, "Wall should be drawn red");
+        assertEquals(177, last[header.length() + 1] & 0xFF, "Start should be drawn on the path");
+        byte[] first = Files.readAllBytes(directory.resolve("frames").resolve("frame000000.ppm"));
+        assertEquals(177, last[last.length - 2] & 0xFF, "End should be on the path in the last frame");
+        assertNotEquals(177, first[first.length - 2] & 0xFF, "End should not be on the path in the first frame");
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws Exception {
+        Path file = directory.resolve("other.asr");
+        Files.writeString(file, "not a log at all");
+        assertThrows(java.io.IOException.class, () -> ReplayRenderer.load(file), "Wrong magic should be rejected");
+    }
+}
@@ -0,0 +1,109 @@
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import com.rahmatullin.dev.algorithmRealisation.ObstacleChangeSet;
+import com.rahmatullin.dev.algorithmRealisation.RectangleDecomposition;
+import com.rahmatullin.dev.algorithmRealisation.RsrAStar;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RsrAStarTest {
+
+    @Test
+    void testDecompositionCoversFreeCells() {
+        Grid2D grid2D = clusteredGrid(new Random(5), 50, 70);
+        grid2D.setTerrainCost(10, 10, 3);
+        RectangleDecomposition decomposition = new RectangleDecomposition(grid2D);
+
+        int[] covered = new int[50 * 70];
+        for (int rectangle = 0; rectangle < decomposition.getRectangleCount(); rectangle++) {
+            int[] bounds = decomposition.getBounds(rectangle);
+            for (int x = bounds[0]; x <= bounds[2]; x++) {
+                for (int y = bounds[1]; y <= bounds[3]; y++) {
+                    assertFalse(grid2D.isBlocked(x, y), "Rectangle should hold no wall");
+                    assertEquals(rectangle, decomposition.getRectangle(x, y), "Cell should belong to its rectangle");
+                    covered[x * 70 + y]++;
+                }
+            }
+        }
+        for (int x = 0; x < 50; x++) {
+            for (int y = 0; y < 70; y++) {
+                int expected = grid2D.isBlocked(x, y) || grid2D.getTerrainCost(x, y) != 1 ? 0 : 1;
+                assertEquals(expected, covered[x * 70 + y], "Cell (" + x + ", " + y + ") should be covered once if free");
+            }
+        }
+        assertEquals(RectangleDecomposition.NONE, decomposition.getRectangle(10, 10), "Costly cell should be searched alone");
+    }
+
+    @Test
+    void testSearchIsOptimal() {
+        Random random = new Random(11);
+        for (int run = 0; run < 10; run++) {
+            Grid2D grid2D = clusteredGrid(random, 64, 80);
+            for (int i = 0; i < 40; i++) {
+                int x = random.nextInt(64), y = random.nextInt(80);
+                if (!grid2D.isBlocked(x, y)) grid2D.setTerrainCost(x, y, 1 + random.nextInt(4));
+            }
+            int startX = random.nextInt(64), startY = random.nextInt(80);
+            int endX = random.nextInt(64), endY = random.nextInt(80);
+            if (grid2D.isBlocked(startX, startY) || grid2D.isBlocked(endX, endY)) continue;
+
+            RsrAStar search = new RsrAStar(grid2D);
+            CompactPath path = search.search(startX, startY, endX, endY);
+            IndexedAStar reference = new IndexedAStar(grid2D);
+            CompactPath expected = reference.search(startX, startY, endX, endY);
+
+            if (expected == null) {
+                assertNull(path, "No path should be found when the end is unreachable");
+                continue;
+            }
+            assertEquals(reference.getCost(), search.getCost(), "Cost should be optimal");
+            assertEquals(search.getCost(), path.getCost(), "Macro-edges should be expanded into adjacent cells");
+            CompactPath.Cursor cursor = path.cursor();
+            while (cursor.next()) {
+                assertFalse(grid2D.isBlocked(cursor.getX(), cursor.getY()), "Path should not cross walls");
+            }
+        }
+    }
+
+    @Test
+    void testSearchExpandsOnlyPerimeters() {
+        // two open rooms joined by a door in the middle of a wall
+        Grid2D grid2D = new Grid2D(200, 200);
+        ObstacleChangeSet wall = new ObstacleChangeSet();
+        for (int y = 0; y < 200; y++) {
+            if (y != 100) wall.block(100, y);
+        }
+        grid2D.applyChanges(wall);
+
+        RsrAStar search = new RsrAStar(grid2D);
+        CompactPath path = search.search(5, 7, 190, 180);
+        IndexedAStar reference = new IndexedAStar(grid2D);
+        reference.search(5, 7, 190, 180);
+
+        assertEquals(reference.getCost(), search.getCost(), "Cost should be optimal");
+        assertEquals(search.getCost(), path.getCost(), "Macro-edges should be expanded into adjacent cells");
+        assertTrue(search.getExpandedNodes() * 10 < reference.getExpandedNodes(), "Room interiors should be skipped: "
+                + search.getExpandedNodes() + " vs " + reference.getExpandedNodes());
+    }
+
+    /**
+     * Builds a grid of open ground with a few random wall blocks.
+     */
+    private static Grid2D clusteredGrid(Random random, int width, int height) {
+        Grid2D grid2D = new Grid2D(width, height);
+        ObstacleChangeSet walls = new ObstacleChangeSet();
+        for (int block = 0; block < 12; block++) {
+            int bx = random.nextInt(width - 8), by = random.nextInt(height - 8);
+            for (int i = 0; i < 8; i++) {
+                walls.block(bx + i, by + random.nextInt(8));
+                walls.block(bx + random.nextInt(8), by + i);
+            }
+        }
+        grid2D.applyChanges(walls);
+        return grid2D;
+    }
+}
@@ -0,0 +1,77 @@
+import com.rahmatullin.dev.algorithmRealisation.AStar;
+import com.rahmatullin.dev.algorithmRealisation.CancellationToken;
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import com.rahmatullin.dev.algorithmRealisation.ObstacleChangeSet;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.algorithmRealisation.SearchControl;
+import com.rahmatullin.dev.algorithmRealisation.SearchResult;
+import com.rahmatullin.dev.algorithmRealisation.SearchStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchControlTest {
+
+    /**
+     * Creates a grid whose cell (150, 150) is walled in, so a search for it expands every other cell.
+     */
+    private Grid2D walledInGrid() {
+        Grid2D grid2D = new Grid2D(200, 200);
+        ObstacleChangeSet walls = new ObstacleChangeSet();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx != 0 || dy != 0) walls.block(150 + dx, 150 + dy);
+            }
+        }
+        grid2D.applyChanges(walls);
+        return grid2D;
+    }
+
+    @Test
+    void testCancelledSearchReturnsPartialPath() {
+        Grid2D grid2D = walledInGrid();
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        SearchResult<CompactPath> result = new IndexedAStar(grid2D)
+                .search(10, 10, 150, 150, new SearchControl(Long.MAX_VALUE, token, 64));
+
+        assertEquals(SearchStatus.CANCELLED, result.status(), "Search should be cancelled");
+        assertEquals(64, result.expandedNodes(), "Search should stop at the first check");
+        assertEquals(10, result.path().getStartX(), "Partial path should begin at the start");
+        assertTrue(result.cost() > 0, "Partial path should lead towards the end");
+    }
+
+    @Test
+    void testDeadlineStopsBothEngines() {
+        Grid2D grid2D = walledInGrid();
+        SearchControl expired = SearchControl.timeout(Duration.ZERO, null);
+
+        SearchResult<CompactPath> indexed = new IndexedAStar(grid2D).search(10, 10, 150, 150, expired);
+        assertEquals(SearchStatus.DEADLINE_EXCEEDED, indexed.status(), "Indexed search should hit the deadline");
+
+        for (AStar.OpenSetType type : AStar.OpenSetType.values()) {
+            Grid2D grid = walledInGrid();
+            SearchResult<ArrayList<Point>> result = new AStar(new Point(10, 10), new Point(150, 150), grid, type).search(expired);
+            assertEquals(SearchStatus.DEADLINE_EXCEEDED, result.status(), type + " should hit the deadline");
+            assertTrue(result.status().isStopped(), "Status should report a stop");
+            assertEquals(grid.getGrid()[10][10], result.path().get(0), type + " partial path should begin at the start");
+        }
+    }
+
+    @Test
+    void testUnlimitedSearchReportsNoPath() {
+        Grid2D grid2D = walledInGrid();
+        SearchResult<CompactPath> result = new IndexedAStar(grid2D)
+                .search(10, 10, 150, 150, SearchControl.cancellable(new CancellationToken()));
+
+        assertEquals(SearchStatus.NO_PATH, result.status(), "Walled-in end should be unreachable");
+        assertNull(result.path(), "There should be no path");
+        assertEquals(200 * 200 - 9, result.expandedNodes(), "Every reachable cell should be expanded");
+    }
+}
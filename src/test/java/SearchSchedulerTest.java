@@ -0,0 +1,76 @@
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import com.rahmatullin.dev.algorithmRealisation.ResumableSearch;
+import com.rahmatullin.dev.algorithmRealisation.SearchScheduler;
+import com.rahmatullin.dev.algorithmRealisation.SearchStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchSchedulerTest {
+
+    @Test
+    void testSteppedSearchMatchesSingleCall() {
+        for (int run = 0; run < 10; run++) {
+            Grid2D grid2D = new Grid2D(50, 50);
+            grid2D.createObstaclesInGrid(600);
+            if (grid2D.isBlocked(0, 0)) continue;
+            IndexedAStar reference = new IndexedAStar(grid2D);
+            reference.search(0, 0, 49, 49);
+
+            ResumableSearch search = new ResumableSearch(grid2D, 0, 0, 49, 49);
+            int steps = 0;
+            while (search.step(10) == SearchStatus.IN_PROGRESS) {
+                assertEquals(0, search.getPath().getStartX(), "Partial path should begin at the start");
+                steps++;
+            }
+            assertEquals(reference.getCost(), search.getCost(), "Stepped search should find the same cost");
+            assertEquals(reference.getExpandedNodes(), search.getExpandedNodes(), "Stepping should not change the work");
+            assertTrue(steps >= search.getExpandedNodes() / 10 - 1, "Every step should respect the budget");
+        }
+    }
+
+    @Test
+    void testBudgetIsSharedFairly() {
+        Grid2D grid2D = new Grid2D(100, 100);
+        SearchScheduler scheduler = new SearchScheduler(grid2D, 100);
+        List<ResumableSearch> searches = new ArrayList<>();
+        for (int agent = 0; agent < 4; agent++) {
+            searches.add(scheduler.submit(agent, agent, 0, 99 - agent, 99));
+        }
+
+        assertTrue(scheduler.tick().isEmpty(), "No long query should finish in the first tick");
+        for (ResumableSearch search : searches) {
+            assertEquals(25, search.getExpandedNodes(), "Each of four searches should get a quarter of the budget");
+        }
+
+        scheduler.submit(9, 50, 50, 50, 52); // short query: three expansions
+        Map<Integer, ResumableSearch> finished = scheduler.tick();
+        assertTrue(finished.containsKey(9), "Short query should finish in its first tick");
+        int total = 0;
+        for (ResumableSearch search : searches) total += search.getExpandedNodes();
+        assertEquals(200 - 3, total, "What the short query leaves over should go to the others");
+
+        Map<Integer, ResumableSearch> results = new HashMap<>();
+        for (int tick = 0; tick < 1000 && scheduler.getPendingCount() > 0; tick++) {
+            results.putAll(scheduler.tick());
+        }
+        assertEquals(4, results.size(), "All queries should finish");
+        assertEquals(99 * 14, results.get(0).getCost(), "Diagonal query should find the diagonal");
+    }
+
+    @Test
+    void testResubmitCancelsPendingQuery() {
+        SearchScheduler scheduler = new SearchScheduler(new Grid2D(100, 100), 10);
+        ResumableSearch first = scheduler.submit(1, 0, 0, 99, 99);
+        scheduler.submit(1, 0, 0, 0, 1);
+
+        assertEquals(SearchStatus.CANCELLED, first.getStatus(), "Replaced query should be cancelled");
+        assertEquals(1, scheduler.getPendingCount(), "Only the new query should be pending");
+    }
+}
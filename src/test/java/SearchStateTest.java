@@ -0,0 +1,59 @@
+import com.rahmatullin.dev.algorithmRealisation.AStar;
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import com.rahmatullin.dev.algorithmRealisation.OffHeapSearchState;
+import com.rahmatullin.dev.algorithmRealisation.SearchState;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchStateTest {
+
+    @Test
+    void testOffHeapStateMatchesHeapState() {
+        assertTrue(SearchState.isOffHeapAvailable(), "Tests run with --enable-preview");
+        Grid2D grid2D = new Grid2D(60, 45);
+        grid2D.createObstaclesInGrid(500);
+        IndexedAStar heap = new IndexedAStar(grid2D);
+        Random random = new Random(11);
+
+        try (SearchState state = SearchState.create(60 * 45, true)) {
+            IndexedAStar offHeap = new IndexedAStar(grid2D, AStar.OpenSetType.BINARY_HEAP, state);
+            for (int i = 0; i < 200; i++) { // one state reused for every search
+                int sx = random.nextInt(60), sy = random.nextInt(45), ex = random.nextInt(60), ey = random.nextInt(45);
+                CompactPath expected = heap.search(sx, sy, ex, ey);
+                CompactPath path = offHeap.search(sx, sy, ex, ey);
+                assertEquals(heap.getCost(), offHeap.getCost(), "Costs should match");
+                assertEquals(heap.getExpandedNodes(), offHeap.getExpandedNodes(), "Both should expand the same nodes");
+                if (expected != null) assertEquals(expected.getCellCount(), path.getCellCount(), "Paths should match");
+            }
+        }
+    }
+
+    @Test
+    void testArenaControlsLifetime() {
+        Grid2D grid2D = new Grid2D(20, 20);
+        Arena arena = Arena.ofConfined();
+        OffHeapSearchState state = new OffHeapSearchState(400, arena);
+        assertEquals(400L * 16, state.getByteSize(), "Each cell should take four ints");
+        IndexedAStar search = new IndexedAStar(grid2D, AStar.OpenSetType.BINARY_HEAP, state);
+
+        state.close(); // the arena belongs to the caller
+        assertNotNull(search.search(0, 0, 19, 19), "Memory should live until the arena is closed");
+        arena.close();
+        assertThrows(IllegalStateException.class, () -> search.search(0, 0, 19, 19), "Freed memory should not be readable");
+    }
+
+    @Test
+    void testStateMustCoverGrid() {
+        try (SearchState state = SearchState.create(99, false)) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new IndexedAStar(new Grid2D(10, 10), AStar.OpenSetType.BINARY_HEAP, state),
+                    "State smaller than the grid should be rejected");
+        }
+    }
+}
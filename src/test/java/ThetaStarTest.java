@@ -0,0 +1,71 @@
+import com.rahmatullin.dev.algorithmRealisation.BitGrid;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.MultiGoalSearch;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.algorithmRealisation.ThetaStar;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThetaStarTest {
+
+    @Test
+    void testOpenGridGivesStraightLine() {
+        Grid2D grid2D = new Grid2D(20, 20);
+        Point start = grid2D.getGrid()[0][0];
+        Point end = grid2D.getGrid()[19][7];
+
+        ArrayList<Point> path = new ThetaStar(start, end, grid2D).search();
+        assertNotNull(path, "Path should not be null");
+        assertEquals(List.of(start, end), path, "Path should be a single straight segment");
+        assertEquals((int) (10 * Math.sqrt(19 * 19 + 7 * 7)), end.gCost, "Cost should be the Euclidean distance");
+    }
+
+    @Test
+    void testLineOfSight() {
+        BitGrid bitGrid = new BitGrid(10, 100);
+        bitGrid.setBlocked(5, 70, true);
+
+        assertTrue(bitGrid.hasLineOfSight(0, 0, 9, 99), "Diagonal across the grid should be free");
+        assertFalse(bitGrid.hasLineOfSight(5, 0, 5, 99), "Row run through the wall should be blocked");
+        assertFalse(bitGrid.hasLineOfSight(0, 70, 9, 70), "Column through the wall should be blocked");
+        assertTrue(bitGrid.hasLineOfSight(4, 60, 4, 80), "Neighboring row should be free");
+
+        // Two walls touching in a corner can be passed diagonally, like a diagonal move does
+        bitGrid.setBlocked(1, 2, true);
+        bitGrid.setBlocked(2, 1, true);
+        assertTrue(bitGrid.hasLineOfSight(1, 1, 2, 2), "Diagonal between corner walls should be free");
+        assertFalse(bitGrid.hasLineOfSight(0, 0, 3, 5), "Segment through a wall should be blocked");
+    }
+
+    @Test
+    void testPathAroundObstaclesIsVisibleAndShorter() {
+        for (int run = 0; run < 10; run++) {
+            Grid2D grid2D = new Grid2D(40, 40);
+            grid2D.createObstaclesInGrid(300);
+            BitGrid bitGrid = BitGrid.of(grid2D);
+            Point start = grid2D.getGrid()[0][0];
+            Point end = grid2D.getGrid()[39][39];
+            if (start.status == Point.Status.BLOCK || end.status == Point.Status.BLOCK) continue;
+
+            ArrayList<Point> path = new ThetaStar(start, end, grid2D, bitGrid).search();
+            int anyAngleCost = end.gCost;
+            Integer gridCost = new MultiGoalSearch(start, List.of(end), grid2D).search().get(end);
+            if (gridCost == null) {
+                assertNull(path, "Theta* should not find a path either");
+                continue;
+            }
+            assertNotNull(path, "Theta* should find a path");
+            // Costs are rounded down per segment, so allow one unit per turning point
+            assertTrue(anyAngleCost <= gridCost + path.size(), "Any-angle path should not be longer than the grid path");
+            for (int i = 1; i < path.size(); i++) {
+                Point a = path.get(i - 1);
+                Point b = path.get(i);
+                assertTrue(bitGrid.hasLineOfSight(a.x, a.y, b.x, b.y), "Consecutive turning points should see each other " + a.x + "," + a.y + " " + b.x + "," + b.y);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+import com.rahmatullin.dev.algorithmRealisation.CompactPath;
+import com.rahmatullin.dev.algorithmRealisation.Grid2D;
+import com.rahmatullin.dev.algorithmRealisation.GridSnapshot;
+import com.rahmatullin.dev.algorithmRealisation.IndexedAStar;
+import com.rahmatullin.dev.algorithmRealisation.MultiGoalSearch;
+import com.rahmatullin.dev.algorithmRealisation.Point;
+import com.rahmatullin.dev.algorithmRealisation.VersionedGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedGridTest {
+
+    @Test
+    void testUpdateCopiesOnlyChangedTiles() {
+        VersionedGrid versionedGrid = new VersionedGrid(new Grid2D(128, 128)); // 2 x 2 tiles
+        GridSnapshot before = versionedGrid.snapshot();
+        GridSnapshot after = versionedGrid.update(editor -> editor.setBlocked(5, 70, true).setTerrainCost(6, 6, 3));
+
+        assertFalse(before.isBlocked(5, 70), "Pinned snapshot should not see the new wall");
+        assertTrue(after.isBlocked(5, 70), "New snapshot should see the new wall");
+        assertEquals(3, after.getTerrainCost(6, 6), "New snapshot should see the new cost");
+        assertEquals(1, before.getTerrainCost(6, 6), "Pinned snapshot should keep the old cost");
+        assertEquals(before.getVersion() + 1, after.getVersion(), "Version should be incremented");
+        assertEquals(3, after.getSharedTileCount(before), "Three of four wall tiles should be shared");
+
+        assertSame(after, versionedGrid.update(editor -> editor.setBlocked(5, 70, true)), "No-op edit should publish nothing");
+    }
+
+    @Test
+    void testIndexedAStarMatchesDijkstra() {
+        for (int run = 0; run < 10; run++) {
+            Grid2D grid2D = new Grid2D(40, 70);
+            grid2D.createObstaclesInGrid(500);
+            grid2D.setTerrainCost(20, 35, 9);
+            Point start = grid2D.getGrid()[1][2];
+            Point end = grid2D.getGrid()[38][66];
+            if (start.status == Point.Status.BLOCK || end.status == Point.Status.BLOCK) continue;
+
+            IndexedAStar search = new IndexedAStar(GridSnapshot.of(grid2D));
+            CompactPath path = search.search(start.x, start.y, end.x, end.y);
+            Integer expected = new MultiGoalSearch(start, List.of(end), grid2D).search().get(end);
+
+            if (expected == null) {
+                assertNull(path, "No path should be found when the end is unreachable");
+            } else {
+                assertNotNull(path, "A path should be found");
+                assertEquals((int) expected, search.getCost(), "Cost should be optimal");
+            }
+        }
+    }
+
+    @Test
+    void testReadersSeeConsistentVersionsWhileWriterToggles() throws InterruptedException {
+        // A wall across the whole grid at x = 10 that a writer keeps opening and closing in one edit
+        VersionedGrid versionedGrid = new VersionedGrid(new Grid2D(20, 100));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger inconsistent = new AtomicInteger();
+        AtomicInteger searches = new AtomicInteger();
+
+        Thread writer = new Thread(() -> {
+            boolean blocked = true;
+            while (running.get()) {
+                boolean wall = blocked;
+                versionedGrid.update(editor -> {
+                    for (int y = 0; y < 100; y++) editor.setBlocked(10, y, wall);
+                });
+                blocked = !blocked;
+            }
+        });
+        Thread[] readers = new Thread[3];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                for (int query = 0; query < 200; query++) {
+                    GridSnapshot snapshot = versionedGrid.snapshot();
+                    CompactPath path = new IndexedAStar(snapshot).search(0, 50, 19, 50);
+                    boolean closed = snapshot.isBlocked(10, 0);
+                    for (int y = 1; y < 100; y++) {
+                        if (snapshot.isBlocked(10, y) != closed) inconsistent.incrementAndGet();
+                    }
+                    if ((path == null) != closed) inconsistent.incrementAndGet();
+                    searches.incrementAndGet();
+                }
+            });
+        }
+        writer.start();
+        for (Thread reader : readers) reader.start();
+        for (Thread reader : readers) reader.join();
+        running.set(false);
+        writer.join();
+
+        assertEquals(600, searches.get(), "All searches should finish");
+        assertEquals(0, inconsistent.get(), "Every search should see one whole version");
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * File: ParallelAStarBenchmark.java
+ * Description: JMH benchmark of the speedup of ParallelAStar over its worker count.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+package com.rahmatullin.dev.algorithmRealisation;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one corner-to-corner query on the same seeded map with every worker count, so the speedup on
+ * N workers is the score of workers = 1 divided by the score of workers = N. The map has walls on
+ * a fifth of its cells, and the query crosses the whole map like the single large queries HDA* is meant for.
+ * Run on a machine with at least as many cores as the largest worker count, with:
+ * java -cp target/test-classes:target/classes:[test classpath] com.rahmatullin.dev.algorithmRealisation.ParallelAStarBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelAStarBenchmark {
+
+    @Param({"1000"})
+    private int size;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    private int workers;
+
+    private Grid2D grid2D;
+
+    @Setup
+    public void setUp() {
+        grid2D = new Grid2D(size, size);
+        grid2D.createObstaclesInGrid(0);
+        Random rnd = new Random(42);
+        ObstacleChangeSet walls = new ObstacleChangeSet();
+        for (int i = 0; i < size * size / 5; i++) {
+            walls.block(rnd.nextInt(size), rnd.nextInt(size));
+        }
+        walls.unblock(0, 0);
+        walls.unblock(size - 1, size - 1);
+        grid2D.applyChanges(walls);
+    }
+
+    @Benchmark
+    public ArrayList<Point> parallelAStar() throws InterruptedException {
+        Point[][] matrix = grid2D.getGrid();
+        return new ParallelAStar(matrix[0][0], matrix[size - 1][size - 1], grid2D, workers).search();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParallelAStarBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * File: VectorRowKernelBenchmark.java
+ * Description: JMH benchmark of the vector row kernel of BitParallelBFS against its scalar loop.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+package com.rahmatullin.dev.algorithmRealisation;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Combines the same seeded rows with the vector kernel and with the scalar loop of BitParallelBFS,
+ * for a narrow row and for rows of the 4096 and 65536 cells of large maps.
+ * The forked JVM gets --add-modules jdk.incubator.vector. Run with:
+ * java --add-modules jdk.incubator.vector -cp target/test-classes:target/classes:[test classpath] com.rahmatullin.dev.algorithmRealisation.VectorRowKernelBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class VectorRowKernelBenchmark {
+
+    @Param({"4", "64", "1024"})
+    private int words;
+
+    private long[] dilated;
+    private long[] walls;
+    private long[] visited;
+    private long[] next;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        dilated = new long[3 * words];
+        walls = new long[words];
+        visited = new long[words];
+        next = new long[words];
+        for (int i = 0; i < words; i++) {
+            dilated[i] = rnd.nextLong();
+            dilated[words + i] = rnd.nextLong();
+            dilated[2 * words + i] = rnd.nextLong();
+            walls[i] = rnd.nextLong() & rnd.nextLong(); // about a quarter of the cells
+            visited[i] = rnd.nextLong();
+        }
+    }
+
+    @Benchmark
+    public long[] vector() {
+        int i = VectorRowKernel.combine(dilated, 0, words, 2 * words, walls, visited, next, 0, words);
+        for (; i < words; i++) {
+            next[i] = (dilated[i] | dilated[words + i] | dilated[2 * words + i]) & ~(walls[i] | visited[i]);
+        }
+        return next;
+    }
+
+    @Benchmark
+    public long[] scalar() {
+        for (int i = 0; i < words; i++) {
+            next[i] = (dilated[i] | dilated[words + i] | dilated[2 * words + i]) & ~(walls[i] | visited[i]);
+        }
+        return next;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(VectorRowKernelBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * File: VectorRowKernelTest.java
+ * Description: Checks the vector row kernel of BitParallelBFS against its scalar loop.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+package com.rahmatullin.dev.algorithmRealisation;
+
+import jdk.incubator.vector.LongVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorRowKernelTest {
+
+    @Test
+    void testMatchesScalarLoop() {
+        Random random = new Random(7);
+        int lanes = LongVector.SPECIES_PREFERRED.length();
+        for (int words : new int[]{1, 3, 8, 37, 64}) {
+            int offset = words; // the row in the middle of three
+            long[] dilated = randomWords(random, 4 * words);
+            long[] walls = randomWords(random, 3 * words);
+            long[] visited = randomWords(random, 3 * words);
+            long[] expected = new long[3 * words];
+            long[] actual = new long[3 * words];
+            for (int i = 0; i < words; i++) {
+                expected[offset + i] = (dilated[offset + i] | dilated[offset + words + i] | dilated[offset + 2 * words + i])
+                        & ~(walls[offset + i] | visited[offset + i]);
+            }
+
+            int done = VectorRowKernel.combine(dilated, offset, offset + words, offset + 2 * words,
+                    walls, visited, actual, offset, words);
+
+            assertEquals(words - words % lanes, done, "Kernel should do every full vector of a " + words + " word row");
+            for (int i = 0; i < done; i++) {
+                assertEquals(expected[offset + i], actual[offset + i], "Word " + i + " of a " + words + " word row");
+            }
+            for (int i = done; i < 2 * words; i++) {
+                assertEquals(0L, actual[offset + i], "Kernel should leave the tail of the row to the caller");
+            }
+            assertEquals(0L, actual[offset - 1], "Kernel should not write before the row");
+        }
+    }
+
+    private long[] randomWords(Random random, int count) {
+        long[] words = new long[count];
+        for (int i = 0; i < count; i++) {
+            words[i] = random.nextLong();
+        }
+        return words;
+    }
+}
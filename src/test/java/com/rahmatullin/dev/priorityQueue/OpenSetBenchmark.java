@@ -0,0 +1,112 @@
+/*
+ * File: OpenSetBenchmark.java
+ * Description: JMH benchmark of the open set implementations on an A*-like workload.
+ * Authors:
+ *   - Damir Rakhmatullin
+ * Copyright: (c) 2024 Damir Rakhmatullin
+ * License: This file is licensed under the MIT License.
+ */
+package com.rahmatullin.dev.priorityQueue;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the same sequence of adds and extracts on every open set implementation:
+ * keys grow slowly like A* total costs and there are about seven adds per extract,
+ * as when a node of an 8-connected grid is expanded.
+ * Run with: java -cp target/test-classes:target/classes:[test classpath] com.rahmatullin.dev.priorityQueue.OpenSetBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenSetBenchmark {
+
+    // Entry of the comparison-based queue, the same shape as a Point compared by its total cost
+    private record Node(int id, int fCost) {
+    }
+
+    @Param({"100000"})
+    private int operations;
+
+    private int[] keys;       // key of every add
+    private boolean[] adds;   // true for an add, false for an extract
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        keys = new int[operations];
+        adds = new boolean[operations];
+        int base = 0;
+        int queued = 0;
+        for (int i = 0; i < operations; i++) {
+            adds[i] = queued == 0 || rnd.nextInt(8) > 0;
+            if (adds[i]) {
+                keys[i] = base + rnd.nextInt(28);
+                queued++;
+            } else {
+                base += rnd.nextInt(3);
+                queued--;
+            }
+        }
+    }
+
+    @Benchmark
+    public int priorityQueueMin() {
+        PriorityQueueMin<Node> queue = new PriorityQueueMin<>(Comparator.comparingDouble(node -> node.fCost()));
+        int checksum = 0;
+        for (int i = 0; i < operations; i++) {
+            if (adds[i]) {
+                queue.add(new Node(i, keys[i]));
+            } else {
+                checksum += queue.extract().id();
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public int binaryIntHeap() {
+        return replay(new BinaryIntHeap(1024));
+    }
+
+    @Benchmark
+    public int quaternaryIntHeap() {
+        return replay(new QuaternaryIntHeap(1024));
+    }
+
+    @Benchmark
+    public int pairingIntHeap() {
+        return replay(new PairingIntHeap(1024));
+    }
+
+    @Benchmark
+    public int bucketQueueMin() {
+        return replay(new BucketQueueMin(32));
+    }
+
+    private int replay(IntPriorityQueue queue) {
+        int checksum = 0;
+        for (int i = 0; i < operations; i++) {
+            if (adds[i]) {
+                queue.add(i, keys[i]);
+            } else {
+                checksum += queue.extract();
+            }
+        }
+        return checksum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OpenSetBenchmark.class.getSimpleName()).build()).run();
+    }
+}